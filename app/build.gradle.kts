@@ -38,6 +38,21 @@ android {
     buildFeatures {
         viewBinding = true
     }
+    sourceSets {
+        getByName("main") {
+            assets.srcDir(layout.buildDirectory.dir("generated/seedCatalog"))
+        }
+        // Codec micro-benchmarks only run on demand: -PcodecBenchmark
+        if (project.hasProperty("codecBenchmark")) {
+            getByName("test") {
+                java.srcDir("src/benchmark/java")
+            }
+        }
+    }
+    androidResources {
+        // The seed catalog is memory-mapped straight from the APK
+        noCompress += "bin"
+    }
 }
 
 dependencies {
@@ -58,11 +73,20 @@ dependencies {
     implementation("androidx.lifecycle:lifecycle-viewmodel-ktx:2.6.2")
     implementation("androidx.lifecycle:lifecycle-livedata-ktx:2.6.2")
 
+    // WorkManager
+    implementation("androidx.work:work-runtime:2.9.0")
+
     // Circle ImageView
     implementation("de.hdodenhof:circleimageview:3.1.0")
 
     // Glide for image loading
     implementation("com.github.bumptech.glide:glide:4.16.0")
+    // Generates GlideApp from the app's AppGlideModule (custom model loaders)
+    annotationProcessor("com.github.bumptech.glide:compiler:4.16.0")
+    // RecyclerViewPreloader: prefetch card images ahead of the scroll
+    implementation("com.github.bumptech.glide:recyclerview-integration:4.16.0") {
+        isTransitive = false
+    }
 
     // Retrofit for network requests
     implementation("com.squareup.retrofit2:retrofit:2.9.0")
@@ -84,8 +108,36 @@ dependencies {
     implementation("com.google.firebase:firebase-storage")
     implementation("com.google.firebase:firebase-messaging")
     
+    // Firestore model codecs (annotation processor)
+    implementation(project(":codec"))
+    annotationProcessor(project(":codec"))
+
+    // Binary catalog snapshot format (reader only; the generator lives in :catalog-tool)
+    implementation(project(":catalog-format"))
+
     // Room database
     implementation("androidx.room:room-runtime:2.6.1")
     implementation("androidx.room:room-ktx:2.6.1")
     annotationProcessor("androidx.room:room-compiler:2.6.1")
-}
\ No newline at end of file
+}
+
+// Seed catalog snapshot, generated from the exported Firestore dump and packaged in assets
+val catalogTool by configurations.creating
+
+dependencies {
+    catalogTool(project(":catalog-tool"))
+}
+
+val generateSeedCatalog by tasks.registering(JavaExec::class) {
+    val dump = file("catalog/catalog-export.json")
+    val output = layout.buildDirectory.file("generated/seedCatalog/catalog_seed.bin")
+    inputs.file(dump)
+    outputs.file(output)
+    classpath = catalogTool
+    mainClass.set("com.example.learnizone.catalog.tool.SeedCatalogGenerator")
+    args(dump.absolutePath, output.get().asFile.absolutePath)
+}
+
+tasks.named("preBuild") {
+    dependsOn(generateSeedCatalog)
+}
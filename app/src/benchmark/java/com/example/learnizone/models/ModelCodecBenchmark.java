@@ -0,0 +1,108 @@
+package com.example.learnizone.models;
+
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Micro-benchmarks des codecs générés, à la manière de JMH : itérations de chauffe,
+ * puis mesures dont on retient la meilleure, avec un puits pour empêcher
+ * l'élimination du code mort. Les temps sont affichés en ns/op.
+ * Hors des tests unitaires (la justesse est couverte par ModelCodecTest) ; lancement :
+ * ./gradlew :app:testDebugUnitTest -PcodecBenchmark --tests '*ModelCodecBenchmark'
+ */
+public class ModelCodecBenchmark {
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 5;
+    private static final int OPERATIONS = 20_000;
+
+    private static long sink;
+
+    @Test
+    public void userNotification() {
+        Map<String, Object> data = notificationData();
+        UserNotification notification = UserNotificationCodec.decode("n1", data);
+
+        report("UserNotification.decode", () -> {
+            UserNotification decoded = UserNotificationCodec.decode("n1", data);
+            sink += decoded.getTitle().length();
+        });
+        report("UserNotification.encode", () -> sink += UserNotificationCodec.encode(notification).size());
+    }
+
+    @Test
+    public void lesson() {
+        Map<String, Object> data = lessonData();
+        Lesson lesson = LessonCodec.decode("l1", data);
+
+        report("Lesson.decode", () -> {
+            Lesson decoded = LessonCodec.decode("l1", data);
+            sink += decoded.getDuration();
+        });
+        report("Lesson.encode", () -> sink += LessonCodec.encode(lesson).size());
+    }
+
+    private static void report(String name, Runnable operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            run(operation);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            best = Math.min(best, run(operation));
+        }
+        System.out.printf("%-26s %8.1f ns/op%n", name, (double) best / OPERATIONS);
+    }
+
+    private static long run(Runnable operation) {
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            operation.run();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static Map<String, Object> notificationData() {
+        Map<String, Object> extra = new HashMap<>();
+        extra.put("quizId", "quiz-1");
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("userId", "user-1");
+        data.put("type", "quiz_due");
+        data.put("title", "Quiz à faire : Java");
+        data.put("message", "Ce quiz est à faire avant demain");
+        data.put("imageUrl", null);
+        data.put("priority", "high");
+        data.put("createdAt", new Date(1_700_000_000_000L));
+        data.put("scheduledAt", null);
+        data.put("sentAt", new Date(1_700_000_001_000L));
+        data.put("readAt", new Date(1_700_000_002_000L));
+        data.put("updatedAt", new Date(1_700_000_002_000L));
+        data.put("isRead", true);
+        data.put("isSent", true);
+        data.put("isDeleted", false);
+        data.put("data", extra);
+        return data;
+    }
+
+    private static Map<String, Object> lessonData() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("courseId", "course-1");
+        data.put("sectionId", "section-1");
+        data.put("title", "Introduction");
+        data.put("description", "Premiers pas");
+        data.put("type", "video");
+        data.put("content", null);
+        data.put("videoUrl", "https://example.com/v.mp4");
+        data.put("audioUrl", null);
+        data.put("duration", 12);
+        data.put("orderIndex", 1);
+        data.put("isPublished", true);
+        data.put("isFree", false);
+        data.put("createdAt", new Date(1_700_000_000_000L));
+        data.put("updatedAt", new Date(1_700_000_000_000L));
+        data.put("metadata", new HashMap<String, Object>());
+        return data;
+    }
+}
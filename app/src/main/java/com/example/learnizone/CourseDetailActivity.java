@@ -2,22 +2,34 @@ package com.example.learnizone;
 
 import android.os.Bundle;
 import android.view.MenuItem;
+import android.view.View;
 import android.widget.Button;
 import android.widget.ImageView;
+import android.widget.RatingBar;
 import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
+import androidx.core.widget.NestedScrollView;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestManager;
+import com.example.learnizone.glide.CourseImage;
 import com.example.learnizone.adapters.LearningPointAdapter;
 import com.example.learnizone.adapters.ModuleAdapter;
+import com.example.learnizone.adapters.ReviewAdapter;
+import com.example.learnizone.auth.AuthManager;
+import com.example.learnizone.auth.Session;
+import com.example.learnizone.managers.ReviewAggregator;
 import com.example.learnizone.models.Course;
 import com.example.learnizone.models.Module;
+import com.example.learnizone.repositories.CatalogRepository;
+import com.google.android.material.textfield.TextInputEditText;
+import com.google.firebase.firestore.DocumentSnapshot;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -26,6 +38,9 @@ public class CourseDetailActivity extends AppCompatActivity {
 
     public static final String EXTRA_COURSE_ID = "com.example.learnizone.EXTRA_COURSE_ID";
 
+    // Distance du bas (px) à partir de laquelle la page d'avis suivante est chargée
+    private static final int REVIEWS_PREFETCH_DISTANCE = 600;
+
     private ImageView courseImage;
     private TextView courseCategory;
     private TextView courseTitle;
@@ -35,10 +50,25 @@ public class CourseDetailActivity extends AppCompatActivity {
     private TextView courseDescription;
     private RecyclerView courseLearningPoints;
     private RecyclerView courseModules;
+    private RecyclerView courseReviews;
+    private TextView courseReviewsEmpty;
+    private NestedScrollView courseScroll;
+    private View reviewForm;
+    private RatingBar reviewRatingInput;
+    private TextInputEditText reviewCommentInput;
+    private Button reviewSubmitButton;
     private Button actionButton;
 
+    private ReviewAdapter reviewAdapter;
+    private DocumentSnapshot lastReview;
+    private boolean hasMoreReviews = true;
+    private boolean loadingReviews;
+    // Incrémenté à chaque rechargement : les pages demandées avant sont ignorées
+    private int reviewsGeneration;
+
     private String courseId;
     private Course course;
+    private List<Module> modules;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -54,9 +84,12 @@ public class CourseDetailActivity extends AppCompatActivity {
 
         initViews();
         setupToolbar();
-        loadCourseData();
         setupRecyclerViews();
+        setupReviews();
         setupActionButton();
+        // Le catalogue local est ouvert en arrière-plan au démarrage de l'application
+        CatalogRepository.getInstance(this).whenOpened()
+                .addOnCompleteListener(this, task -> loadCourseData());
     }
 
     private void initViews() {
@@ -69,6 +102,13 @@ public class CourseDetailActivity extends AppCompatActivity {
         courseDescription = findViewById(R.id.course_description);
         courseLearningPoints = findViewById(R.id.course_learning_points);
         courseModules = findViewById(R.id.course_modules);
+        courseReviews = findViewById(R.id.course_reviews);
+        courseReviewsEmpty = findViewById(R.id.course_reviews_empty);
+        courseScroll = findViewById(R.id.course_scroll);
+        reviewForm = findViewById(R.id.course_review_form);
+        reviewRatingInput = findViewById(R.id.course_review_rating);
+        reviewCommentInput = findViewById(R.id.course_review_comment);
+        reviewSubmitButton = findViewById(R.id.course_review_submit);
         actionButton = findViewById(R.id.action_button);
     }
 
@@ -82,8 +122,16 @@ public class CourseDetailActivity extends AppCompatActivity {
     }
 
     private void loadCourseData() {
-        // Dans une vraie application, ces données viendraient d'une API
-        course = DataProvider.getCourseById(courseId);
+        // Catalogue local d'abord : disponible avant la réponse de Firestore
+        CatalogRepository catalog = CatalogRepository.getInstance(this);
+        course = catalog.getCourse(courseId);
+        if (course != null) {
+            modules = catalog.getModules(courseId);
+        } else {
+            // Cours d'exemple des listes de démonstration, absents du catalogue
+            course = DataProvider.getCourseById(courseId);
+            modules = getSampleModules();
+        }
 
         if (course == null) {
             Toast.makeText(this, "Erreur : Cours introuvable", Toast.LENGTH_SHORT).show();
@@ -91,17 +139,22 @@ public class CourseDetailActivity extends AppCompatActivity {
             return;
         }
 
+        courseModules.setAdapter(new ModuleAdapter(modules));
+
         courseTitle.setText(course.getTitle());
         courseCategory.setText(course.getCategory());
         courseDifficulty.setText(course.getDifficulty());
         courseDuration.setText(course.getDuration());
         courseRating.setText(String.format("%.1f", course.getRating()));
+        // Remplacée par la note du résumé des avis dès qu'il est lu
+        loadReviewSummary();
         courseDescription.setText(course.getDescription());
 
-        // Charger l'image avec Glide
-        Glide.with(this)
-                .load(course.getImageUrl())
+        // Charger l'image avec Glide, l'URL d'origine servant de repli si la variante manque
+        RequestManager glide = Glide.with(this);
+        glide.load(new CourseImage(course.getImageUrl()))
                 .centerCrop()
+                .error(glide.load(course.getImageUrl()).centerCrop())
                 .into(courseImage);
     }
 
@@ -112,11 +165,108 @@ public class CourseDetailActivity extends AppCompatActivity {
         LearningPointAdapter learningPointAdapter = new LearningPointAdapter(getLearningPoints());
         courseLearningPoints.setAdapter(learningPointAdapter);
 
-        // Configuration du recyclerview des modules
+        // Configuration du recyclerview des modules, rempli une fois le cours chargé
         LinearLayoutManager modulesLayoutManager = new LinearLayoutManager(this);
         courseModules.setLayoutManager(modulesLayoutManager);
-        ModuleAdapter moduleAdapter = new ModuleAdapter(getModules());
-        courseModules.setAdapter(moduleAdapter);
+    }
+
+    /**
+     * Note moyenne lue dans le résumé des avis ; les avis eux-mêmes sont chargés
+     * page par page à l'approche du bas de l'écran
+     */
+    private void setupReviews() {
+        setupReviewForm();
+
+        courseReviews.setLayoutManager(new LinearLayoutManager(this));
+        reviewAdapter = new ReviewAdapter();
+        courseReviews.setAdapter(reviewAdapter);
+
+        courseScroll.setOnScrollChangeListener((NestedScrollView.OnScrollChangeListener)
+                (view, scrollX, scrollY, oldScrollX, oldScrollY) -> {
+            View content = view.getChildAt(0);
+            if (content.getBottom() - (view.getHeight() + scrollY) < REVIEWS_PREFETCH_DISTANCE) {
+                loadNextReviews();
+            }
+        });
+        loadNextReviews();
+    }
+
+    private void loadReviewSummary() {
+        ReviewAggregator.getInstance().getSummary(courseId).addOnSuccessListener(this, summary -> {
+            if (!summary.isEmpty()) {
+                courseRating.setText(getString(R.string.reviews_summary,
+                        summary.getAverageRating(), summary.getReviewCount()));
+            }
+        });
+    }
+
+    /**
+     * Formulaire d'avis, réservé aux utilisateurs connectés ; publier à nouveau modifie l'avis
+     */
+    private void setupReviewForm() {
+        Session session = AuthManager.getInstance(this).getCurrentSession();
+        if (session == null || !session.isLoggedIn()) {
+            reviewForm.setVisibility(View.GONE);
+            return;
+        }
+        reviewForm.setVisibility(View.VISIBLE);
+
+        reviewSubmitButton.setOnClickListener(v -> {
+            int rating = Math.round(reviewRatingInput.getRating());
+            if (rating < 1) {
+                Toast.makeText(this, R.string.review_rating_required, Toast.LENGTH_SHORT).show();
+                return;
+            }
+            CharSequence text = reviewCommentInput.getText();
+            String comment = text != null ? text.toString().trim() : "";
+
+            reviewSubmitButton.setEnabled(false);
+            ReviewAggregator.getInstance()
+                    .submitReview(courseId, session.getUserId(), session.getUserName(), rating, comment)
+                    .addOnCompleteListener(this, task -> {
+                        reviewSubmitButton.setEnabled(true);
+                        if (!task.isSuccessful()) {
+                            Toast.makeText(this, R.string.review_error, Toast.LENGTH_SHORT).show();
+                            return;
+                        }
+                        Toast.makeText(this, R.string.review_saved, Toast.LENGTH_SHORT).show();
+                        reloadReviews();
+                    });
+        });
+    }
+
+    /**
+     * Après une publication : résumé relu (cache invalidé) et avis repris depuis la première page
+     */
+    private void reloadReviews() {
+        loadReviewSummary();
+        reviewsGeneration++;
+        reviewAdapter.clear();
+        lastReview = null;
+        hasMoreReviews = true;
+        loadingReviews = false;
+        loadNextReviews();
+    }
+
+    private void loadNextReviews() {
+        if (loadingReviews || !hasMoreReviews) return;
+        loadingReviews = true;
+        int generation = reviewsGeneration;
+
+        ReviewAggregator.getInstance()
+                .getReviewsPage(courseId, lastReview, ReviewAggregator.DEFAULT_PAGE_SIZE)
+                .addOnCompleteListener(this, task -> {
+                    if (generation != reviewsGeneration) return;
+                    loadingReviews = false;
+                    if (!task.isSuccessful()) return;
+
+                    ReviewAggregator.Page page = task.getResult();
+                    lastReview = page.getLast() != null ? page.getLast() : lastReview;
+                    hasMoreReviews = page.hasMore();
+                    reviewAdapter.appendReviews(page.getReviews());
+                    courseReviewsEmpty.setVisibility(
+                            reviewAdapter.getItemCount() == 0 ? View.VISIBLE : View.GONE);
+                });
     }
 
     private void setupActionButton() {
@@ -161,7 +311,7 @@ public class CourseDetailActivity extends AppCompatActivity {
         return learningPoints;
     }
 
-    private List<Module> getModules() {
+    private List<Module> getSampleModules() {
         List<Module> modules = new ArrayList<>();
         modules.add(new Module("1", "Introduction à JavaScript", "2 leçons • 45 min"));
         modules.add(new Module("2", "Variables et types de données", "4 leçons • 1h 15min"));
@@ -19,10 +19,12 @@ import com.example.learnizone.adapters.CategoryAdapter;
 import com.example.learnizone.adapters.CourseCardAdapter;
 import com.example.learnizone.models.Category;
 import com.example.learnizone.models.Course;
+import com.example.learnizone.repositories.CatalogRepository;
 import com.example.learnizone.CourseDetailActivity;  // ajuste le chemin si nécessaire
 
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class CoursesFragment extends Fragment {
@@ -33,6 +35,7 @@ public class CoursesFragment extends Fragment {
 
     private CategoryAdapter categoryAdapter;
     private CourseCardAdapter courseAdapter;
+    private List<Course> catalogCourses = Collections.emptyList();
 
     @Nullable
     @Override
@@ -50,6 +53,18 @@ public class CoursesFragment extends Fragment {
         return view;
     }
 
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+
+        // Catalogue local affiché dès son ouverture, puis remplacé après synchronisation
+        CatalogRepository.getInstance(requireContext()).getCourses()
+            .observe(getViewLifecycleOwner(), courses -> {
+                catalogCourses = courses;
+                loadAllCourses();
+            });
+    }
+
     private void setupRecyclerViews() {
         // Configuration du recyclerview des catégories
         LinearLayoutManager categoryLayoutManager = new LinearLayoutManager(getContext(), LinearLayoutManager.HORIZONTAL, false);
@@ -68,6 +83,7 @@ public class CoursesFragment extends Fragment {
             navigateToCourseDetails(course.getId());
         });
         coursesRecyclerView.setAdapter(courseAdapter);
+        courseAdapter.attachPreloader(coursesRecyclerView);
     }
 
     private void setupSearchView() {
@@ -152,6 +168,10 @@ public class CoursesFragment extends Fragment {
     }
 
     private List<Course> getAllCoursesData() {
+        if (!catalogCourses.isEmpty()) {
+            return catalogCourses;
+        }
+
         List<Course> courses = new ArrayList<>();
 
         // Ces données seraient normalement chargées d'une base de données ou d'une API
@@ -17,13 +17,19 @@ import com.example.learnizone.adapters.CourseCardAdapter;
 import com.example.learnizone.CourseProgress;
 import com.example.learnizone.adapters.CourseProgressAdapter;
 
+import com.example.learnizone.managers.PopularityManager;
 import com.example.learnizone.models.Course;
+import com.example.learnizone.recommendations.RecommendationEngine;
+import com.example.learnizone.repositories.CatalogRepository;
 
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class LearnFragment extends Fragment {
+    private static final int RECOMMENDED_COUNT = 10;
 
     private RecyclerView coursesInProgressRecyclerView;
     private RecyclerView recommendedCoursesRecyclerView;
@@ -36,6 +42,11 @@ public class LearnFragment extends Fragment {
     private TextView recommendedSeeAll;
     private TextView popularSeeAll;
 
+    // Dernier catalogue reçu, réutilisé quand seul le profil change
+    private List<Course> catalogCourses;
+    // Classement populaire, résolu à nouveau à chaque mise à jour du catalogue
+    private List<String> popularCourseIds;
+
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
@@ -55,6 +66,21 @@ public class LearnFragment extends Fragment {
         return view;
     }
 
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+
+        // Recommandations recalculées localement à chaque mise à jour du catalogue ou du profil
+        CatalogRepository.getInstance(requireContext()).getCourses()
+            .observe(getViewLifecycleOwner(), courses -> {
+                catalogCourses = courses;
+                loadRecommendations();
+                showPopularCourses();
+            });
+        RecommendationEngine.getInstance(requireContext()).getProfileRevision()
+            .observe(getViewLifecycleOwner(), revision -> loadRecommendations());
+    }
+
     private void setupRecyclerViews() {
         // Cours en progrès
         coursesInProgressRecyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
@@ -63,21 +89,30 @@ public class LearnFragment extends Fragment {
         });
         coursesInProgressRecyclerView.setAdapter(progressAdapter);
 
+        // Les deux carrousels affichent les mêmes cartes : leurs vues sont recyclées de l'un à l'autre
+        RecyclerView.RecycledViewPool carouselPool = new RecyclerView.RecycledViewPool();
+
         // Cours recommandés
         LinearLayoutManager recommendedLayoutManager = new LinearLayoutManager(getContext(), LinearLayoutManager.HORIZONTAL, false);
+        recommendedLayoutManager.setRecycleChildrenOnDetach(true);
         recommendedCoursesRecyclerView.setLayoutManager(recommendedLayoutManager);
+        recommendedCoursesRecyclerView.setRecycledViewPool(carouselPool);
         recommendedAdapter = new CourseCardAdapter(new ArrayList<>(), course -> {
             navigateToCourseDetails(course.getId());
         });
         recommendedCoursesRecyclerView.setAdapter(recommendedAdapter);
+        recommendedAdapter.attachPreloader(recommendedCoursesRecyclerView);
 
         // Cours populaires
         LinearLayoutManager popularLayoutManager = new LinearLayoutManager(getContext(), LinearLayoutManager.HORIZONTAL, false);
+        popularLayoutManager.setRecycleChildrenOnDetach(true);
         popularCoursesRecyclerView.setLayoutManager(popularLayoutManager);
+        popularCoursesRecyclerView.setRecycledViewPool(carouselPool);
         popularAdapter = new CourseCardAdapter(new ArrayList<>(), course -> {
             navigateToCourseDetails(course.getId());
         });
         popularCoursesRecyclerView.setAdapter(popularAdapter);
+        popularAdapter.attachPreloader(popularCoursesRecyclerView);
     }
 
     private void loadCourses() {
@@ -100,12 +135,50 @@ public class LearnFragment extends Fragment {
             ));
         }
 
-        List<Course> recommendedCourses = DataProvider.getRecommendedCourses();
-        List<Course> popularCourses = DataProvider.getPopularCourses();
-
         progressAdapter.updateCourses(coursesInProgress);
-        recommendedAdapter.updateCourses(recommendedCourses);
-        popularAdapter.updateCourses(popularCourses);
+        loadPopularCourses();
+    }
+
+    /**
+     * Classement précalculé (rankings/popular) : un seul document lu, cours résolus dans le catalogue local
+     */
+    private void loadPopularCourses() {
+        PopularityManager.getInstance().getPopularCourseIds().addOnSuccessListener(courseIds -> {
+            if (!isAdded() || getView() == null) return;
+            popularCourseIds = courseIds;
+            showPopularCourses();
+        });
+    }
+
+    /**
+     * Attend le classement et le catalogue : avant son ouverture, aucun identifiant n'est résolu
+     */
+    private void showPopularCourses() {
+        if (popularCourseIds == null || catalogCourses == null) return;
+
+        CatalogRepository catalog = CatalogRepository.getInstance(requireContext());
+        List<Course> popularCourses = new ArrayList<>(popularCourseIds.size());
+        for (String courseId : popularCourseIds) {
+            Course course = catalog.getCourse(courseId);
+            if (course != null) {
+                popularCourses.add(course);
+            }
+        }
+        popularAdapter.updateCourses(popularCourses.isEmpty() ? DataProvider.getPopularCourses() : popularCourses);
+    }
+
+    private void loadRecommendations() {
+        if (catalogCourses == null) return;
+        List<Course> candidates = catalogCourses.isEmpty() ? DataProvider.getAllCourses() : catalogCourses;
+        RecommendationEngine engine = RecommendationEngine.getInstance(requireContext());
+
+        // Inscriptions faites ailleurs (suivies par le moteur) : le profil est complété avant le classement
+        Map<String, Course> catalogById = new HashMap<>();
+        for (Course course : candidates) {
+            catalogById.put(course.getId(), course);
+        }
+        engine.applyEnrollments(catalogById);
+        recommendedAdapter.updateCourses(engine.recommend(candidates, RECOMMENDED_COUNT));
     }
 
     private void setupClickListeners() {
@@ -1,10 +1,17 @@
 package com.example.learnizone;
 
 import android.app.Application;
+import android.os.Bundle;
 import android.util.Log;
 import com.google.firebase.FirebaseApp;
+import com.google.firebase.analytics.FirebaseAnalytics;
 
 import com.example.learnizone.firebase.FirebaseManager;
+import com.example.learnizone.glide.DeviceClass;
+import com.example.learnizone.glide.ImageMetrics;
+import com.example.learnizone.repositories.CatalogRepository;
+
+import java.util.Map;
 
 public class LearnIzoneApp extends Application {
     private static final String TAG = "LearnIzoneApp";
@@ -16,6 +23,27 @@ public class LearnIzoneApp extends Application {
         
         // Initialize collections (only for first run or when needed)
         initializeCollections();
+
+        // Catalogue local ouvert en arrière-plan, puis complété par les documents modifiés
+        CatalogRepository.getInstance(this).refresh();
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        // Application en arrière-plan : export des mesures d'images accumulées
+        if (level == TRIM_MEMORY_UI_HIDDEN) {
+            reportImageMetrics();
+        }
+    }
+
+    private void reportImageMetrics() {
+        Bundle params = new Bundle();
+        params.putString("device_class", DeviceClass.of(this).name());
+        for (Map.Entry<String, Long> metric : ImageMetrics.getInstance().drain().entrySet()) {
+            params.putLong(metric.getKey(), metric.getValue());
+        }
+        FirebaseAnalytics.getInstance(this).logEvent("image_cache_stats", params);
     }
 
     private void initializeCollections() {
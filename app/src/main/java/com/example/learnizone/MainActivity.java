@@ -17,12 +17,18 @@ public class MainActivity extends AppCompatActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
 
-        // ✅ Vérifie si l'utilisateur est connecté
-        if (!AuthManager.getInstance(this).isLoggedIn()) {
-            redirectToLogin();
-            return;
-        }
+        // ✅ Route selon l'état d'authentification résolu (déconnexion comprise)
+        AuthManager.getInstance(this).getSession().observe(this, session -> {
+            if (isFinishing()) return;
+            if (!session.isLoggedIn()) {
+                redirectToLogin();
+            } else if (bottomNavigationView == null) {
+                showMainContent(savedInstanceState);
+            }
+        });
+    }
 
+    private void showMainContent(Bundle savedInstanceState) {
         setContentView(R.layout.activity_main);
         bottomNavigationView = findViewById(R.id.bottom_navigation);
 
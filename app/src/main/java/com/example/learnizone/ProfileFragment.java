@@ -14,10 +14,12 @@ import androidx.constraintlayout.widget.ConstraintLayout;
 import androidx.fragment.app.Fragment;
 
 import com.example.learnizone.auth.AuthManager;
+import com.example.learnizone.auth.Session;
 import com.google.android.material.switchmaterial.SwitchMaterial;
 
 import de.hdodenhof.circleimageview.CircleImageView;
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
 
 public class ProfileFragment extends Fragment {
 
@@ -60,17 +62,18 @@ public class ProfileFragment extends Fragment {
     }
 
     private void loadUserData() {
-        AuthManager authManager = AuthManager.getInstance(requireContext());
+        // Instantané en mémoire, déjà chargé par MainActivity
+        Session session = AuthManager.getInstance(requireContext()).getCurrentSession();
 
         // Vérification de la connexion
-        if (!authManager.isLoggedIn()) {
+        if (session == null || !session.isLoggedIn()) {
             Toast.makeText(requireContext(), "Utilisateur non connecté", Toast.LENGTH_SHORT).show();
             navigateToLogin();
             return;
         }
 
-        String fullName = authManager.getUserName();
-        String email = authManager.getUserEmail();
+        String fullName = session.getUserName();
+        String email = session.getUserEmail();
 
         // Chargement des données utilisateur
         if (fullName != null && !fullName.isEmpty()) {
@@ -86,12 +89,14 @@ public class ProfileFragment extends Fragment {
         hoursCount.setText("45");
         streakCount.setText("7");
 
-        String profilePicUrl = authManager.getProfilePicUrl();
+        String profilePicUrl = session.getProfilePicUrl();
 
         // Chargement de l'image de profil avec Glide
         if (profilePicUrl != null && !profilePicUrl.isEmpty()) {
             Glide.with(this)
                     .load(profilePicUrl)
+                    // Seul l'avatar recadré est gardé sur disque, pas l'image envoyée
+                    .diskCacheStrategy(DiskCacheStrategy.RESOURCE)
                     .placeholder(R.drawable.placeholder_profile) // image par défaut
                     .error(R.drawable.error_profile_pic) // image en cas d'erreur
                     .circleCrop()
@@ -119,9 +124,9 @@ public class ProfileFragment extends Fragment {
 
         settingsLogout.setOnClickListener(v -> {
             // ✅ Déconnexion avec AuthManager
+            // MainActivity redirige vers la connexion quand la session passe à déconnecté
             AuthManager.getInstance(requireContext()).logout();
             Toast.makeText(getContext(), "Déconnexion...", Toast.LENGTH_SHORT).show();
-            navigateToLogin();
         });
     }
 
@@ -3,10 +3,24 @@ private void loadQuiz(String quizId) {
     
     quizManager.getQuizWithQuestions(quizId)
         .addOnSuccessListener(loadedQuiz -> {
+            if (loadedQuiz.getQuestions() == null || loadedQuiz.getQuestions().isEmpty()) {
+                showLoading(false);
+                Toast.makeText(this, R.string.quiz_error_empty, Toast.LENGTH_SHORT).show();
+                finish();
+                return;
+            }
             this.quiz = loadedQuiz;
-            setupQuizUI();
-            startQuizAttempt();
-            showLoading(false);
+            // Le modèle de difficulté est lu sur disque hors du thread principal
+            QuestionDifficultyModel.loadAsync(this, loadedQuiz.getQuizId())
+                .addOnCompleteListener(this, task -> {
+                    if (isFinishing()) return;
+                    setupAdaptiveOrdering(task.isSuccessful()
+                        ? task.getResult() : QuestionDifficultyModel.empty());
+                    setupQuizUI();
+                    setupQuestionNavigation();
+                    startQuizAttempt();
+                    showLoading(false);
+                });
         })
         .addOnFailureListener(e -> {
             showLoading(false);
@@ -15,6 +29,171 @@ private void loadQuiz(String quizId) {
         });
 }
 
+private void setupAdaptiveOrdering(QuestionDifficultyModel model) {
+    // Ordre adaptatif uniquement si des statistiques de difficulté existent déjà
+    if (model.size() > 0) {
+        List<String> questionIds = new ArrayList<>();
+        for (Question question : quiz.getQuestions()) {
+            questionIds.add(question.getQuestionId());
+        }
+        adaptiveSelector = new AdaptiveQuestionSelector(
+            model.difficultiesFor(questionIds),
+            MIN_ADAPTIVE_QUESTIONS,
+            AdaptiveQuestionSelector.DEFAULT_TARGET_STANDARD_ERROR);
+    }
+    
+    // Rafraîchir le modèle local pour la prochaine tentative (un seul document lu)
+    String quizId = quiz.getQuizId();
+    QuizAnalyticsManager.getInstance().getQuizSummary(quizId)
+        .addOnSuccessListener(summary -> {
+            if (summary != null && !summary.isEmpty()) {
+                QuestionDifficultyModel.fromSummary(summary).saveAsync(this, quizId);
+            }
+        });
+}
+
+// Questions affichées, dans l'ordre de présentation (historique du bouton Précédent)
+private final List<Integer> shownQuestions = new ArrayList<>();
+private int shownPosition = -1;
+
+/**
+ * Branche les boutons de navigation sur l'ordre des questions, adaptatif ou stocké
+ */
+private void setupQuestionNavigation() {
+    ViewPager viewPager = findViewById(R.id.view_pager);
+    findViewById(R.id.previous_button).setOnClickListener(v -> showPreviousQuestion());
+    findViewById(R.id.next_button).setOnClickListener(v -> showNextQuestion());
+    findViewById(R.id.submit_button).setOnClickListener(v -> showSubmitConfirmation());
+    
+    if (adaptiveSelector != null) {
+        // Les onglets et le balayage permettraient de contourner l'ordre adaptatif
+        findViewById(R.id.tab_layout).setVisibility(View.GONE);
+        viewPager.addOnPageChangeListener(new ViewPager.SimpleOnPageChangeListener() {
+            @Override
+            public void onPageSelected(int position) {
+                if (shownPosition < 0) return;
+                int expected = shownQuestions.get(shownPosition);
+                if (position != expected) {
+                    viewPager.setCurrentItem(expected, false);
+                }
+            }
+        });
+    }
+    
+    shownQuestions.clear();
+    shownPosition = -1;
+    int first = firstQuestionIndex();
+    if (first < 0) {
+        // Rien à poser : le quiz peut être soumis directement
+        findViewById(R.id.next_button).setVisibility(View.GONE);
+        findViewById(R.id.submit_button).setVisibility(View.VISIBLE);
+        return;
+    }
+    showQuestion(first);
+}
+
+private void showNextQuestion() {
+    if (shownPosition < 0) return;
+    if (shownPosition + 1 < shownQuestions.size()) {
+        // Retour en avant dans les questions déjà vues
+        shownPosition++;
+        displayQuestion(shownQuestions.get(shownPosition));
+        return;
+    }
+    
+    int next = nextQuestionIndex(shownQuestions.get(shownPosition));
+    if (next < 0) {
+        showSubmitConfirmation();
+    } else {
+        showQuestion(next);
+    }
+}
+
+private void showPreviousQuestion() {
+    if (shownPosition > 0) {
+        shownPosition--;
+        displayQuestion(shownQuestions.get(shownPosition));
+    }
+}
+
+/**
+ * Ajoute une nouvelle question à l'historique et l'affiche
+ */
+private void showQuestion(int index) {
+    shownQuestions.add(index);
+    shownPosition = shownQuestions.size() - 1;
+    displayQuestion(index);
+}
+
+private void displayQuestion(int index) {
+    ViewPager viewPager = findViewById(R.id.view_pager);
+    viewPager.setCurrentItem(index, true);
+    
+    int total = quiz.getQuestions().size();
+    TextView questionCounter = findViewById(R.id.question_counter);
+    questionCounter.setText(getString(R.string.quiz_question_counter_format, shownPosition + 1, total));
+    LinearProgressIndicator progressBar = findViewById(R.id.progress_bar);
+    progressBar.setProgressCompat((shownPosition + 1) * 100 / total, true);
+    
+    // En mode adaptatif, le quiz peut être soumis dès que l'estimation est fiable
+    boolean last = adaptiveSelector != null
+        ? adaptiveSelector.isConfident()
+        : shownPosition == total - 1;
+    findViewById(R.id.previous_button).setEnabled(shownPosition > 0);
+    findViewById(R.id.next_button).setVisibility(last && adaptiveSelector == null ? View.GONE : View.VISIBLE);
+    findViewById(R.id.submit_button).setVisibility(last ? View.VISIBLE : View.GONE);
+}
+
+/**
+ * Index de la première question à afficher, -1 s'il n'y en a aucune
+ */
+private int firstQuestionIndex() {
+    return adaptiveSelector != null ? adaptiveSelector.nextQuestionIndex() : 0;
+}
+
+/**
+ * Index de la question suivante, -1 si le quiz peut être soumis
+ */
+private int nextQuestionIndex(int currentIndex) {
+    if (adaptiveSelector == null) {
+        return currentIndex + 1 < quiz.getQuestions().size() ? currentIndex + 1 : -1;
+    }
+    
+    recordAdaptiveAnswer(currentIndex);
+    return adaptiveSelector.nextQuestionIndex();
+}
+
+/**
+ * Met à jour l'estimation du niveau avec la réponse donnée (sans effet si déjà prise en compte)
+ */
+private void recordAdaptiveAnswer(int index) {
+    Question question = quiz.getQuestions().get(index);
+    boolean correct = AnswerGrader.getInstance().isCorrect(question, userAnswers.get(index));
+    adaptiveSelector.recordAnswer(index, correct);
+}
+
+/**
+ * Réponses aux questions réellement posées : toutes hors mode adaptatif
+ */
+private List<QuestionAnswer> askedAnswers() {
+    if (adaptiveSelector == null) {
+        return userAnswers;
+    }
+    List<QuestionAnswer> asked = new ArrayList<>(shownQuestions.size());
+    for (int index : shownQuestions) {
+        asked.add(userAnswers.get(index));
+    }
+    return asked;
+}
+
+/**
+ * Niveau rapporté au profil de recommandation : en mode adaptatif, projection du niveau
+ * estimé sur tout le quiz. Le score affiché et agrégé reste celui corrigé par le serveur.
+ */
+private double reportedPercentage(QuizAttempt attempt) {
+    return adaptiveSelector != null ? adaptiveSelector.getEstimatedPercentage() : attempt.getPercentage();
+}
+
 private void startQuizAttempt() {
     quizManager.startQuizAttempt(quiz.getQuizId())
         .addOnSuccessListener(attempt -> {
@@ -36,16 +215,18 @@ private void startQuizAttempt() {
 
 private void showSubmitConfirmation() {
     // Vérifier si toutes les questions ont été répondues
+    // En mode adaptatif, seules les questions posées sont comptées
+    List<QuestionAnswer> askedAnswers = askedAnswers();
     int answeredQuestions = 0;
-    for (QuestionAnswer answer : userAnswers) {
+    for (QuestionAnswer answer : askedAnswers) {
         if (answer.getUserAnswer() != null && !answer.getUserAnswer().trim().isEmpty()) {
             answeredQuestions++;
         }
     }
     
     String message;
-    if (answeredQuestions < quiz.getQuestions().size()) {
-        int unanswered = quiz.getQuestions().size() - answeredQuestions;
+    if (answeredQuestions < askedAnswers.size()) {
+        int unanswered = askedAnswers.size() - answeredQuestions;
         message = getString(R.string.quiz_submit_unanswered, unanswered);
     } else {
         message = getString(R.string.quiz_submit_message);
@@ -70,9 +251,23 @@ private void submitQuiz() {
         countDownTimer.cancel();
     }
     
-    quizManager.submitQuizAttempt(currentAttempt.getAttemptId(), userAnswers)
+    // La question affichée compte dans l'estimation même si elle est soumise directement
+    if (adaptiveSelector != null && shownPosition >= 0) {
+        recordAdaptiveAnswer(shownQuestions.get(shownPosition));
+    }
+    List<QuestionAnswer> askedAnswers = askedAnswers();
+    
+    // Correction locale des réponses libres (tolérance aux accents et fautes de frappe)
+    AnswerGrader.getInstance().gradeAll(quiz.getQuestions(), askedAnswers);
+    
+    // Les questions ratées deviennent des cartes de révision espacée
+    ReviewScheduler.getInstance(this).recordQuizResults(quiz.getQuizId(), quiz.getQuestions(), askedAnswers);
+    
+    quizManager.submitQuizAttempt(currentAttempt.getAttemptId(), askedAnswers)
         .addOnSuccessListener(completedAttempt -> {
             showLoading(false);
+            AnswerGrader.getInstance().clear();
+            recordAttemptAnalytics(completedAttempt);
             showQuizResults(completedAttempt);
         })
         .addOnFailureListener(e -> {
@@ -82,6 +277,32 @@ private void submitQuiz() {
         });
 }
 
+private void recordAttemptAnalytics(QuizAttempt attempt) {
+    // Mise à jour incrémentale du résumé du quiz (histogramme, taux de réussite, difficulté)
+    List<QuizSummary.QuestionOutcome> outcomes = new ArrayList<>();
+    for (QuestionAnswer answer : askedAnswers()) {
+        outcomes.add(new QuizSummary.QuestionOutcome(
+            answer.getQuestionId(),
+            answer.isCorrect(),
+            answer.getTimeSpent()));
+    }
+    
+    QuizAnalyticsManager.getInstance().recordAttempt(
+        attempt.getAttemptId(),
+        quiz.getQuizId(),
+        attempt.getPercentage(),
+        attempt.isPassed(),
+        outcomes);
+    
+    // Le résultat ajuste le profil de recommandation (catégorie, niveau visé)
+    CatalogRepository catalog = CatalogRepository.getInstance(this);
+    String courseId = quiz.getCourseId();
+    double level = reportedPercentage(attempt);
+    catalog.whenOpened().addOnSuccessListener(opened ->
+        RecommendationEngine.getInstance(getApplicationContext())
+            .recordQuizResult(catalog.getCourse(courseId), level));
+}
+
 private void autoSubmitQuiz() {
     if (isQuizCompleted) return;
     
@@ -102,6 +323,7 @@ private void showQuizResults(QuizAttempt attempt) {
         getString(R.string.quiz_results_success) : 
         getString(R.string.quiz_results_failed);
     
+    // Même score que celui qui décide de la réussite : les questions réellement posées
     String message = getString(R.string.quiz_results_message,
         attempt.getPercentage(),
         attempt.getDurationInMinutes(),
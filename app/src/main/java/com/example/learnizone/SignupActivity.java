@@ -17,10 +17,9 @@ import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.lifecycle.ViewModelProvider;
 
-import com.example.learnizone.auth.AuthManager;
+import com.example.learnizone.auth.Session;
 import com.example.learnizone.viewmodels.AuthViewModel;
 import com.google.android.material.textfield.TextInputEditText;
-import com.google.firebase.auth.FirebaseUser;
 
 public class SignupActivity extends AppCompatActivity {
 
@@ -40,22 +39,20 @@ public class SignupActivity extends AppCompatActivity {
         // Initialiser le ViewModel
         authViewModel = new ViewModelProvider(this).get(AuthViewModel.class);
 
-        // Observer l'état de l'utilisateur
-        authViewModel.getCurrentUser().observe(this, this::handleAuthStateChange);
-        authViewModel.getAuthError().observe(this, this::handleAuthError);
-        authViewModel.getIsLoading().observe(this, this::handleLoadingState);
-
-        // Vérifier si l'utilisateur est déjà connecté
-        if (authViewModel.getCurrentUser().getValue() != null) {
-            navigateToMain();
-            return;
-        }
+        // Observer l'état de l'utilisateur : le formulaire n'est affiché
+        // qu'une fois l'état résolu et l'utilisateur déconnecté
+        authViewModel.getSession().observe(this, this::handleAuthStateChange);
+    }
 
+    private void showForm() {
         setContentView(R.layout.activity_signup);
 
         initViews();
         setupClickListeners();
         setupLoginPrompt();
+
+        authViewModel.getAuthError().observe(this, this::handleAuthError);
+        authViewModel.getIsLoading().observe(this, this::handleLoadingState);
     }
 
     private void initViews() {
@@ -119,10 +116,14 @@ public class SignupActivity extends AppCompatActivity {
         return null;
     }
 
-    private void handleAuthStateChange(FirebaseUser user) {
-        if (user != null) {
+    private void handleAuthStateChange(Session session) {
+        if (isFinishing()) return; // Mises à jour du profil après la redirection
+
+        if (session.isLoggedIn()) {
             Toast.makeText(this, "Inscription réussie. Bienvenue !", Toast.LENGTH_LONG).show();
             navigateToMain();
+        } else if (signupButton == null) {
+            showForm();
         }
     }
 
@@ -1,5 +1,6 @@
 package com.example.learnizone.adapters;
 
+import android.graphics.drawable.Drawable;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -7,19 +8,42 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.util.ViewPreloadSizeProvider;
+import com.example.learnizone.glide.CourseImage;
+import com.example.learnizone.glide.DeviceClass;
 import com.example.learnizone.models.Course;
 import com.example.learnizone.R;
 import com.google.android.material.card.MaterialCardView;
 
+import java.util.Collections;
 import java.util.List;
 
-public class CourseCardAdapter extends RecyclerView.Adapter<CourseCardAdapter.CourseViewHolder> {
+public class CourseCardAdapter extends RecyclerView.Adapter<CourseCardAdapter.CourseViewHolder>
+        implements ListPreloader.PreloadModelProvider<Course> {
+
+    /** Cartes préchargées devant un carrousel horizontal */
+    private static final int CAROUSEL_PRELOAD = 4;
+    /** Rangées préchargées sous une liste verticale ou une grille */
+    private static final int ROWS_PRELOAD = 3;
 
     private List<Course> courses;
     private OnCourseClickListener listener;
+    // Taille mesurée sur la première image de carte, reprise pour les préchargements
+    private final ViewPreloadSizeProvider<Course> preloadSizeProvider = new ViewPreloadSizeProvider<>();
+    private RequestManager requestManager;
+    private DecodeFormat thumbnailFormat = DecodeFormat.DEFAULT;
 
     public interface OnCourseClickListener {
         void onCourseClick(Course course);
@@ -35,18 +59,76 @@ public class CourseCardAdapter extends RecyclerView.Adapter<CourseCardAdapter.Co
         notifyDataSetChanged();
     }
 
+    /**
+     * Précharge les images des cartes avant qu'elles n'entrent à l'écran,
+     * à la taille des cartes et selon l'orientation de la liste
+     */
+    public void attachPreloader(RecyclerView recyclerView) {
+        requestManager = Glide.with(recyclerView);
+        thumbnailFormat = DeviceClass.of(recyclerView.getContext()).thumbnailFormat;
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+
+        int maxPreload = ROWS_PRELOAD;
+        if (layoutManager instanceof GridLayoutManager) {
+            maxPreload = ((GridLayoutManager) layoutManager).getSpanCount() * ROWS_PRELOAD;
+        } else if (layoutManager instanceof LinearLayoutManager
+                && ((LinearLayoutManager) layoutManager).getOrientation() == RecyclerView.HORIZONTAL) {
+            maxPreload = CAROUSEL_PRELOAD;
+            // Carrousel imbriqué : ses premières cartes sont préparées pendant le défilement vertical
+            ((LinearLayoutManager) layoutManager).setInitialPrefetchItemCount(CAROUSEL_PRELOAD);
+        }
+
+        recyclerView.addOnScrollListener(
+            new RecyclerViewPreloader<>(requestManager, this, preloadSizeProvider, maxPreload));
+    }
+
+    @NonNull
+    @Override
+    public List<Course> getPreloadItems(int position) {
+        return position < courses.size()
+            ? Collections.singletonList(courses.get(position))
+            : Collections.<Course>emptyList();
+    }
+
+    @Nullable
+    @Override
+    public RequestBuilder<?> getPreloadRequestBuilder(@NonNull Course course) {
+        return requestManager != null ? imageRequest(requestManager, course, thumbnailFormat) : null;
+    }
+
+    /**
+     * Requête partagée par l'affichage et le préchargement, pour tomber sur la même entrée de cache.
+     * L'URL est déjà à la taille de la carte : seule la donnée source est gardée sur disque.
+     * Si la variante redimensionnée n'existe pas, l'image d'origine est chargée à la place.
+     */
+    private static RequestBuilder<Drawable> imageRequest(RequestManager requestManager, Course course,
+                                                         DecodeFormat format) {
+        return requestManager
+                .load(new CourseImage(course.getImageUrl()))
+                .format(format)
+                .diskCacheStrategy(DiskCacheStrategy.DATA)
+                .centerCrop()
+                .error(requestManager
+                        .load(course.getImageUrl())
+                        .format(format)
+                        .centerCrop());
+    }
+
     @NonNull
     @Override
     public CourseViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_course_card, parent, false);
+        thumbnailFormat = DeviceClass.of(parent.getContext()).thumbnailFormat;
         return new CourseViewHolder(view);
     }
 
     @Override
     public void onBindViewHolder(@NonNull CourseViewHolder holder, int position) {
         Course course = courses.get(position);
-        holder.bind(course);
+        // La vue peut venir d'un autre carrousel (pool partagé) : mesure prise au premier affichage
+        preloadSizeProvider.setView(holder.courseImage);
+        holder.bind(course, requestManager != null ? requestManager : Glide.with(holder.itemView), thumbnailFormat);
     }
 
     @Override
@@ -74,14 +156,17 @@ public class CourseCardAdapter extends RecyclerView.Adapter<CourseCardAdapter.Co
             courseDifficulty = itemView.findViewById(R.id.course_difficulty);
 
             cardView.setOnClickListener(v -> {
-                int position = getAdapterPosition();
-                if (position != RecyclerView.NO_POSITION) {
-                    listener.onCourseClick(courses.get(position));
+                // Adaptateur qui a lié la vue, pas forcément celui qui l'a créée
+                int position = getBindingAdapterPosition();
+                RecyclerView.Adapter<?> adapter = getBindingAdapter();
+                if (position != RecyclerView.NO_POSITION && adapter instanceof CourseCardAdapter) {
+                    CourseCardAdapter bound = (CourseCardAdapter) adapter;
+                    bound.listener.onCourseClick(bound.courses.get(position));
                 }
             });
         }
 
-        public void bind(Course course) {
+        public void bind(Course course, RequestManager glide, DecodeFormat format) {
             courseTitle.setText(course.getTitle());
             courseCategory.setText(course.getCategory());
             courseDuration.setText(course.getDuration());
@@ -89,10 +174,7 @@ public class CourseCardAdapter extends RecyclerView.Adapter<CourseCardAdapter.Co
             courseDifficulty.setText(course.getDifficulty());
 
             // Charger l'image avec Glide
-            Glide.with(itemView.getContext())
-                    .load(course.getImageUrl())
-                    .centerCrop()
-                    .into(courseImage);
+            imageRequest(glide, course, format).into(courseImage);
         }
     }
 }
@@ -14,6 +14,10 @@ import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.DecodeFormat;
+import com.example.learnizone.glide.CourseImage;
+import com.example.learnizone.glide.DeviceClass;
 import com.example.learnizone.R;
 import com.example.learnizone.models.Course;
 import com.example.learnizone.models.Enrollment;
@@ -138,12 +142,18 @@ public class MyCoursesAdapter extends ListAdapter<Enrollment, MyCoursesAdapter.C
             courseTitle.setText("Cours ID: " + enrollment.getCourseId());
             courseCategory.setText("Programmation");
             
-            // Load course image with error handling
-            Glide.with(context)
-                .load("https://images.unsplash.com/photo-1488590528505-98d2b5aba04b")
+            // Load course image with error handling: resized variant, then original URL
+            String imageUrl = "https://images.unsplash.com/photo-1488590528505-98d2b5aba04b";
+            DecodeFormat format = DeviceClass.of(context).thumbnailFormat;
+            RequestManager glide = Glide.with(context);
+            glide.load(new CourseImage(imageUrl))
+                .format(format)
                 .placeholder(R.drawable.placeholder_course)
-                .error(R.drawable.error_course_image)
                 .centerCrop()
+                .error(glide.load(imageUrl)
+                    .format(format)
+                    .error(R.drawable.error_course_image)
+                    .centerCrop())
                 .into(courseImage);
         }
 
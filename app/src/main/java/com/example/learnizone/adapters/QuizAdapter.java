@@ -12,9 +12,11 @@ import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.learnizone.R;
+import com.example.learnizone.managers.QuizAnalyticsManager;
 import com.example.learnizone.managers.QuizManager;
 import com.example.learnizone.models.Quiz;
 import com.example.learnizone.models.QuizAttempt;
+import com.example.learnizone.models.QuizSummary;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.card.MaterialCardView;
 
@@ -28,6 +30,7 @@ public class QuizAdapter extends ListAdapter<Quiz, QuizAdapter.QuizViewHolder> {
     private OnQuizActionListener listener;
     private Context context;
     private QuizManager quizManager;
+    private QuizAnalyticsManager analyticsManager;
 
     public interface OnQuizActionListener {
         void onQuizClick(Quiz quiz);
@@ -39,6 +42,7 @@ public class QuizAdapter extends ListAdapter<Quiz, QuizAdapter.QuizViewHolder> {
         super(new QuizDiffCallback());
         this.listener = listener;
         this.quizManager = QuizManager.getInstance();
+        this.analyticsManager = QuizAnalyticsManager.getInstance();
     }
 
     @NonNull
@@ -75,6 +79,7 @@ public class QuizAdapter extends ListAdapter<Quiz, QuizAdapter.QuizViewHolder> {
         private TextView passingScoreText;
         private TextView questionsCountText;
         private TextView lastAttemptText;
+        private TextView passRateText;
         private MaterialButton actionButton;
 
         public QuizViewHolder(@NonNull View itemView) {
@@ -86,6 +91,7 @@ public class QuizAdapter extends ListAdapter<Quiz, QuizAdapter.QuizViewHolder> {
             passingScoreText = itemView.findViewById(R.id.quiz_passing_score);
             questionsCountText = itemView.findViewById(R.id.quiz_questions_count);
             lastAttemptText = itemView.findViewById(R.id.quiz_last_attempt);
+            passRateText = itemView.findViewById(R.id.quiz_pass_rate);
             actionButton = itemView.findViewById(R.id.quiz_action_button);
 
             cardView.setOnClickListener(v -> {
@@ -111,6 +117,7 @@ public class QuizAdapter extends ListAdapter<Quiz, QuizAdapter.QuizViewHolder> {
         public void bind(Quiz quiz) {
             bindQuizDetails(quiz);
             loadAttemptInfo(quiz);
+            loadSummary(quiz);
         }
 
         private void bindQuizDetails(Quiz quiz) {
@@ -154,6 +161,31 @@ public class QuizAdapter extends ListAdapter<Quiz, QuizAdapter.QuizViewHolder> {
                 });
         }
 
+        private void loadSummary(Quiz quiz) {
+            // Un seul document de résumé au lieu de parcourir les tentatives
+            passRateText.setVisibility(View.GONE);
+            String quizId = quiz.getQuizId();
+            analyticsManager.getQuizSummary(quizId)
+                .addOnSuccessListener(summary -> {
+                    int position = getAdapterPosition();
+                    if (position == RecyclerView.NO_POSITION || !getItem(position).getQuizId().equals(quizId)) {
+                        return; // La vue a été recyclée entre-temps
+                    }
+                    bindSummary(summary);
+                });
+        }
+
+        private void bindSummary(QuizSummary summary) {
+            if (summary == null || summary.isEmpty()) {
+                passRateText.setVisibility(View.GONE);
+                return;
+            }
+            passRateText.setText(String.format(Locale.getDefault(),
+                context.getString(R.string.quiz_pass_rate_format),
+                Math.round(summary.getPassRate() * 100)));
+            passRateText.setVisibility(View.VISIBLE);
+        }
+
         private void bindAttemptInfo(Quiz quiz, QuizAttempt lastAttempt) {
             if (lastAttempt != null) {
                 // Show last attempt info with icon
@@ -0,0 +1,78 @@
+package com.example.learnizone.adapters;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.RatingBar;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.learnizone.R;
+import com.example.learnizone.models.Review;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ReviewAdapter extends RecyclerView.Adapter<ReviewAdapter.ReviewViewHolder> {
+
+    private final List<Review> reviews = new ArrayList<>();
+
+    /**
+     * Ajoute une page d'avis à la suite des précédentes
+     */
+    public void appendReviews(List<Review> page) {
+        int start = reviews.size();
+        reviews.addAll(page);
+        notifyItemRangeInserted(start, page.size());
+    }
+
+    /**
+     * Vide la liste avant de recharger la première page
+     */
+    public void clear() {
+        int count = reviews.size();
+        reviews.clear();
+        notifyItemRangeRemoved(0, count);
+    }
+
+    @NonNull
+    @Override
+    public ReviewViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_review, parent, false);
+        return new ReviewViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ReviewViewHolder holder, int position) {
+        holder.bind(reviews.get(position));
+    }
+
+    @Override
+    public int getItemCount() {
+        return reviews.size();
+    }
+
+    static class ReviewViewHolder extends RecyclerView.ViewHolder {
+        private TextView reviewAuthor;
+        private RatingBar reviewRating;
+        private TextView reviewComment;
+
+        public ReviewViewHolder(@NonNull View itemView) {
+            super(itemView);
+            reviewAuthor = itemView.findViewById(R.id.review_author);
+            reviewRating = itemView.findViewById(R.id.review_rating);
+            reviewComment = itemView.findViewById(R.id.review_comment);
+        }
+
+        public void bind(Review review) {
+            reviewAuthor.setText(review.getUserName());
+            reviewRating.setRating(review.getRating());
+            reviewComment.setText(review.getComment());
+            reviewComment.setVisibility(review.getComment() == null || review.getComment().isEmpty()
+                    ? View.GONE : View.VISIBLE);
+        }
+    }
+}
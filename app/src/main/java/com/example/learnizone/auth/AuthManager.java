@@ -4,19 +4,24 @@ import android.content.Context;
 import android.content.SharedPreferences;
 import android.net.Uri;
 import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import com.example.learnizone.managers.MediaUploader;
 import com.example.learnizone.models.User;
 import com.google.android.gms.tasks.Tasks;
 import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.android.gms.tasks.Task;
 import com.google.firebase.auth.*;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
 import com.google.firebase.storage.FirebaseStorage;
 import com.google.firebase.storage.StorageReference;
-import com.google.firebase.storage.UploadTask;
 
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class AuthManager {
     private static final String PREF_NAME = "learnizone_auth";
@@ -29,23 +34,35 @@ public class AuthManager {
     // Instance unique (Singleton)
     private static AuthManager instance;
 
-    // SharedPreferences pour stocker les données d'authentification
+    // SharedPreferences pour stocker les données d'authentification,
+    // lues et écrites uniquement sur le thread de persistance
     private SharedPreferences sharedPreferences;
+    private final ExecutorService persister = Executors.newSingleThreadExecutor();
+
+    // Session en mémoire : null tant que l'état Firebase n'est pas résolu
+    private volatile Session currentSession;
+    private final MutableLiveData<Session> session = new MutableLiveData<>();
+    // Dernière session enregistrée, utilisée pour afficher le profil avant Firestore
+    private Session cachedSession;
+    private ListenerRegistration profileRegistration;
+    private String profileUserId;
 
     private final FirebaseAuth mAuth;
     private final FirebaseFirestore db;
     private final FirebaseStorage storage;
     private static final String USERS_COLLECTION = "users";
+    // Plus grande taille d'affichage de la photo de profil, en pixels
+    private static final int PROFILE_IMAGE_MAX_SIZE = 512;
 
     private Context appContext;
 
     // Constructeur privé pour empêcher l'instanciation directe
     private AuthManager(Context context) {
         this.appContext = context.getApplicationContext();
-        sharedPreferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
         mAuth = FirebaseAuth.getInstance();
         db = FirebaseFirestore.getInstance();
         storage = FirebaseStorage.getInstance();
+        persister.execute(this::loadSession);
     }
 
     // Méthode pour obtenir l'instance unique
@@ -56,56 +73,166 @@ public class AuthManager {
         return instance;
     }
 
-    // Méthode pour connecter un utilisateur
-    public void login(String userId, String userName, String userEmail, String profilePicUrl) {
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putBoolean(KEY_IS_LOGGED_IN, true);
-        editor.putString(KEY_USER_ID, userId);
-        editor.putString(KEY_USER_NAME, userName);
-        editor.putString(KEY_USER_EMAIL, userEmail);
-        editor.putString(KEY_USER_PROFILE_PIC, profilePicUrl);
-        editor.apply();
+    /**
+     * Unique source de l'état d'authentification : dérivée de FirebaseAuth, complétée par
+     * le document de profil. La première valeur n'est publiée qu'une fois l'état résolu.
+     */
+    public LiveData<Session> getSession() {
+        return session;
+    }
+
+    /**
+     * Instantané courant, sans accès disque ; null tant que l'état n'est pas résolu
+     */
+    public Session getCurrentSession() {
+        return currentSession;
     }
 
     // Méthode pour déconnecter un utilisateur
     public void logout() {
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.clear();
-        editor.apply();
+        signOut();
     }
 
     // Méthode pour vérifier si un utilisateur est connecté
     public boolean isLoggedIn() {
-        return sharedPreferences.getBoolean(KEY_IS_LOGGED_IN, false);
+        return snapshot().isLoggedIn();
     }
 
     // Méthode pour obtenir l'ID de l'utilisateur
     public String getUserId() {
-        return sharedPreferences.getString(KEY_USER_ID, null);
+        return snapshot().getUserId();
     }
 
     // Méthode pour obtenir le nom de l'utilisateur
     public String getUserName() {
-        return sharedPreferences.getString(KEY_USER_NAME, null);
+        return snapshot().getUserName();
     }
 
     // Méthode pour obtenir l'email de l'utilisateur
     public String getUserEmail() {
-        return sharedPreferences.getString(KEY_USER_EMAIL, null);
+        return snapshot().getUserEmail();
     }
 
     // Méthode pour obtenir l'URL de la photo de profil
     public String getProfilePicUrl() {
-        return sharedPreferences.getString(KEY_USER_PROFILE_PIC, null);
+        return snapshot().getProfilePicUrl();
     }
 
     // Méthode pour mettre à jour les informations utilisateur
     public void updateUserInfo(String userName, String userEmail, String profilePicUrl) {
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putString(KEY_USER_NAME, userName);
-        editor.putString(KEY_USER_EMAIL, userEmail);
-        editor.putString(KEY_USER_PROFILE_PIC, profilePicUrl);
-        editor.apply();
+        update(snapshot().withProfile(userName, userEmail, profilePicUrl));
+    }
+
+    private Session snapshot() {
+        Session current = currentSession;
+        return current != null ? current : Session.SIGNED_OUT;
+    }
+
+    /**
+     * Lit la session enregistrée puis s'abonne à FirebaseAuth, qui rappelle aussitôt
+     * avec l'utilisateur courant : c'est ce premier rappel qui publie la session
+     */
+    private void loadSession() {
+        sharedPreferences = appContext.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        Session loaded = new Session(
+            sharedPreferences.getBoolean(KEY_IS_LOGGED_IN, false),
+            sharedPreferences.getString(KEY_USER_ID, null),
+            sharedPreferences.getString(KEY_USER_NAME, null),
+            sharedPreferences.getString(KEY_USER_EMAIL, null),
+            sharedPreferences.getString(KEY_USER_PROFILE_PIC, null));
+        synchronized (this) {
+            cachedSession = loaded;
+        }
+        mAuth.addAuthStateListener(this::onAuthStateChanged);
+    }
+
+    private synchronized void onAuthStateChanged(FirebaseAuth auth) {
+        FirebaseUser user = auth.getCurrentUser();
+        if (user == null) {
+            detachProfile();
+            if (!Session.SIGNED_OUT.equals(currentSession)) {
+                update(Session.SIGNED_OUT);
+            }
+            return;
+        }
+
+        // Profil en cache si c'est le même utilisateur, sinon ce que FirebaseAuth connaît
+        Session known = currentSession != null ? currentSession : cachedSession;
+        Session next = known != null && known.isLoggedIn() && user.getUid().equals(known.getUserId())
+            ? known
+            : new Session(true, user.getUid(), user.getDisplayName(), user.getEmail(),
+                user.getPhotoUrl() != null ? user.getPhotoUrl().toString() : null);
+        if (!next.equals(currentSession)) {
+            update(next);
+        }
+        attachProfile(user.getUid());
+    }
+
+    /**
+     * Suit le document users/{uid} : le profil affiché reste à jour (inscription,
+     * modification depuis un autre appareil) sans lecture supplémentaire
+     */
+    private void attachProfile(String userId) {
+        if (userId.equals(profileUserId)) return;
+        detachProfile();
+        profileUserId = userId;
+        profileRegistration = db.collection(USERS_COLLECTION).document(userId)
+                .addSnapshotListener((document, e) -> {
+                    if (e != null || document == null || !document.exists()) return;
+                    synchronized (this) {
+                        Session current = currentSession;
+                        if (current == null || !userId.equals(current.getUserId())) return;
+                        Session next = current.withProfile(
+                            valueOr(document.getString("fullName"), current.getUserName()),
+                            valueOr(document.getString("email"), current.getUserEmail()),
+                            valueOr(document.getString("profileImageUrl"), current.getProfilePicUrl()));
+                        if (!next.equals(current)) {
+                            update(next);
+                        }
+                    }
+                });
+    }
+
+    private void detachProfile() {
+        if (profileRegistration != null) {
+            profileRegistration.remove();
+            profileRegistration = null;
+        }
+        profileUserId = null;
+    }
+
+    private static String valueOr(String value, String fallback) {
+        return value != null ? value : fallback;
+    }
+
+    /**
+     * Publie immédiatement la nouvelle session, puis l'écrit sur le thread de persistance
+     * (les écritures sont appliquées dans l'ordre, après le chargement initial)
+     */
+    private synchronized void update(Session next) {
+        publish(next);
+        persister.execute(() -> {
+            SharedPreferences.Editor editor = sharedPreferences.edit();
+            if (next.isLoggedIn()) {
+                editor.putBoolean(KEY_IS_LOGGED_IN, true);
+                editor.putString(KEY_USER_ID, next.getUserId());
+                editor.putString(KEY_USER_NAME, next.getUserName());
+                editor.putString(KEY_USER_EMAIL, next.getUserEmail());
+                editor.putString(KEY_USER_PROFILE_PIC, next.getProfilePicUrl());
+            } else {
+                editor.clear();
+            }
+            editor.commit();
+        });
+    }
+
+    /**
+     * L'instantané est à jour immédiatement ; la LiveData est toujours mise à jour par
+     * postValue pour que la dernière publication l'emporte, quel que soit le thread
+     */
+    private void publish(Session next) {
+        currentSession = next;
+        session.postValue(next);
     }
 
     public void signUp(String email, String password, String fullName, String userType,
@@ -156,6 +283,9 @@ public class AuthManager {
         }
     }
 
+    /**
+     * La session locale est vidée par le rappel de FirebaseAuth
+     */
     public void signOut() {
         mAuth.signOut();
     }
@@ -212,16 +342,10 @@ public class AuthManager {
                     .child("profile_images")
                     .child(user.getUid());
 
-            storageRef.putFile(imageUri)
-                    .addOnCompleteListener(task -> {
-                        if (task.isSuccessful()) {
-                            storageRef.getDownloadUrl()
-                                    .addOnCompleteListener(listener);
-                        } else {
-                            // Create a failed task with the error
-                            listener.onComplete(Tasks.forException(task.getException()));
-                        }
-                    });
+            // Image réduite et réencodée en WebP ; l'URL est renvoyée par l'envoi lui-même
+            MediaUploader.getInstance(appContext)
+                    .uploadImage(imageUri, storageRef, PROFILE_IMAGE_MAX_SIZE)
+                    .addOnCompleteListener(listener);
         } else {
             // Create a failed task if user is null
             listener.onComplete(Tasks.forException(new Exception("User not logged in")));
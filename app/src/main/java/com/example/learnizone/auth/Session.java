@@ -0,0 +1,52 @@
+package com.example.learnizone.auth;
+
+import java.util.Objects;
+
+/**
+ * Instantané immuable de la session locale.
+ * Toute modification produit une nouvelle instance, publiée par {@link AuthManager}.
+ */
+public final class Session {
+    public static final Session SIGNED_OUT = new Session(false, null, null, null, null);
+
+    private final boolean loggedIn;
+    private final String userId;
+    private final String userName;
+    private final String userEmail;
+    private final String profilePicUrl;
+
+    public Session(boolean loggedIn, String userId, String userName, String userEmail, String profilePicUrl) {
+        this.loggedIn = loggedIn;
+        this.userId = userId;
+        this.userName = userName;
+        this.userEmail = userEmail;
+        this.profilePicUrl = profilePicUrl;
+    }
+
+    public Session withProfile(String userName, String userEmail, String profilePicUrl) {
+        return new Session(loggedIn, userId, userName, userEmail, profilePicUrl);
+    }
+
+    public boolean isLoggedIn() { return loggedIn; }
+    public String getUserId() { return userId; }
+    public String getUserName() { return userName; }
+    public String getUserEmail() { return userEmail; }
+    public String getProfilePicUrl() { return profilePicUrl; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Session)) return false;
+        Session other = (Session) o;
+        return loggedIn == other.loggedIn
+            && Objects.equals(userId, other.userId)
+            && Objects.equals(userName, other.userName)
+            && Objects.equals(userEmail, other.userEmail)
+            && Objects.equals(profilePicUrl, other.profilePicUrl);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(loggedIn, userId, userName, userEmail, profilePicUrl);
+    }
+}
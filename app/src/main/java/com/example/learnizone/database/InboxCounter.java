@@ -0,0 +1,16 @@
+package com.example.learnizone.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Compteur de notifications non lues, tenu à jour avec la table notifications
+ */
+@Entity(tableName = "inbox_counters")
+public class InboxCounter {
+    @PrimaryKey
+    @NonNull
+    public String userId = "";
+    public int unreadCount;
+}
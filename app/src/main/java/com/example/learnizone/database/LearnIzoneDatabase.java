@@ -0,0 +1,40 @@
+package com.example.learnizone.database;
+
+import android.content.Context;
+
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+
+/**
+ * Base de données locale de l'application
+ */
+@Database(
+    entities = {ReviewCard.class, NotificationEntity.class, InboxCounter.class, ScheduledNotification.class},
+    version = 1,
+    exportSchema = false)
+public abstract class LearnIzoneDatabase extends RoomDatabase {
+    private static final String DATABASE_NAME = "learnizone.db";
+    private static volatile LearnIzoneDatabase instance;
+
+    public abstract ReviewCardDao reviewCardDao();
+
+    public abstract NotificationDao notificationDao();
+
+    public abstract ScheduledNotificationDao scheduledNotificationDao();
+
+    public static LearnIzoneDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (LearnIzoneDatabase.class) {
+                if (instance == null) {
+                    instance = Room.databaseBuilder(
+                            context.getApplicationContext(),
+                            LearnIzoneDatabase.class,
+                            DATABASE_NAME)
+                        .build();
+                }
+            }
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.learnizone.database;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+/**
+ * Accès à la boîte de réception locale ; le compteur de non lues est mis à jour
+ * dans la même transaction que les notifications.
+ */
+@Dao
+public abstract class NotificationDao {
+
+    @Query("SELECT * FROM notifications WHERE userId = :userId AND pendingOp != " + NotificationEntity.OP_DELETE
+        + " AND createdAt < :before ORDER BY createdAt DESC LIMIT :limit")
+    public abstract List<NotificationEntity> getPage(String userId, long before, int limit);
+
+    @Query("SELECT * FROM notifications WHERE id = :id")
+    public abstract NotificationEntity get(String id);
+
+    @Query("SELECT * FROM notifications WHERE pendingOp != " + NotificationEntity.OP_NONE)
+    public abstract List<NotificationEntity> getPendingOps();
+
+    @Query("SELECT unreadCount FROM inbox_counters WHERE userId = :userId")
+    public abstract LiveData<Integer> observeUnreadCount(String userId);
+
+    @Query("SELECT unreadCount FROM inbox_counters WHERE userId = :userId")
+    public abstract Integer getUnreadCount(String userId);
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    abstract long[] insertAll(List<NotificationEntity> notifications);
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    abstract void insertCounter(InboxCounter counter);
+
+    @Query("UPDATE inbox_counters SET unreadCount = MAX(0, unreadCount + :delta) WHERE userId = :userId")
+    abstract void addToCounter(String userId, int delta);
+
+    @Query("UPDATE notifications SET isRead = 1, readAt = :readAt, pendingOp = " + NotificationEntity.OP_READ
+        + " WHERE id = :id AND isRead = 0 AND pendingOp = " + NotificationEntity.OP_NONE)
+    abstract int setRead(String id, long readAt);
+
+    @Query("UPDATE notifications SET pendingOp = " + NotificationEntity.OP_DELETE + " WHERE id = :id")
+    abstract int setDeleted(String id);
+
+    @Query("UPDATE notifications SET isRead = 1, readAt = :readAt WHERE id = :id AND isRead = 0 AND pendingOp = "
+        + NotificationEntity.OP_NONE)
+    abstract int setReadRemotely(String id, long readAt);
+
+    @Query("DELETE FROM notifications WHERE id = :id")
+    abstract void deleteRow(String id);
+
+    @Query("UPDATE notifications SET pendingOp = " + NotificationEntity.OP_NONE
+        + " WHERE id IN (:ids) AND pendingOp = " + NotificationEntity.OP_READ)
+    public abstract void clearReadOps(List<String> ids);
+
+    @Query("DELETE FROM notifications WHERE id IN (:ids) AND pendingOp = " + NotificationEntity.OP_DELETE)
+    public abstract void purgeDeleted(List<String> ids);
+
+    /**
+     * Insère les nouvelles notifications et compte celles non lues ; retourne le nombre inséré
+     */
+    @Transaction
+    public int insertNew(String userId, List<NotificationEntity> notifications) {
+        long[] rowIds = insertAll(notifications);
+        int inserted = 0;
+        int unread = 0;
+        for (int i = 0; i < rowIds.length; i++) {
+            if (rowIds[i] == -1) continue; // Déjà présente
+            inserted++;
+            if (!notifications.get(i).isRead) unread++;
+        }
+        ensureCounter(userId);
+        if (unread > 0) addToCounter(userId, unread);
+        return inserted;
+    }
+
+    /**
+     * Marque comme lue ; retourne vrai si l'état a changé
+     */
+    @Transaction
+    public boolean markRead(String userId, String id, long readAt) {
+        if (setRead(id, readAt) == 0) return false;
+        ensureCounter(userId);
+        addToCounter(userId, -1);
+        return true;
+    }
+
+    /**
+     * Masque la notification jusqu'à la suppression côté serveur
+     */
+    @Transaction
+    public boolean markDeleted(String userId, String id) {
+        NotificationEntity entity = get(id);
+        if (entity == null || entity.pendingOp == NotificationEntity.OP_DELETE) return false;
+        setDeleted(id);
+        if (!entity.isRead) {
+            ensureCounter(userId);
+            addToCounter(userId, -1);
+        }
+        return true;
+    }
+
+    /**
+     * Reporte une lecture faite sur un autre appareil
+     */
+    @Transaction
+    public void applyRemoteRead(String userId, String id, long readAt) {
+        if (setReadRemotely(id, readAt) == 0) return;
+        ensureCounter(userId);
+        addToCounter(userId, -1);
+    }
+
+    /**
+     * Reporte une suppression faite sur un autre appareil
+     */
+    @Transaction
+    public void applyRemoteDelete(String userId, String id) {
+        NotificationEntity entity = get(id);
+        if (entity == null) return;
+        // Une suppression locale en attente a déjà retiré la notification du compteur
+        if (!entity.isRead && entity.pendingOp != NotificationEntity.OP_DELETE) {
+            ensureCounter(userId);
+            addToCounter(userId, -1);
+        }
+        deleteRow(id);
+    }
+
+    private void ensureCounter(String userId) {
+        InboxCounter counter = new InboxCounter();
+        counter.userId = userId;
+        insertCounter(counter);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.learnizone.database;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.example.learnizone.models.UserNotification;
+import com.google.firebase.Timestamp;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copie locale d'une notification de la boîte de réception.
+ * pendingOp indique une modification locale pas encore envoyée à Firestore.
+ * data est stocké en JSON ; les dates (Date, Timestamp) y sont conservées sous la forme
+ * {"$date": millisecondes} et relues en Date.
+ */
+@Entity(tableName = "notifications", indices = {@Index({"userId", "createdAt"})})
+public class NotificationEntity {
+    private static final String TAG = "NotificationEntity";
+    private static final String DATE_KEY = "$date";
+
+    public static final int OP_NONE = 0;
+    public static final int OP_READ = 1;
+    public static final int OP_DELETE = 2;
+
+    @PrimaryKey
+    @NonNull
+    public String id = "";
+    public String userId;
+    public String type;
+    public String title;
+    public String message;
+    public String imageUrl;
+    public String priority;
+    public long createdAt;
+    public long readAt;
+    public boolean isRead;
+    public String dataJson;
+    public int pendingOp;
+
+    public static NotificationEntity fromNotification(UserNotification notification) {
+        NotificationEntity entity = new NotificationEntity();
+        entity.id = notification.getId();
+        entity.userId = notification.getUserId();
+        entity.type = notification.getType() != null ? notification.getType().getValue() : null;
+        entity.title = notification.getTitle();
+        entity.message = notification.getMessage();
+        entity.imageUrl = notification.getImageUrl();
+        entity.priority = notification.getPriority() != null ? notification.getPriority().getValue() : null;
+        entity.createdAt = notification.getCreatedAt() != null ? notification.getCreatedAt().getTime() : 0;
+        entity.readAt = notification.getReadAt() != null ? notification.getReadAt().getTime() : 0;
+        entity.isRead = notification.isRead();
+        entity.dataJson = encodeData(notification.getData());
+        return entity;
+    }
+
+    public UserNotification toNotification() {
+        UserNotification notification = new UserNotification();
+        notification.setId(id);
+        notification.setUserId(userId);
+        notification.setType(UserNotification.NotificationType.fromString(type));
+        notification.setTitle(title);
+        notification.setMessage(message);
+        notification.setImageUrl(imageUrl);
+        notification.setPriority(UserNotification.Priority.fromString(priority));
+        notification.setCreatedAt(new Date(createdAt));
+        notification.setRead(isRead);
+        notification.setReadAt(readAt > 0 ? new Date(readAt) : null);
+        notification.setSent(true);
+        notification.setData(parseData(dataJson));
+        return notification;
+    }
+
+    static String encodeData(Map<String, Object> data) {
+        if (data == null) return null;
+        try {
+            return toJson(data).toString();
+        } catch (JSONException e) {
+            Log.e(TAG, "Error encoding notification data", e);
+            return null;
+        }
+    }
+
+    private static JSONObject toJson(Map<?, ?> map) throws JSONException {
+        JSONObject object = new JSONObject();
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            object.put(String.valueOf(entry.getKey()), wrap(entry.getValue()));
+        }
+        return object;
+    }
+
+    private static Object wrap(Object value) throws JSONException {
+        if (value == null) return JSONObject.NULL;
+        if (value instanceof Timestamp) {
+            value = ((Timestamp) value).toDate();
+        }
+        if (value instanceof Date) {
+            return new JSONObject().put(DATE_KEY, ((Date) value).getTime());
+        }
+        if (value instanceof Map) {
+            return toJson((Map<?, ?>) value);
+        }
+        if (value instanceof List) {
+            JSONArray array = new JSONArray();
+            for (Object item : (List<?>) value) {
+                array.put(wrap(item));
+            }
+            return array;
+        }
+        if (value instanceof String || value instanceof Number || value instanceof Boolean) {
+            return value;
+        }
+        // Autres types Firestore (GeoPoint, référence) : seule leur forme texte est gardée
+        return String.valueOf(value);
+    }
+
+    static Map<String, Object> parseData(String json) {
+        if (json == null) return new HashMap<>();
+        try {
+            return toMap(new JSONObject(json));
+        } catch (JSONException e) {
+            Log.e(TAG, "Error parsing notification data", e);
+            return new HashMap<>();
+        }
+    }
+
+    private static Map<String, Object> toMap(JSONObject object) throws JSONException {
+        Map<String, Object> map = new HashMap<>();
+        Iterator<String> keys = object.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            map.put(key, unwrap(object.get(key)));
+        }
+        return map;
+    }
+
+    private static Object unwrap(Object value) throws JSONException {
+        if (value instanceof JSONObject) {
+            JSONObject object = (JSONObject) value;
+            if (object.length() == 1 && object.has(DATE_KEY)) {
+                return new Date(object.getLong(DATE_KEY));
+            }
+            return toMap(object);
+        }
+        if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            List<Object> list = new ArrayList<>(array.length());
+            for (int i = 0; i < array.length(); i++) {
+                list.add(unwrap(array.get(i)));
+            }
+            return list;
+        }
+        return value == JSONObject.NULL ? null : value;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.learnizone.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Carte de révision (répétition espacée, algorithme SM-2) créée à partir d'une question ratée.
+ */
+@Entity(tableName = "review_cards", indices = {@Index("dueAt")})
+public class ReviewCard {
+    public static final float DEFAULT_EASE_FACTOR = 2.5f;
+    public static final float MIN_EASE_FACTOR = 1.3f;
+
+    @PrimaryKey
+    @NonNull
+    public String cardId = "";
+    public String quizId;
+    public String questionId;
+    public String questionText;
+    public float easeFactor = DEFAULT_EASE_FACTOR;
+    public int intervalDays;
+    public int repetitions;
+    public int lapses;
+    public long dueAt;
+    public long updatedAt;
+
+    public static String idFor(String quizId, String questionId) {
+        return quizId + ":" + questionId;
+    }
+
+    public boolean isDue(long now) {
+        return dueAt <= now;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.learnizone.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface ReviewCardDao {
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(ReviewCard card);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<ReviewCard> cards);
+
+    @Query("SELECT * FROM review_cards ORDER BY dueAt ASC")
+    List<ReviewCard> getAll();
+
+    @Query("SELECT * FROM review_cards WHERE dueAt <= :now ORDER BY dueAt ASC LIMIT :limit")
+    List<ReviewCard> getDue(long now, int limit);
+
+    @Query("SELECT COUNT(*) FROM review_cards WHERE dueAt <= :now")
+    int countDue(long now);
+
+    @Query("DELETE FROM review_cards WHERE cardId = :cardId")
+    void delete(String cardId);
+}
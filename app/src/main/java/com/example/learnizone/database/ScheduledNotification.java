@@ -0,0 +1,62 @@
+package com.example.learnizone.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.example.learnizone.models.UserNotification;
+
+import java.util.Date;
+
+/**
+ * Notification programmée, en attente de livraison locale.
+ * displayedAt vaut 0 tant qu'elle n'est pas affichée ; ensuite la ligne est gardée
+ * jusqu'à ce que l'envoi soit confirmé dans Firestore.
+ */
+@Entity(tableName = "scheduled_notifications", indices = {@Index("dueAt")})
+public class ScheduledNotification {
+    @PrimaryKey
+    @NonNull
+    public String id = "";
+    public String userId;
+    public String type;
+    public String title;
+    public String message;
+    public String imageUrl;
+    public String priority;
+    public long createdAt;
+    public String dataJson;
+    public long dueAt;
+    public long displayedAt;
+
+    public static ScheduledNotification fromNotification(UserNotification notification, long dueAt) {
+        ScheduledNotification scheduled = new ScheduledNotification();
+        scheduled.id = notification.getId();
+        scheduled.userId = notification.getUserId();
+        scheduled.type = notification.getType() != null ? notification.getType().getValue() : null;
+        scheduled.title = notification.getTitle();
+        scheduled.message = notification.getMessage();
+        scheduled.imageUrl = notification.getImageUrl();
+        scheduled.priority = notification.getPriority() != null ? notification.getPriority().getValue() : null;
+        scheduled.createdAt = notification.getCreatedAt() != null ? notification.getCreatedAt().getTime() : 0;
+        scheduled.dataJson = NotificationEntity.encodeData(notification.getData());
+        scheduled.dueAt = dueAt;
+        return scheduled;
+    }
+
+    public UserNotification toNotification() {
+        UserNotification notification = new UserNotification();
+        notification.setId(id);
+        notification.setUserId(userId);
+        notification.setType(UserNotification.NotificationType.fromString(type));
+        notification.setTitle(title);
+        notification.setMessage(message);
+        notification.setImageUrl(imageUrl);
+        notification.setPriority(UserNotification.Priority.fromString(priority));
+        notification.setCreatedAt(new Date(createdAt));
+        notification.setScheduledAt(new Date(dueAt));
+        notification.setData(NotificationEntity.parseData(dataJson));
+        return notification;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.learnizone.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface ScheduledNotificationDao {
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(ScheduledNotification scheduled);
+
+    @Query("SELECT * FROM scheduled_notifications WHERE displayedAt = 0 ORDER BY dueAt ASC")
+    List<ScheduledNotification> getPending();
+
+    @Query("UPDATE scheduled_notifications SET displayedAt = :displayedAt WHERE id IN (:ids)")
+    void markDisplayed(List<String> ids, long displayedAt);
+
+    @Query("SELECT id FROM scheduled_notifications WHERE displayedAt > 0 LIMIT :limit")
+    List<String> getUnconfirmedIds(int limit);
+
+    @Query("DELETE FROM scheduled_notifications WHERE id IN (:ids)")
+    void delete(List<String> ids);
+}
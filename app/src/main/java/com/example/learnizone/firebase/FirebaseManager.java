@@ -3,22 +3,29 @@ package com.example.learnizone.firebase;
 import android.content.Context;
 import android.util.Log;
 
+import com.example.learnizone.managers.PopularityManager;
 import com.google.android.gms.tasks.Task;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.firestore.CollectionReference;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.ListenerRegistration;
 import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
 import com.google.firebase.storage.FirebaseStorage;
 import com.google.android.gms.tasks.Tasks;
 
 
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 public class FirebaseManager {
     private static final String TAG = "FirebaseManager";
@@ -32,6 +39,23 @@ public class FirebaseManager {
     public static final String COLLECTION_ENROLLMENTS = "enrollments";
     public static final String COLLECTION_REVIEWS = "reviews";
     public static final String COLLECTION_CATEGORIES = "categories";
+    public static final String COLLECTION_COUNTERS = "counters";
+    public static final String COLLECTION_MODULES = "modules";
+    public static final String COLLECTION_LESSONS = "lessons";
+    public static final String COLLECTION_LESSON_RESOURCES = "lessonResources";
+
+    // Catalogue synchronisé par delta : toute écriture met à jour updatedAt,
+    // et une suppression laisse un document marqué isDeleted
+    public static final String FIELD_UPDATED_AT = "updatedAt";
+    public static final String FIELD_IS_DELETED = "isDeleted";
+    private static final Set<String> CATALOG_COLLECTIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        COLLECTION_COURSES, COLLECTION_MODULES, COLLECTION_LESSONS, COLLECTION_LESSON_RESOURCES)));
+
+    // Sharded counters (courses/{id}/counters/..., categories/{id}/counters/...)
+    public static final String COUNTER_ENROLLED_STUDENTS = "enrolledStudents";
+    public static final String COUNTER_TOTAL_RATINGS = "totalRatings";
+    public static final String COUNTER_RATING_SUM = "ratingSum";
+    public static final String COUNTER_COURSE_COUNT = "courseCount";
 
     // Listener registrations
     private ListenerRegistration usersListener;
@@ -83,6 +107,17 @@ public class FirebaseManager {
         return firestore.collection(COLLECTION_CATEGORIES);
     }
 
+    // Sharded counters
+    public ShardedCounter getCourseCounter(String courseId, String name) {
+        return new ShardedCounter(getCoursesCollection().document(courseId)
+            .collection(COLLECTION_COUNTERS).document(name), ShardedCounter.DEFAULT_SHARDS);
+    }
+
+    public ShardedCounter getCategoryCounter(String categoryId, String name) {
+        return new ShardedCounter(getCategoriesCollection().document(categoryId)
+            .collection(COLLECTION_COUNTERS).document(name), ShardedCounter.DEFAULT_SHARDS);
+    }
+
     // Create initial collections with sample data
     public void createInitialCollections() {
         createCategories();
@@ -94,17 +129,14 @@ public class FirebaseManager {
         categories.put("Development", new HashMap<String, Object>() {{
             put("name", "Development");
             put("description", "Programming and software development courses");
-            put("courseCount", 0);
         }});
         categories.put("Business", new HashMap<String, Object>() {{
             put("name", "Business");
             put("description", "Business and management courses");
-            put("courseCount", 0);
         }});
         categories.put("Design", new HashMap<String, Object>() {{
             put("name", "Design");
             put("description", "Design and creative courses");
-            put("courseCount", 0);
         }});
 
         for (Map.Entry<String, Object> category : categories.entrySet()) {
@@ -129,17 +161,18 @@ public class FirebaseManager {
                 course.put("price", 49.99);
                 course.put("level", "BEGINNER");
                 course.put("rating", 4.5);
-                course.put("totalRatings", 0);
-                course.put("enrolledStudents", 0);
                 course.put("isPublished", true);
+                course.put("createdAt", FieldValue.serverTimestamp());
+                course.put(FIELD_UPDATED_AT, FieldValue.serverTimestamp());
 
                 getCoursesCollection()
                     .add(course)
                     .addOnSuccessListener(documentReference -> {
                         Log.d(TAG, "Sample course created with ID: " + documentReference.getId());
                         // Update category course count
-                        getCategoriesCollection().document(categoryId)
-                            .update("courseCount", 1);
+                        getCategoryCounter(categoryId, COUNTER_COURSE_COUNT).increment(1);
+                        // Classement de popularité initial à partir des compteurs des cours
+                        PopularityManager.getInstance().seedFromCourses();
                     })
                     .addOnFailureListener(e -> Log.e(TAG, "Error creating sample course", e));
             }
@@ -148,17 +181,39 @@ public class FirebaseManager {
 
     // Helper method to create a new document in any collection
     public Task<DocumentReference> createDocument(String collectionName, Map<String, Object> data) {
-        return firestore.collection(collectionName).add(data);
+        return firestore.collection(collectionName).add(stamped(collectionName, data));
     }
 
     // Helper method to update a document
     public Task<Void> updateDocument(String collectionName, String documentId, Map<String, Object> data) {
-        return firestore.collection(collectionName).document(documentId).update(data);
+        return firestore.collection(collectionName).document(documentId).update(stamped(collectionName, data));
     }
 
     // Helper method to delete a document
     public Task<Void> deleteDocument(String collectionName, String documentId) {
-        return firestore.collection(collectionName).document(documentId).delete();
+        DocumentReference document = firestore.collection(collectionName).document(documentId);
+        if (!isCatalogCollection(collectionName)) {
+            return document.delete();
+        }
+        // Suppression logique : les instantanés locaux ne voient que les documents modifiés
+        Map<String, Object> tombstone = new HashMap<>();
+        tombstone.put(FIELD_IS_DELETED, true);
+        tombstone.put(FIELD_UPDATED_AT, FieldValue.serverTimestamp());
+        return document.set(tombstone, SetOptions.merge());
+    }
+
+    public static boolean isCatalogCollection(String collectionName) {
+        return CATALOG_COLLECTIONS.contains(collectionName);
+    }
+
+    /**
+     * Ajoute l'horodatage serveur updatedAt aux écritures du catalogue
+     */
+    private static Map<String, Object> stamped(String collectionName, Map<String, Object> data) {
+        if (!isCatalogCollection(collectionName)) return data;
+        Map<String, Object> stamped = new HashMap<>(data);
+        stamped.put(FIELD_UPDATED_AT, FieldValue.serverTimestamp());
+        return stamped;
     }
 
     // Helper method to get a document
@@ -248,21 +303,6 @@ public class FirebaseManager {
             });
     }
 
-    // Real-time listener for course reviews
-    public ListenerRegistration observeCourseReviews(String courseId, OnCollectionChangedListener listener) {
-        return getReviewsCollection()
-            .whereEqualTo("courseId", courseId)
-            .addSnapshotListener((value, error) -> {
-                if (error != null) {
-                    Log.e(TAG, "Error listening to course reviews", error);
-                    return;
-                }
-                if (value != null) {
-                    listener.onCollectionChanged(value);
-                }
-            });
-    }
-
     // Remove all listeners
     public void removeAllListeners() {
         if (usersListener != null) usersListener.remove();
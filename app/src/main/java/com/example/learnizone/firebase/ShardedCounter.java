@@ -0,0 +1,141 @@
+package com.example.learnizone.firebase;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Transaction;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compteur réparti sur N documents ({compteur}/shards/{0..N-1}).
+ * Chaque écriture touche un fragment tiré au hasard, ce qui multiplie par N le débit
+ * d'écriture supporté ; la lecture additionne les fragments et garde le total en cache.
+ */
+public class ShardedCounter {
+    private static final String TAG = "ShardedCounter";
+    private static final String SHARDS_COLLECTION = "shards";
+    private static final String FIELD_COUNT = "count";
+    private static final long CACHE_TTL_MS = 60 * 1000;
+
+    public static final int DEFAULT_SHARDS = 10;
+
+    // Totaux lus, par chemin de compteur
+    private static final Map<String, CachedTotal> cache = new HashMap<>();
+    private static final Random random = new Random();
+
+    private final DocumentReference counterRef;
+    private final int shards;
+
+    public ShardedCounter(DocumentReference counterRef, int shards) {
+        this.counterRef = counterRef;
+        this.shards = shards;
+    }
+
+    public Task<Void> increment(double delta) {
+        adjustCache(delta);
+        return randomShard().set(incrementOf(delta), SetOptions.merge())
+            .addOnFailureListener(e -> {
+                Log.e(TAG, "Error incrementing " + counterRef.getPath(), e);
+                invalidate();
+            });
+    }
+
+    /**
+     * Incrément inclus dans une transaction existante
+     */
+    public void increment(Transaction transaction, double delta) {
+        transaction.set(randomShard(), incrementOf(delta), SetOptions.merge());
+        invalidate();
+    }
+
+    /**
+     * Incrément inclus dans un lot d'écritures existant
+     */
+    public void increment(WriteBatch batch, double delta) {
+        batch.set(randomShard(), incrementOf(delta), SetOptions.merge());
+        invalidate();
+    }
+
+    /**
+     * Somme des fragments, servie depuis le cache pendant CACHE_TTL_MS
+     */
+    public Task<Double> get() {
+        String path = counterRef.getPath();
+        synchronized (cache) {
+            CachedTotal cached = cache.get(path);
+            if (cached != null && SystemClock.elapsedRealtime() - cached.loadedAt < CACHE_TTL_MS) {
+                return Tasks.forResult(cached.total);
+            }
+        }
+
+        return counterRef.collection(SHARDS_COLLECTION).get().continueWith(task -> {
+            if (!task.isSuccessful()) {
+                Log.e(TAG, "Error reading " + path, task.getException());
+                throw task.getException();
+            }
+            double total = 0;
+            for (DocumentSnapshot shard : task.getResult()) {
+                Double count = shard.getDouble(FIELD_COUNT);
+                if (count != null) total += count;
+            }
+            synchronized (cache) {
+                cache.put(path, new CachedTotal(total, SystemClock.elapsedRealtime()));
+            }
+            return total;
+        });
+    }
+
+    private DocumentReference randomShard() {
+        int shard;
+        synchronized (random) {
+            shard = random.nextInt(shards);
+        }
+        return counterRef.collection(SHARDS_COLLECTION).document(String.valueOf(shard));
+    }
+
+    private static Map<String, Object> incrementOf(double delta) {
+        return Collections.<String, Object>singletonMap(FIELD_COUNT, FieldValue.increment(delta));
+    }
+
+    /**
+     * Reporte localement une écriture directe, sans attendre la prochaine lecture
+     */
+    private void adjustCache(double delta) {
+        synchronized (cache) {
+            CachedTotal cached = cache.get(counterRef.getPath());
+            if (cached != null) {
+                cache.put(counterRef.getPath(), new CachedTotal(cached.total + delta, cached.loadedAt));
+            }
+        }
+    }
+
+    /**
+     * Une transaction ou un lot peut échouer : le total sera relu
+     */
+    private void invalidate() {
+        synchronized (cache) {
+            cache.remove(counterRef.getPath());
+        }
+    }
+
+    private static final class CachedTotal {
+        final double total;
+        final long loadedAt;
+
+        CachedTotal(double total, long loadedAt) {
+            this.total = total;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -22,6 +22,7 @@ import com.bumptech.glide.Glide;
 import com.example.learnizone.R;
 import com.example.learnizone.models.Question;
 import com.example.learnizone.models.QuestionAnswer;
+import com.example.learnizone.quiz.TextAnswerMatcher;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -289,10 +290,12 @@ public class QuestionFragment extends Fragment {
         switch (question.getType()) {
             case MULTIPLE_CHOICE:
             case TRUE_FALSE:
-            case FILL_IN_BLANK:
-            case SHORT_ANSWER:
             case ESSAY:
                 return answer.getUserAnswer() != null && !answer.getUserAnswer().trim().isEmpty();
+            case FILL_IN_BLANK:
+            case SHORT_ANSWER:
+                // Une réponse faite uniquement de ponctuation n'est pas une réponse
+                return TextAnswerMatcher.hasContent(answer.getUserAnswer());
             case MATCHING:
                 return answer.getUserAnswers() != null && !answer.getUserAnswers().isEmpty();
             default:
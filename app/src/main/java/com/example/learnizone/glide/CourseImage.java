@@ -0,0 +1,36 @@
+package com.example.learnizone.glide;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Image de cours à charger avec Glide : l'URL est résolue à la taille de la vue cible
+ * par {@link CourseImageLoader}. La variante redimensionnée peut ne pas exister :
+ * les appelants ajoutent une requête {@code error(...)} sur l'URL d'origine.
+ */
+public final class CourseImage {
+    private final String url;
+
+    public CourseImage(String url) {
+        this.url = url;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CourseImage && url != null && url.equals(((CourseImage) o).url);
+    }
+
+    @Override
+    public int hashCode() {
+        return url != null ? url.hashCode() : 0;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "CourseImage(" + url + ")";
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.learnizone.glide;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.load.model.ModelCache;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+import com.bumptech.glide.load.model.MultiModelLoaderFactory;
+import com.bumptech.glide.load.model.stream.BaseGlideUrlLoader;
+
+import java.io.InputStream;
+
+/**
+ * Charge une {@link CourseImage} à la taille de la vue : la largeur et la hauteur fournies
+ * par Glide sont transmises au CDN, qui renvoie une image déjà réduite.
+ */
+public class CourseImageLoader extends BaseGlideUrlLoader<CourseImage> {
+    private static final int MODEL_CACHE_SIZE = 100;
+
+    CourseImageLoader(ModelLoader<GlideUrl, InputStream> urlLoader, ModelCache<CourseImage, GlideUrl> modelCache) {
+        super(urlLoader, modelCache);
+    }
+
+    @Override
+    protected String getUrl(CourseImage model, int width, int height, Options options) {
+        return ImageUrlResolver.resolve(model.getUrl(), width, height);
+    }
+
+    @Override
+    public boolean handles(@NonNull CourseImage model) {
+        return model.getUrl() != null;
+    }
+
+    public static class Factory implements ModelLoaderFactory<CourseImage, InputStream> {
+        // URLs résolues par (modèle, taille), pour ne pas réécrire l'URL à chaque liaison
+        private final ModelCache<CourseImage, GlideUrl> modelCache = new ModelCache<>(MODEL_CACHE_SIZE);
+
+        @NonNull
+        @Override
+        public ModelLoader<CourseImage, InputStream> build(@NonNull MultiModelLoaderFactory multiFactory) {
+            return new CourseImageLoader(multiFactory.build(GlideUrl.class, InputStream.class), modelCache);
+        }
+
+        @Override
+        public void teardown() {
+            modelCache.clear();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.learnizone.glide;
+
+import android.app.ActivityManager;
+import android.content.Context;
+
+import com.bumptech.glide.load.DecodeFormat;
+
+/**
+ * Classe mémoire de l'appareil et budget d'images associé.
+ * Les écrans sont en multiples d'un écran plein en ARGB_8888 (voir MemorySizeCalculator).
+ */
+public enum DeviceClass {
+    LOW(1f, 1f, 0.25f, 50L * 1024 * 1024, DecodeFormat.PREFER_RGB_565),
+    MEDIUM(2f, 2f, 0.33f, 150L * 1024 * 1024, DecodeFormat.PREFER_ARGB_8888),
+    HIGH(3f, 3f, 0.4f, 250L * 1024 * 1024, DecodeFormat.PREFER_ARGB_8888);
+
+    /** Seuils de getMemoryClass(), en Mo */
+    private static final int LOW_MEMORY_CLASS = 128;
+    private static final int HIGH_MEMORY_CLASS = 256;
+
+    private static volatile DeviceClass current;
+
+    public final float memoryCacheScreens;
+    public final float bitmapPoolScreens;
+    /** Part maximale du tas de l'application occupée par Glide */
+    public final float maxHeapFraction;
+    public final long diskCacheBytes;
+    /** Format des vignettes opaques (illustrations de cours) */
+    public final DecodeFormat thumbnailFormat;
+
+    DeviceClass(float memoryCacheScreens, float bitmapPoolScreens, float maxHeapFraction,
+                long diskCacheBytes, DecodeFormat thumbnailFormat) {
+        this.memoryCacheScreens = memoryCacheScreens;
+        this.bitmapPoolScreens = bitmapPoolScreens;
+        this.maxHeapFraction = maxHeapFraction;
+        this.diskCacheBytes = diskCacheBytes;
+        this.thumbnailFormat = thumbnailFormat;
+    }
+
+    public static DeviceClass of(Context context) {
+        DeviceClass deviceClass = current;
+        if (deviceClass == null) {
+            ActivityManager activityManager =
+                (ActivityManager) context.getApplicationContext().getSystemService(Context.ACTIVITY_SERVICE);
+            int memoryClass = activityManager.getMemoryClass();
+            if (activityManager.isLowRamDevice() || memoryClass <= LOW_MEMORY_CLASS) {
+                deviceClass = LOW;
+            } else if (memoryClass < HIGH_MEMORY_CLASS) {
+                deviceClass = MEDIUM;
+            } else {
+                deviceClass = HIGH;
+            }
+            current = deviceClass;
+        }
+        return deviceClass;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.learnizone.glide;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.target.Target;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compteurs de chargement d'images : succès du cache mémoire, du cache disque,
+ * téléchargements, échecs et temps de décodage des bitmaps.
+ * Enregistré comme écouteur global dans {@link LearnIzoneGlideModule}.
+ */
+public class ImageMetrics implements RequestListener<Object> {
+    private static final String TAG = "ImageMetrics";
+
+    private static ImageMetrics instance;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong decodes = new AtomicLong();
+    private final AtomicLong decodeNanos = new AtomicLong();
+    private final AtomicLong maxDecodeNanos = new AtomicLong();
+
+    private ImageMetrics() {}
+
+    public static synchronized ImageMetrics getInstance() {
+        if (instance == null) {
+            instance = new ImageMetrics();
+        }
+        return instance;
+    }
+
+    @Override
+    public boolean onResourceReady(@NonNull Object resource, @NonNull Object model, Target<Object> target,
+                                   @NonNull DataSource dataSource, boolean isFirstResource) {
+        switch (dataSource) {
+            case MEMORY_CACHE:
+                memoryHits.incrementAndGet();
+                break;
+            case DATA_DISK_CACHE:
+            case RESOURCE_DISK_CACHE:
+                diskHits.incrementAndGet();
+                break;
+            default:
+                misses.incrementAndGet();
+                break;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean onLoadFailed(@Nullable GlideException e, @Nullable Object model,
+                                @NonNull Target<Object> target, boolean isFirstResource) {
+        failures.incrementAndGet();
+        return false;
+    }
+
+    void recordDecode(long nanos) {
+        decodes.incrementAndGet();
+        decodeNanos.addAndGet(nanos);
+        long max;
+        do {
+            max = maxDecodeNanos.get();
+        } while (nanos > max && !maxDecodeNanos.compareAndSet(max, nanos));
+    }
+
+    /**
+     * Valeurs accumulées depuis le dernier appel, puis remise à zéro
+     */
+    public Map<String, Long> drain() {
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        snapshot.put("memory_hits", memoryHits.getAndSet(0));
+        snapshot.put("disk_hits", diskHits.getAndSet(0));
+        snapshot.put("misses", misses.getAndSet(0));
+        snapshot.put("failures", failures.getAndSet(0));
+        long count = decodes.getAndSet(0);
+        long total = decodeNanos.getAndSet(0);
+        snapshot.put("decodes", count);
+        snapshot.put("decode_avg_us", count > 0 ? total / count / 1000 : 0);
+        snapshot.put("decode_max_us", maxDecodeNanos.getAndSet(0) / 1000);
+        Log.d(TAG, "Image cache " + snapshot);
+        return snapshot;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.learnizone.glide;
+
+import android.net.Uri;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Réécrit l'URL d'une image pour demander au CDN la taille réellement affichée.
+ * Les largeurs sont arrondies à un palier pour que le CDN et le cache disque de Glide
+ * partagent les variantes entre vues de tailles voisines.
+ */
+public final class ImageUrlResolver {
+    private static final String UNSPLASH_HOST = "images.unsplash.com";
+    private static final String STORAGE_HOST = "firebasestorage.googleapis.com";
+    private static final int QUALITY = 75;
+
+    /** Paliers de largeur demandés au CDN */
+    private static final int[] WIDTH_STEPS = {160, 240, 320, 480, 640, 960, 1280, 1920};
+    /** Variantes générées par l'extension Resize Images de Firebase Storage */
+    private static final int[] STORAGE_VARIANTS = {200, 400, 800};
+    /** Paramètres de taille que l'on remplace */
+    private static final Set<String> SIZE_PARAMETERS =
+        new HashSet<>(Arrays.asList("w", "h", "fit", "crop", "q", "fm", "auto", "dpr"));
+
+    private ImageUrlResolver() {}
+
+    /**
+     * @return l'URL d'une variante d'au moins width x height pixels,
+     *         ou l'URL d'origine si l'hébergeur ne sait pas redimensionner
+     */
+    public static String resolve(String url, int width, int height) {
+        if (url == null || width <= 0 || height <= 0) return url;
+
+        Uri uri = Uri.parse(url);
+        if (UNSPLASH_HOST.equals(uri.getHost())) {
+            return unsplash(uri, width, height);
+        }
+        if (STORAGE_HOST.equals(uri.getHost())) {
+            return storage(uri, Math.max(width, height));
+        }
+        return url;
+    }
+
+    /**
+     * Imgix (Unsplash) : recadrage côté serveur, WebP, qualité réduite
+     */
+    private static String unsplash(Uri uri, int width, int height) {
+        int stepWidth = step(width);
+        int stepHeight = Math.round(height * (stepWidth / (float) width));
+
+        Uri.Builder builder = uri.buildUpon().clearQuery();
+        for (String name : uri.getQueryParameterNames()) {
+            if (!SIZE_PARAMETERS.contains(name)) {
+                builder.appendQueryParameter(name, uri.getQueryParameter(name));
+            }
+        }
+        return builder
+            .appendQueryParameter("w", String.valueOf(stepWidth))
+            .appendQueryParameter("h", String.valueOf(stepHeight))
+            .appendQueryParameter("fit", "crop")
+            .appendQueryParameter("q", String.valueOf(QUALITY))
+            .appendQueryParameter("fm", "webp")
+            .build()
+            .toString();
+    }
+
+    /**
+     * Firebase Storage : variante "nom_200x200.ext" produite à l'envoi.
+     * Une URL à jeton est propre à un objet, on ne peut pas la dériver : elle est conservée.
+     */
+    private static String storage(Uri uri, int size) {
+        if (uri.getQueryParameter("token") != null) return uri.toString();
+
+        String path = uri.getPath();
+        int objectStart = path != null ? path.indexOf("/o/") : -1;
+        if (objectStart < 0) return uri.toString();
+
+        int variant = STORAGE_VARIANTS[STORAGE_VARIANTS.length - 1];
+        for (int candidate : STORAGE_VARIANTS) {
+            if (candidate >= size) {
+                variant = candidate;
+                break;
+            }
+        }
+
+        String object = path.substring(objectStart + 3);
+        int slash = object.lastIndexOf('/');
+        int dot = object.lastIndexOf('.');
+        String suffix = "_" + variant + "x" + variant;
+        String resized = dot > slash
+            ? object.substring(0, dot) + suffix + object.substring(dot)
+            : object + suffix;
+
+        return uri.buildUpon()
+            .path(path.substring(0, objectStart + 3))
+            .appendPath(resized)
+            .build()
+            .toString();
+    }
+
+    private static int step(int width) {
+        for (int step : WIDTH_STEPS) {
+            if (step >= width) return step;
+        }
+        return WIDTH_STEPS[WIDTH_STEPS.length - 1];
+    }
+}
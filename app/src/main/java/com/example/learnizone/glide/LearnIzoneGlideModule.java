@@ -0,0 +1,62 @@
+package com.example.learnizone.glide;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.Registry;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.cache.MemorySizeCalculator;
+import com.bumptech.glide.load.resource.bitmap.ByteBufferBitmapDecoder;
+import com.bumptech.glide.load.resource.bitmap.Downsampler;
+import com.bumptech.glide.load.resource.bitmap.StreamBitmapDecoder;
+import com.bumptech.glide.module.AppGlideModule;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Configuration Glide de l'application : caches dimensionnés selon la {@link DeviceClass},
+ * chargeur des images de cours et mesures de chargement ({@link ImageMetrics}).
+ */
+@GlideModule
+public class LearnIzoneGlideModule extends AppGlideModule {
+    private static final String DISK_CACHE_NAME = "image_cache";
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        DeviceClass deviceClass = DeviceClass.of(context);
+        MemorySizeCalculator calculator = new MemorySizeCalculator.Builder(context)
+            .setMemoryCacheScreens(deviceClass.memoryCacheScreens)
+            .setBitmapPoolScreens(deviceClass.bitmapPoolScreens)
+            .setMaxSizeMultiplier(deviceClass.maxHeapFraction)
+            .build();
+
+        builder.setMemorySizeCalculator(calculator)
+            .setDiskCache(new InternalCacheDiskCacheFactory(context, DISK_CACHE_NAME, deviceClass.diskCacheBytes))
+            .addGlobalRequestListener(ImageMetrics.getInstance());
+    }
+
+    @Override
+    public void registerComponents(@NonNull Context context, @NonNull Glide glide, @NonNull Registry registry) {
+        registry.prepend(CourseImage.class, InputStream.class, new CourseImageLoader.Factory());
+
+        // Décodeurs bitmap par défaut, chronométrés
+        Downsampler downsampler = new Downsampler(registry.getImageHeaderParsers(),
+            context.getResources().getDisplayMetrics(), glide.getBitmapPool(), glide.getArrayPool());
+        ImageMetrics metrics = ImageMetrics.getInstance();
+        registry.prepend(Registry.BUCKET_BITMAP, ByteBuffer.class, Bitmap.class,
+            new TimedDecoder<>(new ByteBufferBitmapDecoder(downsampler), metrics));
+        registry.prepend(Registry.BUCKET_BITMAP, InputStream.class, Bitmap.class,
+            new TimedDecoder<>(new StreamBitmapDecoder(downsampler, glide.getArrayPool()), metrics));
+    }
+
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.learnizone.glide;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.ResourceDecoder;
+import com.bumptech.glide.load.engine.Resource;
+
+import java.io.IOException;
+
+/**
+ * Décodeur qui mesure la durée du décodeur Glide qu'il enveloppe
+ */
+final class TimedDecoder<T, Z> implements ResourceDecoder<T, Z> {
+    private final ResourceDecoder<T, Z> decoder;
+    private final ImageMetrics metrics;
+
+    TimedDecoder(ResourceDecoder<T, Z> decoder, ImageMetrics metrics) {
+        this.decoder = decoder;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean handles(@NonNull T source, @NonNull Options options) throws IOException {
+        return decoder.handles(source, options);
+    }
+
+    @Nullable
+    @Override
+    public Resource<Z> decode(@NonNull T source, int width, int height, @NonNull Options options) throws IOException {
+        long start = SystemClock.elapsedRealtimeNanos();
+        try {
+            return decoder.decode(source, width, height, options);
+        } finally {
+            metrics.recordDecode(SystemClock.elapsedRealtimeNanos() - start);
+        }
+    }
+}
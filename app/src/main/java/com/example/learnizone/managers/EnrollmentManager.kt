@@ -1,6 +1,7 @@
 package com.example.learnizone.managers
 
 import android.util.Log
+import com.example.learnizone.firebase.FirebaseManager
 import com.example.learnizone.models.Course
 import com.example.learnizone.models.Enrollment
 import com.example.learnizone.models.EnrollmentStatus
@@ -58,11 +59,10 @@ class EnrollmentManager private constructor() {
                 enrollment
             )
 
-            // Mettre à jour le compteur d'étudiants
-            transaction.update(
-                db.collection(COURSES_COLLECTION).document(courseId),
-                "enrolledStudents", FieldValue.increment(1)
-            )
+            // Mettre à jour le compteur d'étudiants (compteur réparti)
+            FirebaseManager.getInstance()
+                .getCourseCounter(courseId, FirebaseManager.COUNTER_ENROLLED_STUDENTS)
+                .increment(transaction, 1.0)
 
             // Ajouter le cours à la liste de l'utilisateur
             transaction.update(
@@ -71,6 +71,9 @@ class EnrollmentManager private constructor() {
             )
         }.await()
 
+        // Score de popularité et classement rankings/popular
+        PopularityManager.getInstance().recordEnrollment(courseId)
+
         Log.d(TAG, "User enrolled successfully")
         true
     }
@@ -85,11 +88,10 @@ class EnrollmentManager private constructor() {
                 db.collection(ENROLLMENTS_COLLECTION).document(enrollment.enrollmentId)
             )
 
-            // Décrémenter le compteur d'étudiants
-            transaction.update(
-                db.collection(COURSES_COLLECTION).document(courseId),
-                "enrolledStudents", FieldValue.increment(-1)
-            )
+            // Décrémenter le compteur d'étudiants (compteur réparti)
+            FirebaseManager.getInstance()
+                .getCourseCounter(courseId, FirebaseManager.COUNTER_ENROLLED_STUDENTS)
+                .increment(transaction, -1.0)
 
             // Retirer le cours de la liste de l'utilisateur
             transaction.update(
@@ -6,26 +6,29 @@ import android.app.PendingIntent;
 import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
+import android.graphics.Bitmap;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 
 import androidx.core.app.NotificationCompat;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
 import androidx.work.Data;
-import androidx.work.ExistingWorkPolicy;
-import androidx.work.OneTimeWorkRequest;
+import androidx.work.ExistingPeriodicWorkPolicy;
 import androidx.work.PeriodicWorkRequest;
 import androidx.work.WorkManager;
 
 import com.example.learnizone.MainActivity;
 import com.example.learnizone.R;
+import com.example.learnizone.auth.AuthManager;
 import com.example.learnizone.models.UserNotification;
 import com.example.learnizone.workers.NotificationWorker;
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.Query;
 import com.google.firebase.messaging.FirebaseMessaging;
 
 import java.util.ArrayList;
@@ -34,6 +37,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class LearnIzoneNotificationManager {
     private static final String TAG = "NotificationManager";
@@ -44,10 +48,13 @@ public class LearnIzoneNotificationManager {
     private final FirebaseAuth auth;
     private final NotificationManager notificationManager;
     private final SharedPreferences preferences;
+    private final NotificationDigester digester;
+    private final NotificationInbox inbox;
+    private final NotificationImageLoader imageLoader;
+    private final NotificationPreferenceStore preferenceStore;
     
     // Collections
     private static final String NOTIFICATIONS_COLLECTION = "notifications";
-    private static final String USER_SETTINGS_COLLECTION = "userSettings";
     
     // Notification Channels
     private static final String CHANNEL_COURSE_REMINDERS = "course_reminders";
@@ -68,8 +75,34 @@ public class LearnIzoneNotificationManager {
         this.auth = FirebaseAuth.getInstance();
         this.notificationManager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
         this.preferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.inbox = NotificationInbox.getInstance(context);
+        this.imageLoader = new NotificationImageLoader(context);
+        
+        Map<String, String> remoteFields = new HashMap<>();
+        remoteFields.put(PREF_COURSE_REMINDERS, "courseReminders");
+        remoteFields.put(PREF_QUIZ_ALERTS, "quizAlerts");
+        remoteFields.put(PREF_ACHIEVEMENTS, "achievements");
+        remoteFields.put(PREF_GENERAL, "general");
+        this.preferenceStore = new NotificationPreferenceStore(preferences, db, remoteFields);
+        // Préférences du compte courant dès la construction (worker ou FCM au démarrage à froid)
+        preferenceStore.attach(getCurrentUserId());
+        // Changements de compte suivants : même flux de session que le reste de l'application
+        new Handler(Looper.getMainLooper()).post(() ->
+            AuthManager.getInstance(this.context).getSession().observeForever(session -> {
+                if (session != null) {
+                    preferenceStore.attach(session.isLoggedIn() ? session.getUserId() : null);
+                }
+            }));
         
         createNotificationChannels();
+        
+        // Limites par canal : jetons disponibles, puis un jeton rendu à intervalle fixe
+        this.digester = new NotificationDigester(context, notificationManager);
+        digester.registerChannel(CHANNEL_COURSE_REMINDERS, 2, TimeUnit.HOURS.toMillis(6));
+        digester.registerChannel(CHANNEL_QUIZ_ALERTS, 4, TimeUnit.HOURS.toMillis(1));
+        digester.registerChannel(CHANNEL_ACHIEVEMENTS, 3, TimeUnit.HOURS.toMillis(2));
+        digester.registerChannel(CHANNEL_GENERAL, 2, TimeUnit.HOURS.toMillis(4));
+        
         initializeFirebaseMessaging();
     }
     
@@ -143,6 +176,13 @@ public class LearnIzoneNotificationManager {
             });
     }
     
+    /**
+     * Nouveau token FCM (rotation côté Firebase)
+     */
+    public void onNewToken(String token) {
+        saveTokenForUser(token);
+    }
+    
     /**
      * Sauvegarde le token FCM pour l'utilisateur
      */
@@ -164,6 +204,16 @@ public class LearnIzoneNotificationManager {
      * Envoie une notification locale
      */
     public void sendLocalNotification(UserNotification notification) {
+        displayNotification(notification);
+        
+        // Marquer comme envoyée
+        markNotificationAsSent(notification.getId());
+    }
+    
+    /**
+     * Affiche la notification sans écriture Firestore (déjà enregistrée comme envoyée)
+     */
+    public void displayNotification(UserNotification notification) {
         Intent intent = new Intent(context, MainActivity.class);
         intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
         
@@ -184,15 +234,41 @@ public class LearnIzoneNotificationManager {
             .setContentIntent(pendingIntent)
             .setAutoCancel(true);
         
-        // Ajouter une image si disponible
-        if (notification.getImageUrl() != null) {
-            // TODO: Charger l'image avec Glide et l'ajouter à la notification
+        if (notification.getImageUrl() == null) {
+            digester.post(notification, channelId, builder, System.currentTimeMillis());
+            return;
         }
         
-        notificationManager.notify(notification.getId().hashCode(), builder.build());
-        
-        // Marquer comme envoyée
-        markNotificationAsSent(notification.getId());
+        // Image chargée en arrière-plan : publication sans attendre le réseau au-delà de l'échéance
+        AtomicBoolean posted = new AtomicBoolean();
+        imageLoader.load(notification.getImageUrl(), (largeIcon, picture, late) -> {
+            applyImages(builder, largeIcon, picture);
+            if (!late) {
+                posted.set(digester.post(notification, channelId, builder, System.currentTimeMillis()));
+            } else if (posted.get()) {
+                // Mise à jour sur place, sans nouvelle alerte
+                builder.setOnlyAlertOnce(true);
+                notificationManager.notify(notification.getId().hashCode(), builder.build());
+            }
+        });
+    }
+    
+    private static void applyImages(NotificationCompat.Builder builder, Bitmap largeIcon, Bitmap picture) {
+        if (largeIcon != null) {
+            builder.setLargeIcon(largeIcon);
+        }
+        if (picture != null) {
+            builder.setStyle(new NotificationCompat.BigPictureStyle()
+                .bigPicture(picture)
+                .bigLargeIcon((Bitmap) null));
+        }
+    }
+    
+    /**
+     * Publie les résumés retenus pendant les heures calmes ou par la limitation
+     */
+    public void flushDigests() {
+        digester.flushAll(System.currentTimeMillis());
     }
     
     /**
@@ -202,6 +278,7 @@ public class LearnIzoneNotificationManager {
         String notificationId = db.collection(NOTIFICATIONS_COLLECTION).document().getId();
         notification.setId(notificationId);
         notification.setCreatedAt(new Date());
+        notification.setUpdatedAt(notification.getCreatedAt());
         
         return db.collection(NOTIFICATIONS_COLLECTION)
             .document(notificationId)
@@ -216,30 +293,6 @@ public class LearnIzoneNotificationManager {
             });
     }
     
-    /**
-     * Programme une notification pour plus tard
-     */
-    public void scheduleNotification(UserNotification notification, long delayMillis) {
-        Data inputData = new Data.Builder()
-            .putString("notificationId", notification.getId())
-            .putString("title", notification.getTitle())
-            .putString("message", notification.getMessage())
-            .putString("type", notification.getType().name())
-            .build();
-        
-        OneTimeWorkRequest notificationWork = new OneTimeWorkRequest.Builder(NotificationWorker.class)
-            .setInputData(inputData)
-            .setInitialDelay(delayMillis, TimeUnit.MILLISECONDS)
-            .build();
-        
-        WorkManager.getInstance(context)
-            .enqueueUniqueWork(
-                "notification_" + notification.getId(),
-                ExistingWorkPolicy.REPLACE,
-                notificationWork
-            );
-    }
-    
     /**
      * Programme des rappels quotidiens d'apprentissage
      */
@@ -263,43 +316,59 @@ public class LearnIzoneNotificationManager {
         WorkManager.getInstance(context)
             .enqueueUniquePeriodicWork(
                 "daily_learning_reminder",
-                ExistingWorkPolicy.REPLACE,
+                ExistingPeriodicWorkPolicy.UPDATE,
                 dailyReminder
             );
     }
     
     /**
-     * Récupère les notifications de l'utilisateur
+     * Récupère les notifications de l'utilisateur (synchronisation incrémentale puis lecture locale)
      */
     public Task<List<UserNotification>> getUserNotifications(int limit) {
+        return getUserNotifications(0, limit);
+    }
+    
+    /**
+     * Page suivante : notifications antérieures à before (createdAt en millisecondes)
+     */
+    public Task<List<UserNotification>> getUserNotifications(long before, int limit) {
         String userId = getCurrentUserId();
         if (userId == null) {
             return Tasks.forResult(new ArrayList<>());
         }
         
-        return db.collection(NOTIFICATIONS_COLLECTION)
-            .whereEqualTo("userId", userId)
-            .orderBy("createdAt", Query.Direction.DESCENDING)
-            .limit(limit)
-            .get()
-            .continueWith(task -> {
-                List<UserNotification> notifications = new ArrayList<>();
-                if (task.isSuccessful()) {
-                    for (DocumentSnapshot doc : task.getResult()) {
-                        notifications.add(UserNotification.fromDocument(doc));
-                    }
+        if (before > 0) {
+            return inbox.getPage(userId, before, limit);
+        }
+        return inbox.sync(userId)
+            .continueWithTask(task -> {
+                if (!task.isSuccessful()) {
+                    Log.e(TAG, "Error syncing notifications", task.getException());
                 }
-                return notifications;
+                return inbox.getPage(userId, 0, limit);
             });
     }
     
+    /**
+     * Nombre de notifications non lues
+     */
+    public LiveData<Integer> getUnreadCount() {
+        String userId = getCurrentUserId();
+        if (userId == null) {
+            return new MutableLiveData<>(0);
+        }
+        return inbox.getUnreadCount(userId);
+    }
+    
     /**
      * Marque une notification comme lue
      */
     public Task<Void> markNotificationAsRead(String notificationId) {
-        return db.collection(NOTIFICATIONS_COLLECTION)
-            .document(notificationId)
-            .update("isRead", true, "readAt", new Date());
+        String userId = getCurrentUserId();
+        if (userId == null) {
+            return Tasks.forResult(null);
+        }
+        return inbox.markRead(userId, notificationId);
     }
     
     /**
@@ -308,7 +377,7 @@ public class LearnIzoneNotificationManager {
     private void markNotificationAsSent(String notificationId) {
         db.collection(NOTIFICATIONS_COLLECTION)
             .document(notificationId)
-            .update("isSent", true, "sentAt", new Date())
+            .update("isSent", true, "sentAt", new Date(), "updatedAt", new Date())
             .addOnFailureListener(e -> Log.e(TAG, "Error marking notification as sent", e));
     }
     
@@ -316,9 +385,11 @@ public class LearnIzoneNotificationManager {
      * Supprime une notification
      */
     public Task<Void> deleteNotification(String notificationId) {
-        return db.collection(NOTIFICATIONS_COLLECTION)
-            .document(notificationId)
-            .delete();
+        String userId = getCurrentUserId();
+        if (userId == null) {
+            return Tasks.forResult(null);
+        }
+        return inbox.delete(userId, notificationId);
     }
     
     /**
@@ -336,9 +407,7 @@ public class LearnIzoneNotificationManager {
         notification.setMessage(message);
         notification.setPriority(UserNotification.Priority.NORMAL);
         
-        createNotification(notification)
-            .addOnSuccessListener(id -> sendLocalNotification(notification))
-            .addOnFailureListener(e -> Log.e(TAG, "Error sending achievement notification", e));
+        postNotification(notification, "Error sending achievement notification");
     }
     
     /**
@@ -356,9 +425,7 @@ public class LearnIzoneNotificationManager {
         notification.setMessage("Continuez votre progression dans " + courseTitle);
         notification.setPriority(UserNotification.Priority.NORMAL);
         
-        createNotification(notification)
-            .addOnSuccessListener(id -> sendLocalNotification(notification))
-            .addOnFailureListener(e -> Log.e(TAG, "Error sending course reminder", e));
+        postNotification(notification, "Error sending course reminder");
     }
     
     /**
@@ -376,45 +443,46 @@ public class LearnIzoneNotificationManager {
         notification.setMessage(message);
         notification.setPriority(UserNotification.Priority.HIGH);
         
-        createNotification(notification)
-            .addOnSuccessListener(id -> sendLocalNotification(notification))
-            .addOnFailureListener(e -> Log.e(TAG, "Error sending quiz alert", e));
+        postNotification(notification, "Error sending quiz alert");
     }
     
     /**
-     * Configuration des préférences de notification
+     * Enregistre la notification déjà marquée comme envoyée (une seule écriture), puis l'affiche
      */
-    public void setNotificationTypeEnabled(UserNotification.NotificationType type, boolean enabled) {
-        String key = getPreferenceKeyForType(type);
-        preferences.edit().putBoolean(key, enabled).apply();
-        
-        // Sauvegarder aussi dans Firestore pour synchronisation
-        saveNotificationSettings();
+    private void postNotification(UserNotification notification, String errorMessage) {
+        notification.setSent(true);
+        notification.setSentAt(new Date());
+        createNotification(notification)
+            .addOnSuccessListener(id -> displayNotification(notification))
+            .addOnFailureListener(e -> Log.e(TAG, errorMessage, e));
     }
     
-    public boolean isNotificationTypeEnabled(UserNotification.NotificationType type) {
-        String key = getPreferenceKeyForType(type);
-        return preferences.getBoolean(key, true); // Activé par défaut
+    /**
+     * Construit le rappel groupé des révisions dues, sans l'enregistrer
+     */
+    public UserNotification buildReviewReminder(int dueCount, List<String> sampleQuestions) {
+        UserNotification notification = new UserNotification();
+        notification.setUserId(getCurrentUserId());
+        notification.setType(UserNotification.NotificationType.REVIEW_DUE);
+        notification.setTitle("Révisions du jour");
+        notification.setMessage(dueCount == 1
+            ? "1 question à réviser aujourd'hui"
+            : dueCount + " questions à réviser aujourd'hui");
+        notification.setPriority(UserNotification.Priority.NORMAL);
+        notification.addData("dueCount", dueCount);
+        notification.addData("sampleQuestions", sampleQuestions);
+        return notification;
     }
     
     /**
-     * Sauvegarde les paramètres de notification dans Firestore
+     * Configuration des préférences de notification
      */
-    private void saveNotificationSettings() {
-        String userId = getCurrentUserId();
-        if (userId == null) return;
-        
-        Map<String, Object> settings = new HashMap<>();
-        settings.put("courseReminders", preferences.getBoolean(PREF_COURSE_REMINDERS, true));
-        settings.put("quizAlerts", preferences.getBoolean(PREF_QUIZ_ALERTS, true));
-        settings.put("achievements", preferences.getBoolean(PREF_ACHIEVEMENTS, true));
-        settings.put("general", preferences.getBoolean(PREF_GENERAL, true));
-        settings.put("updatedAt", new Date());
-        
-        db.collection(USER_SETTINGS_COLLECTION)
-            .document(userId)
-            .set(settings)
-            .addOnFailureListener(e -> Log.e(TAG, "Error saving notification settings", e));
+    public void setNotificationTypeEnabled(UserNotification.NotificationType type, boolean enabled) {
+        preferenceStore.setEnabled(getPreferenceKeyForType(type), enabled);
+    }
+    
+    public boolean isNotificationTypeEnabled(UserNotification.NotificationType type) {
+        return preferenceStore.isEnabled(getPreferenceKeyForType(type));
     }
     
     /**
@@ -423,6 +491,7 @@ public class LearnIzoneNotificationManager {
     private String getChannelForType(UserNotification.NotificationType type) {
         switch (type) {
             case COURSE_REMINDER:
+            case REVIEW_DUE:
                 return CHANNEL_COURSE_REMINDERS;
             case QUIZ_DUE:
                 return CHANNEL_QUIZ_ALERTS;
@@ -439,6 +508,7 @@ public class LearnIzoneNotificationManager {
                 return NotificationCompat.PRIORITY_HIGH;
             case ACHIEVEMENT:
             case COURSE_REMINDER:
+            case REVIEW_DUE:
                 return NotificationCompat.PRIORITY_DEFAULT;
             default:
                 return NotificationCompat.PRIORITY_LOW;
@@ -448,6 +518,7 @@ public class LearnIzoneNotificationManager {
     private String getPreferenceKeyForType(UserNotification.NotificationType type) {
         switch (type) {
             case COURSE_REMINDER:
+            case REVIEW_DUE:
                 return PREF_COURSE_REMINDERS;
             case QUIZ_DUE:
                 return PREF_QUIZ_ALERTS;
@@ -0,0 +1,260 @@
+package com.example.learnizone.managers;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.net.Uri;
+import android.os.Build;
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.firebase.storage.StorageMetadata;
+import com.google.firebase.storage.StorageReference;
+import com.google.firebase.storage.UploadTask;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Envoi d'images vers Firebase Storage.
+ * L'image est décodée par sous-échantillonnage, redimensionnée à sa taille d'affichage
+ * maximale, redressée selon l'EXIF puis réencodée en WebP (ce qui supprime les métadonnées EXIF).
+ * L'envoi est reprenable : la session est conservée et reprise après une interruption.
+ * L'URL de téléchargement est construite à partir des métadonnées de l'envoi, sans second appel,
+ * sauf si le jeton n'est pas renvoyé.
+ */
+public class MediaUploader {
+    private static final String TAG = "MediaUploader";
+    private static final String PREFS_NAME = "media_uploads";
+    private static final String KEY_SESSION = "session_";
+    private static final String KEY_SOURCE = "source_";
+    private static final String KEY_FILE = "file_";
+    private static final String TOKEN_METADATA = "firebaseStorageDownloadTokens";
+    private static final String CACHE_CONTROL = "public, max-age=31536000";
+    private static final int WEBP_QUALITY = 80;
+
+    private static MediaUploader instance;
+
+    private final Context context;
+    private final SharedPreferences preferences;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private MediaUploader(Context context) {
+        this.context = context.getApplicationContext();
+        this.preferences = this.context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    public static synchronized MediaUploader getInstance(Context context) {
+        if (instance == null) {
+            instance = new MediaUploader(context);
+        }
+        return instance;
+    }
+
+    /**
+     * @param maxSize plus grand côté, en pixels, de l'image envoyée
+     * @return l'URL de téléchargement de l'image envoyée
+     */
+    public Task<Uri> uploadImage(Uri source, StorageReference target, int maxSize) {
+        TaskCompletionSource<Uri> result = new TaskCompletionSource<>();
+        executor.execute(() -> {
+            String path = target.getPath();
+            try {
+                // Reprise d'un envoi interrompu de la même image
+                File encoded;
+                Uri sessionUri = null;
+                String pendingFile = preferences.getString(KEY_FILE + path, null);
+                if (source.toString().equals(preferences.getString(KEY_SOURCE + path, null))
+                        && pendingFile != null && new File(pendingFile).exists()) {
+                    encoded = new File(pendingFile);
+                    String session = preferences.getString(KEY_SESSION + path, null);
+                    sessionUri = session != null ? Uri.parse(session) : null;
+                } else {
+                    discard(path);
+                    encoded = encode(source, maxSize);
+                    preferences.edit()
+                        .putString(KEY_SOURCE + path, source.toString())
+                        .putString(KEY_FILE + path, encoded.getPath())
+                        .apply();
+                }
+                upload(target, encoded, sessionUri, result);
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Error preparing upload " + path, e);
+                result.setException(e);
+            }
+        });
+        return result.getTask();
+    }
+
+    private void upload(StorageReference target, File encoded, Uri sessionUri, TaskCompletionSource<Uri> result) {
+        String path = target.getPath();
+        StorageMetadata metadata = new StorageMetadata.Builder()
+            .setContentType("image/webp")
+            .setCacheControl(CACHE_CONTROL)
+            .setCustomMetadata(TOKEN_METADATA, UUID.randomUUID().toString())
+            .build();
+
+        UploadTask upload = sessionUri != null
+            ? target.putFile(Uri.fromFile(encoded), metadata, sessionUri)
+            : target.putFile(Uri.fromFile(encoded), metadata);
+
+        upload.addOnProgressListener(executor, snapshot -> {
+            Uri session = snapshot.getUploadSessionUri();
+            if (session != null && !session.toString().equals(preferences.getString(KEY_SESSION + path, null))) {
+                preferences.edit().putString(KEY_SESSION + path, session.toString()).apply();
+            }
+        }).addOnSuccessListener(executor, snapshot -> {
+            discard(path);
+            Uri url = downloadUrl(snapshot);
+            if (url != null) {
+                result.setResult(url);
+                return;
+            }
+            snapshot.getStorage().getDownloadUrl().addOnCompleteListener(executor, task -> {
+                if (task.isSuccessful()) {
+                    result.setResult(task.getResult());
+                } else {
+                    result.setException(task.getException());
+                }
+            });
+        }).addOnFailureListener(executor, e -> {
+            // Session et fichier conservés : le prochain envoi de la même image reprendra
+            Log.e(TAG, "Error uploading " + path, e);
+            result.setException(e);
+        });
+    }
+
+    /**
+     * URL publique à jeton, équivalente à getDownloadUrl(), sur l'hôte qui a reçu l'envoi
+     * (émulateur compris) ; null si le jeton ou la session manquent
+     */
+    private static Uri downloadUrl(UploadTask.TaskSnapshot snapshot) {
+        StorageMetadata metadata = snapshot.getMetadata();
+        Uri session = snapshot.getUploadSessionUri();
+        String token = metadata != null ? metadata.getCustomMetadata(TOKEN_METADATA) : null;
+        if (token == null || session == null || metadata.getBucket() == null || metadata.getPath() == null) {
+            return null;
+        }
+        return new Uri.Builder()
+            .scheme(session.getScheme())
+            .encodedAuthority(session.getEncodedAuthority())
+            .appendPath("v0")
+            .appendPath("b")
+            .appendPath(metadata.getBucket())
+            .appendPath("o")
+            .appendPath(metadata.getPath())
+            .appendQueryParameter("alt", "media")
+            .appendQueryParameter("token", token)
+            .build();
+    }
+
+    private File encode(Uri source, int maxSize) throws IOException {
+        // Dimensions seules, puis décodage sous-échantillonné au plus près de la cible
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = open(source)) {
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw new IOException("Unreadable image " + source);
+        }
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize(bounds.outWidth, bounds.outHeight, maxSize);
+        Bitmap decoded;
+        try (InputStream in = open(source)) {
+            decoded = BitmapFactory.decodeStream(in, null, options);
+        }
+        if (decoded == null) {
+            throw new IOException("Cannot decode " + source);
+        }
+
+        Matrix matrix = new Matrix();
+        float scale = Math.min(1f, (float) maxSize / Math.max(decoded.getWidth(), decoded.getHeight()));
+        matrix.postScale(scale, scale);
+        matrix.postRotate(rotation(source));
+        Bitmap output = Bitmap.createBitmap(decoded, 0, 0, decoded.getWidth(), decoded.getHeight(), matrix, true);
+        if (output != decoded) {
+            decoded.recycle();
+        }
+
+        File directory = new File(context.getCacheDir(), "uploads");
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        File file = new File(directory, UUID.randomUUID() + ".webp");
+        try (OutputStream out = new FileOutputStream(file)) {
+            output.compress(webpFormat(), WEBP_QUALITY, out);
+        } finally {
+            output.recycle();
+        }
+        return file;
+    }
+
+    private InputStream open(Uri source) throws IOException {
+        InputStream in = context.getContentResolver().openInputStream(source);
+        if (in == null) {
+            throw new IOException("Cannot open " + source);
+        }
+        return in;
+    }
+
+    private int rotation(Uri source) {
+        try (InputStream in = open(source)) {
+            switch (new ExifInterface(in).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL)) {
+                case ExifInterface.ORIENTATION_ROTATE_90:
+                    return 90;
+                case ExifInterface.ORIENTATION_ROTATE_180:
+                    return 180;
+                case ExifInterface.ORIENTATION_ROTATE_270:
+                    return 270;
+                default:
+                    return 0;
+            }
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Plus grande puissance de 2 gardant le plus grand côté au-dessus de la cible
+     */
+    static int sampleSize(int width, int height, int maxSize) {
+        int sample = 1;
+        int largest = Math.max(width, height);
+        while (largest / (sample * 2) >= maxSize) {
+            sample *= 2;
+        }
+        return sample;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Bitmap.CompressFormat webpFormat() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+            ? Bitmap.CompressFormat.WEBP_LOSSY
+            : Bitmap.CompressFormat.WEBP;
+    }
+
+    private void discard(String path) {
+        String file = preferences.getString(KEY_FILE + path, null);
+        if (file != null && !new File(file).delete()) {
+            Log.d(TAG, "No pending file to delete for " + path);
+        }
+        preferences.edit()
+            .remove(KEY_SESSION + path)
+            .remove(KEY_SOURCE + path)
+            .remove(KEY_FILE + path)
+            .apply();
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.learnizone.managers;
+
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.core.app.NotificationCompat;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+
+import com.example.learnizone.MainActivity;
+import com.example.learnizone.R;
+import com.example.learnizone.models.UserNotification;
+import com.example.learnizone.workers.NotificationWorker;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regroupement et limitation des notifications locales.
+ * Chaque canal dispose d'un seau à jetons ; au-delà, pendant les heures calmes ou
+ * quand le seau est vide, les notifications sont mises en attente puis publiées
+ * en une seule notification résumé (InboxStyle). La priorité URGENT passe toujours.
+ * La première notification retenue d'un canal arme un travail WorkManager qui publie
+ * le résumé à la fin des heures calmes, ou dès que le seau a de nouveau un jeton.
+ */
+public class NotificationDigester {
+    private static final String TAG = "NotificationDigester";
+    private static final String PREFS_NAME = "notification_digest";
+    private static final String GROUP_PREFIX = "learnizone.";
+    private static final String FLUSH_WORK_PREFIX = "notification_digest_flush_";
+
+    public static final String ACTION_FLUSH_DIGESTS = "flush_digests";
+
+    private static final int QUIET_START_HOUR = 22;
+    private static final int QUIET_END_HOUR = 8;
+    private static final int MAX_INBOX_LINES = 5;
+    private static final int MAX_PENDING = 50;
+
+    private final Context context;
+    private final NotificationManager notificationManager;
+    private final SharedPreferences preferences;
+    private final Map<String, TokenBucket> buckets = new HashMap<>();
+    private final Map<String, List<String>> pending = new HashMap<>();
+
+    NotificationDigester(Context context, NotificationManager notificationManager) {
+        this.context = context.getApplicationContext();
+        this.notificationManager = notificationManager;
+        this.preferences = this.context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Déclare la limite d'un canal : capacity notifications, un jeton rendu toutes les refillMillis
+     */
+    synchronized void registerChannel(String channelId, int capacity, long refillMillis) {
+        TokenBucket bucket = new TokenBucket(capacity, refillMillis);
+        bucket.tokens = preferences.getFloat("tokens_" + channelId, capacity);
+        bucket.lastRefill = preferences.getLong("refill_" + channelId, System.currentTimeMillis());
+        buckets.put(channelId, bucket);
+        pending.put(channelId, readPending(channelId));
+    }
+
+    /**
+     * Publie la notification, ou la met en attente selon les heures calmes et le seau du canal.
+     * Retourne vrai si elle a été affichée individuellement.
+     */
+    public synchronized boolean post(UserNotification notification, String channelId,
+                                     NotificationCompat.Builder builder, long now) {
+        int notificationId = notification.getId().hashCode();
+        builder.setGroup(GROUP_PREFIX + channelId);
+
+        if (notification.getPriority() == UserNotification.Priority.URGENT) {
+            notificationManager.notify(notificationId, builder.build());
+            return true;
+        }
+
+        if (isQuietHours(now)) {
+            // Rien n'est affiché la nuit : le résumé sera publié au réveil
+            hold(channelId, notification, now);
+            return false;
+        }
+
+        flush(channelId, now);
+
+        TokenBucket bucket = buckets.get(channelId);
+        boolean posted = bucket == null || bucket.tryConsume(now);
+        if (posted) {
+            notificationManager.notify(notificationId, builder.build());
+        } else {
+            // Seau vide : le résumé du canal est mis à jour sans son ni vibration
+            hold(channelId, notification, now);
+            postSummary(channelId, true);
+        }
+        saveBucket(channelId);
+        return posted;
+    }
+
+    /**
+     * Publie les résumés en attente de tous les canaux (hors heures calmes)
+     */
+    public synchronized void flushAll(long now) {
+        if (isQuietHours(now)) return;
+        for (String channelId : buckets.keySet()) {
+            flush(channelId, now);
+            saveBucket(channelId);
+        }
+    }
+
+    private void flush(String channelId, long now) {
+        List<String> lines = pending.get(channelId);
+        if (lines == null || lines.isEmpty()) return;
+
+        TokenBucket bucket = buckets.get(channelId);
+        if (bucket != null && !bucket.tryConsume(now)) {
+            // Toujours limité : nouvel essai au prochain jeton
+            scheduleFlush(channelId, now);
+            return;
+        }
+
+        postSummary(channelId, false);
+        lines.clear();
+        writePending(channelId, lines);
+    }
+
+    private void hold(String channelId, UserNotification notification, long now) {
+        List<String> lines = pending.get(channelId);
+        if (lines == null) {
+            lines = new ArrayList<>();
+            pending.put(channelId, lines);
+        }
+        boolean first = lines.isEmpty();
+        if (lines.size() >= MAX_PENDING) {
+            lines.remove(0);
+        }
+        lines.add(notification.getTitle());
+        writePending(channelId, lines);
+
+        if (first) {
+            scheduleFlush(channelId, now);
+        }
+    }
+
+    /**
+     * Arme la publication du résumé du canal : fin des heures calmes ou prochain jeton
+     */
+    private void scheduleFlush(String channelId, long now) {
+        long flushAt;
+        if (isQuietHours(now)) {
+            flushAt = quietHoursEnd(now);
+        } else {
+            TokenBucket bucket = buckets.get(channelId);
+            flushAt = bucket != null ? bucket.nextTokenAt(now) : now;
+        }
+
+        Data inputData = new Data.Builder()
+            .putString("action", ACTION_FLUSH_DIGESTS)
+            .build();
+        OneTimeWorkRequest work = new OneTimeWorkRequest.Builder(NotificationWorker.class)
+            .setInputData(inputData)
+            .setInitialDelay(Math.max(0, flushAt - now), TimeUnit.MILLISECONDS)
+            .build();
+        WorkManager.getInstance(context)
+            .enqueueUniqueWork(FLUSH_WORK_PREFIX + channelId, ExistingWorkPolicy.REPLACE, work);
+    }
+
+    private void postSummary(String channelId, boolean silent) {
+        List<String> lines = pending.get(channelId);
+        if (lines == null || lines.isEmpty()) return;
+
+        int count = lines.size();
+        NotificationCompat.InboxStyle style = new NotificationCompat.InboxStyle();
+        // Les plus récentes en premier
+        for (int i = count - 1; i >= Math.max(0, count - MAX_INBOX_LINES); i--) {
+            style.addLine(lines.get(i));
+        }
+        if (count > MAX_INBOX_LINES) {
+            style.setSummaryText("+" + (count - MAX_INBOX_LINES) + " autres");
+        }
+
+        Intent intent = new Intent(context, MainActivity.class);
+        intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+        PendingIntent pendingIntent = PendingIntent.getActivity(
+            context, channelId.hashCode(), intent, PendingIntent.FLAG_IMMUTABLE);
+
+        String title = count == 1 ? "1 nouvelle notification" : count + " nouvelles notifications";
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, channelId)
+            .setSmallIcon(R.drawable.ic_notification)
+            .setContentTitle(title)
+            .setContentText(lines.get(count - 1))
+            .setStyle(style)
+            .setGroup(GROUP_PREFIX + channelId)
+            .setGroupSummary(true)
+            .setOnlyAlertOnce(true)
+            .setSilent(silent)
+            .setContentIntent(pendingIntent)
+            .setAutoCancel(true);
+
+        notificationManager.notify((GROUP_PREFIX + channelId).hashCode(), builder.build());
+    }
+
+    static boolean isQuietHours(long now) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(now);
+        int hour = calendar.get(Calendar.HOUR_OF_DAY);
+        return hour >= QUIET_START_HOUR || hour < QUIET_END_HOUR;
+    }
+
+    /**
+     * Prochain passage à QUIET_END_HOUR après now
+     */
+    static long quietHoursEnd(long now) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(now);
+        calendar.set(Calendar.HOUR_OF_DAY, QUIET_END_HOUR);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        if (calendar.getTimeInMillis() <= now) {
+            calendar.add(Calendar.DAY_OF_YEAR, 1);
+        }
+        return calendar.getTimeInMillis();
+    }
+
+    private List<String> readPending(String channelId) {
+        List<String> lines = new ArrayList<>();
+        String json = preferences.getString("pending_" + channelId, null);
+        if (json == null) return lines;
+        try {
+            JSONArray array = new JSONArray(json);
+            for (int i = 0; i < array.length(); i++) {
+                lines.add(array.getString(i));
+            }
+        } catch (JSONException e) {
+            Log.e(TAG, "Error reading pending notifications for " + channelId, e);
+        }
+        return lines;
+    }
+
+    private void writePending(String channelId, List<String> lines) {
+        preferences.edit()
+            .putString("pending_" + channelId, new JSONArray(lines).toString())
+            .apply();
+    }
+
+    private void saveBucket(String channelId) {
+        TokenBucket bucket = buckets.get(channelId);
+        if (bucket == null) return;
+        preferences.edit()
+            .putFloat("tokens_" + channelId, (float) bucket.tokens)
+            .putLong("refill_" + channelId, bucket.lastRefill)
+            .apply();
+    }
+}
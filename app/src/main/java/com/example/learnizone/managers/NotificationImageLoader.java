@@ -0,0 +1,150 @@
+package com.example.learnizone.managers;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.request.target.CustomTarget;
+import com.bumptech.glide.request.transition.Transition;
+import com.bumptech.glide.signature.ObjectKey;
+
+/**
+ * Chargement des images de notification via Glide, sans bloquer de thread.
+ * Chaque notification lance deux requêtes asynchrones (icône et grande image), décodées
+ * directement à leur taille et mises en cache disque déjà redimensionnées ; l'échéance
+ * de publication court depuis l'appel à load, quel que soit le nombre de chargements en cours.
+ */
+class NotificationImageLoader {
+
+    /** Attente maximale avant de publier la notification sans image */
+    private static final long POST_DEADLINE_MS = 1500;
+    /** Délai total accordé au téléchargement avant abandon */
+    private static final int LOAD_TIMEOUT_MS = 10000;
+    private static final ObjectKey CACHE_SIGNATURE = new ObjectKey("notification");
+
+    interface Listener {
+        /**
+         * Appelé une première fois à l'échéance (late = false, images éventuellement nulles),
+         * puis une seconde fois si les images arrivent plus tard (late = true).
+         * Appelé sur le thread principal.
+         */
+        void onImages(@Nullable Bitmap largeIcon, @Nullable Bitmap picture, boolean late);
+    }
+
+    private final RequestManager glide;
+    // Glide démarre et annule ses requêtes sur le thread principal
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final int iconWidth;
+    private final int iconHeight;
+    private final int pictureWidth;
+    private final int pictureHeight;
+
+    NotificationImageLoader(Context context) {
+        this.glide = Glide.with(context.getApplicationContext());
+        Resources resources = context.getResources();
+        this.iconWidth = resources.getDimensionPixelSize(android.R.dimen.notification_large_icon_width);
+        this.iconHeight = resources.getDimensionPixelSize(android.R.dimen.notification_large_icon_height);
+        // Grande image au format 2:1, à la largeur de l'écran
+        this.pictureWidth = Math.min(resources.getDisplayMetrics().widthPixels, 1440);
+        this.pictureHeight = pictureWidth / 2;
+    }
+
+    void load(String imageUrl, Listener listener) {
+        long deadline = SystemClock.uptimeMillis() + POST_DEADLINE_MS;
+        ImageRequest request = new ImageRequest(listener);
+        mainHandler.postAtTime(request::onDeadline, request, deadline);
+        mainHandler.post(() -> {
+            request(imageUrl).into(request.icon);
+            request(imageUrl).into(request.picture);
+        });
+    }
+
+    private RequestBuilder<Bitmap> request(String imageUrl) {
+        return glide.asBitmap()
+            .load(imageUrl)
+            .centerCrop()
+            .signature(CACHE_SIGNATURE)
+            .diskCacheStrategy(DiskCacheStrategy.RESOURCE)
+            .timeout(LOAD_TIMEOUT_MS);
+    }
+
+    /**
+     * État des deux chargements d'une notification ; n'est manipulé que sur le thread principal
+     */
+    private final class ImageRequest {
+        final Listener listener;
+        final BitmapTarget icon = new BitmapTarget(this, iconWidth, iconHeight);
+        final BitmapTarget picture = new BitmapTarget(this, pictureWidth, pictureHeight);
+        boolean posted;
+
+        ImageRequest(Listener listener) {
+            this.listener = listener;
+        }
+
+        void onDeadline() {
+            if (posted) return;
+            // Trop tard : on publie le texte seul puis on complète sur place
+            posted = true;
+            listener.onImages(null, null, false);
+        }
+
+        void onTargetDone() {
+            if (!icon.done || !picture.done) return;
+
+            if (!posted) {
+                posted = true;
+                mainHandler.removeCallbacksAndMessages(this);
+                listener.onImages(icon.bitmap, picture.bitmap, false);
+            } else if (icon.bitmap != null || picture.bitmap != null) {
+                listener.onImages(icon.bitmap, picture.bitmap, true);
+            }
+
+            // La notification a copié les bitmaps : ils peuvent retourner au pool.
+            // Glide interdit d'annuler une requête depuis son propre rappel.
+            mainHandler.post(() -> {
+                glide.clear(icon);
+                glide.clear(picture);
+            });
+        }
+    }
+
+    private static final class BitmapTarget extends CustomTarget<Bitmap> {
+        private final ImageRequest request;
+        Bitmap bitmap;
+        boolean done;
+
+        BitmapTarget(ImageRequest request, int width, int height) {
+            super(width, height);
+            this.request = request;
+        }
+
+        @Override
+        public void onResourceReady(@NonNull Bitmap resource, @Nullable Transition<? super Bitmap> transition) {
+            bitmap = resource;
+            done = true;
+            request.onTargetDone();
+        }
+
+        @Override
+        public void onLoadFailed(@Nullable Drawable errorDrawable) {
+            done = true;
+            request.onTargetDone();
+        }
+
+        @Override
+        public void onLoadCleared(@Nullable Drawable placeholder) {
+            bitmap = null;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.learnizone.managers;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.WorkerThread;
+import androidx.lifecycle.LiveData;
+
+import com.example.learnizone.database.LearnIzoneDatabase;
+import com.example.learnizone.database.NotificationDao;
+import com.example.learnizone.database.NotificationEntity;
+import com.example.learnizone.models.UserNotification;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boîte de réception des notifications, stockée dans Room.
+ * Synchronisation incrémentale depuis la notification la plus récente (createdAt),
+ * puis des modifications faites ailleurs (updatedAt) : lectures et suppressions logiques
+ * (isDeleted) d'un autre appareil sont reportées en base et dans le compteur de non lues.
+ * Lectures et suppressions locales sont appliquées en base puis envoyées par lot.
+ */
+public class NotificationInbox {
+    private static final String TAG = "NotificationInbox";
+    private static NotificationInbox instance;
+
+    private static final String NOTIFICATIONS_COLLECTION = "notifications";
+    private static final int SYNC_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final long FLUSH_DELAY_MS = 2000;
+    private static final long TIMEOUT_SECONDS = 30;
+    private static final String PREFS_NAME = "notification_inbox";
+    private static final String PREF_CURSOR_PREFIX = "cursor_";
+    private static final String PREF_CHANGES_PREFIX = "changes_";
+    /** Marge relue à chaque passage : updatedAt peut venir de l'horloge d'un autre appareil */
+    private static final long CHANGES_OVERLAP_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private final NotificationDao dao;
+    private final FirebaseFirestore db;
+    private final SharedPreferences preferences;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private ScheduledFuture<?> pendingFlush;
+
+    private NotificationInbox(Context context) {
+        this.dao = LearnIzoneDatabase.getInstance(context).notificationDao();
+        this.preferences = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.db = FirebaseFirestore.getInstance();
+    }
+
+    public static synchronized NotificationInbox getInstance(Context context) {
+        if (instance == null) {
+            instance = new NotificationInbox(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Récupère uniquement les notifications plus récentes que le curseur de synchronisation.
+     * Le curseur est distinct des notifications reçues par FCM, qui peuvent arriver dans le désordre.
+     */
+    public Task<Integer> sync(String userId) {
+        return Tasks.call(executor, () -> {
+            scheduleFlush(); // Relance les modifications restées en attente
+            String changesKey = PREF_CHANGES_PREFIX + userId;
+            if (!preferences.contains(changesKey)) {
+                // Première synchronisation : l'état courant arrive avec les nouvelles notifications
+                preferences.edit().putLong(changesKey, System.currentTimeMillis()).apply();
+            }
+            int inserted = syncNew(userId);
+            syncChanges(userId);
+            return inserted;
+        });
+    }
+
+    @WorkerThread
+    private int syncNew(String userId) throws Exception {
+        Date cursor = new Date(preferences.getLong(PREF_CURSOR_PREFIX + userId, 0));
+        int inserted = 0;
+
+        while (true) {
+            // >= : les notifications créées à la même milliseconde que le curseur sont ignorées à l'insertion
+            QuerySnapshot page = Tasks.await(db.collection(NOTIFICATIONS_COLLECTION)
+                .whereEqualTo("userId", userId)
+                .whereGreaterThanOrEqualTo("createdAt", cursor)
+                .orderBy("createdAt", Query.Direction.ASCENDING)
+                .limit(SYNC_PAGE_SIZE)
+                .get(), TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            List<NotificationEntity> entities = new ArrayList<>(page.size());
+            Date last = cursor;
+            for (DocumentSnapshot doc : page.getDocuments()) {
+                UserNotification notification = UserNotification.fromDocument(doc);
+                if (notification.getCreatedAt() == null) continue;
+                last = notification.getCreatedAt();
+                if (notification.isDeleted()) continue;
+                entities.add(NotificationEntity.fromNotification(notification));
+            }
+            inserted += dao.insertNew(userId, entities);
+            preferences.edit().putLong(PREF_CURSOR_PREFIX + userId, last.getTime()).apply();
+
+            if (page.size() < SYNC_PAGE_SIZE || !last.after(cursor)) break;
+            cursor = last;
+        }
+        return inserted;
+    }
+
+    /**
+     * Reporte les lectures et suppressions faites depuis le dernier passage, sur cet
+     * appareil ou un autre ; les opérations sont idempotentes, la marge relue est sans effet
+     */
+    @WorkerThread
+    private void syncChanges(String userId) throws Exception {
+        String changesKey = PREF_CHANGES_PREFIX + userId;
+        Date cursor = new Date(Math.max(0, preferences.getLong(changesKey, 0) - CHANGES_OVERLAP_MS));
+
+        while (true) {
+            QuerySnapshot page = Tasks.await(db.collection(NOTIFICATIONS_COLLECTION)
+                .whereEqualTo("userId", userId)
+                .whereGreaterThanOrEqualTo("updatedAt", cursor)
+                .orderBy("updatedAt", Query.Direction.ASCENDING)
+                .limit(SYNC_PAGE_SIZE)
+                .get(), TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            List<NotificationEntity> unknown = new ArrayList<>();
+            List<UserNotification> read = new ArrayList<>();
+            Date last = cursor;
+            for (DocumentSnapshot doc : page.getDocuments()) {
+                UserNotification notification = UserNotification.fromDocument(doc);
+                if (notification.getUpdatedAt() == null) continue;
+                last = notification.getUpdatedAt();
+
+                if (notification.isDeleted()) {
+                    dao.applyRemoteDelete(userId, notification.getId());
+                } else {
+                    if (notification.getCreatedAt() != null) {
+                        unknown.add(NotificationEntity.fromNotification(notification));
+                    }
+                    if (notification.isRead()) read.add(notification);
+                }
+            }
+            dao.insertNew(userId, unknown);
+            for (UserNotification notification : read) {
+                long readAt = notification.getReadAt() != null ? notification.getReadAt().getTime() : last.getTime();
+                dao.applyRemoteRead(userId, notification.getId(), readAt);
+            }
+            preferences.edit().putLong(changesKey, Math.max(last.getTime(), preferences.getLong(changesKey, 0))).apply();
+
+            if (page.size() < SYNC_PAGE_SIZE || !last.after(cursor)) break;
+            cursor = last;
+        }
+    }
+
+    /**
+     * Enregistre une notification reçue par message FCM ; retourne faux si elle était déjà connue
+     */
+    @WorkerThread
+    public boolean ingest(NotificationEntity entity) {
+        return dao.insertNew(entity.userId, Collections.singletonList(entity)) > 0;
+    }
+
+    /**
+     * Page de notifications plus anciennes que before (0 pour la première page)
+     */
+    public Task<List<UserNotification>> getPage(String userId, long before, int limit) {
+        return Tasks.call(executor, () -> {
+            List<NotificationEntity> entities = dao.getPage(userId, before > 0 ? before : Long.MAX_VALUE, limit);
+            List<UserNotification> notifications = new ArrayList<>(entities.size());
+            for (NotificationEntity entity : entities) {
+                notifications.add(entity.toNotification());
+            }
+            return notifications;
+        });
+    }
+
+    /**
+     * Nombre de notifications non lues (lecture d'une seule ligne)
+     */
+    public LiveData<Integer> getUnreadCount(String userId) {
+        return dao.observeUnreadCount(userId);
+    }
+
+    /**
+     * Marque comme lue localement, l'écriture Firestore part avec le prochain lot.
+     * Une notification pas encore synchronisée est marquée directement dans Firestore.
+     */
+    public Task<Void> markRead(String userId, String notificationId) {
+        long readAt = System.currentTimeMillis();
+        return Tasks.call(executor, () -> {
+            if (dao.markRead(userId, notificationId, readAt)) {
+                scheduleFlush();
+                return true;
+            }
+            return dao.get(notificationId) != null;
+        }).onSuccessTask(known -> known
+            ? Tasks.<Void>forResult(null)
+            : notificationRef(notificationId).set(readChanges(readAt), SetOptions.merge()));
+    }
+
+    /**
+     * Supprime localement, la suppression Firestore part avec le prochain lot.
+     * Une notification pas encore synchronisée est supprimée directement dans Firestore.
+     */
+    public Task<Void> delete(String userId, String notificationId) {
+        return Tasks.call(executor, () -> {
+            if (dao.markDeleted(userId, notificationId)) {
+                scheduleFlush();
+                return true;
+            }
+            return dao.get(notificationId) != null;
+        }).onSuccessTask(known -> known
+            ? Tasks.<Void>forResult(null)
+            : notificationRef(notificationId).set(deleteChanges(), SetOptions.merge()));
+    }
+
+    private void scheduleFlush() {
+        // Appelé depuis l'exécuteur : regroupe les actions rapprochées en un seul lot
+        if (pendingFlush != null && !pendingFlush.isDone()) return;
+        pendingFlush = executor.schedule(this::flush, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        List<NotificationEntity> pending = dao.getPendingOps();
+        for (int start = 0; start < pending.size(); start += MAX_BATCH_SIZE) {
+            List<NotificationEntity> chunk = pending.subList(start, Math.min(pending.size(), start + MAX_BATCH_SIZE));
+            WriteBatch batch = db.batch();
+            List<String> readIds = new ArrayList<>();
+            List<String> deletedIds = new ArrayList<>();
+
+            for (NotificationEntity entity : chunk) {
+                // Fusion plutôt que update : un document absent ne fait pas échouer tout le lot
+                if (entity.pendingOp == NotificationEntity.OP_DELETE) {
+                    batch.set(notificationRef(entity.id), deleteChanges(), SetOptions.merge());
+                    deletedIds.add(entity.id);
+                } else {
+                    batch.set(notificationRef(entity.id), readChanges(entity.readAt), SetOptions.merge());
+                    readIds.add(entity.id);
+                }
+            }
+
+            try {
+                Tasks.await(batch.commit(), TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                if (!readIds.isEmpty()) dao.clearReadOps(readIds);
+                if (!deletedIds.isEmpty()) dao.purgeDeleted(deletedIds);
+            } catch (Exception e) {
+                // Les opérations restent en attente et repartiront au prochain lot
+                Log.e(TAG, "Error flushing notification changes", e);
+                return;
+            }
+        }
+    }
+
+    private DocumentReference notificationRef(String notificationId) {
+        return db.collection(NOTIFICATIONS_COLLECTION).document(notificationId);
+    }
+
+    private static Map<String, Object> readChanges(long readAt) {
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("isRead", true);
+        changes.put("readAt", new Date(readAt));
+        changes.put("updatedAt", FieldValue.serverTimestamp());
+        return changes;
+    }
+
+    /**
+     * Suppression logique : le document reste pour que les autres appareils la synchronisent
+     */
+    private static Map<String, Object> deleteChanges() {
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("isDeleted", true);
+        changes.put("updatedAt", FieldValue.serverTimestamp());
+        return changes;
+    }
+}
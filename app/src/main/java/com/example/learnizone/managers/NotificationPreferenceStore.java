@@ -0,0 +1,184 @@
+package com.example.learnizone.managers;
+
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.SetOptions;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Préférences de notification versionnées, synchronisées entre appareils.
+ * Chaque clé porte une version (horodatage) : la dernière écriture gagne, clé par clé.
+ * Seule la clé modifiée est envoyée (fusion), et les lectures se font sur un instantané
+ * en mémoire, sans accès disque. Les valeurs locales sont rangées par utilisateur
+ * ({uid}:{clé}) : celles d'un compte ne sont jamais fusionnées dans celui d'un autre.
+ */
+class NotificationPreferenceStore {
+    private static final String TAG = "NotificationPrefStore";
+    private static final String USER_SETTINGS_COLLECTION = "userSettings";
+    private static final String FIELD_PREFERENCES = "notificationPreferences";
+    private static final String VERSION_SUFFIX = "_version";
+
+    private final SharedPreferences preferences;
+    private final FirebaseFirestore db;
+    /** Clé locale (SharedPreferences) -> champ Firestore */
+    private final Map<String, String> remoteFields;
+
+    private volatile Map<String, Entry> snapshot;
+    private ListenerRegistration registration;
+    private String userId;
+
+    private static final class Entry {
+        final boolean value;
+        final long version;
+
+        Entry(boolean value, long version) {
+            this.value = value;
+            this.version = version;
+        }
+    }
+
+    NotificationPreferenceStore(SharedPreferences preferences, FirebaseFirestore db, Map<String, String> remoteFields) {
+        this.preferences = preferences;
+        this.db = db;
+        this.remoteFields = remoteFields;
+        this.snapshot = load(null);
+    }
+
+    /**
+     * Lecture sans verrou ni disque ; activé par défaut
+     */
+    boolean isEnabled(String key) {
+        Entry entry = snapshot.get(key);
+        return entry == null || entry.value;
+    }
+
+    synchronized void setEnabled(String key, boolean enabled) {
+        Entry current = snapshot.get(key);
+        long version = Math.max(System.currentTimeMillis(), current != null ? current.version + 1 : 0);
+        Entry entry = new Entry(enabled, version);
+        apply(key, entry);
+        push(key, entry);
+    }
+
+    /**
+     * Écoute le document de l'utilisateur ; null pour arrêter (déconnexion).
+     * Sans effet si l'utilisateur n'a pas changé.
+     */
+    synchronized void attach(String newUserId) {
+        if (Objects.equals(newUserId, userId)) return;
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+        userId = newUserId;
+        // Instantané du nouveau compte chargé avant toute fusion avec son document
+        snapshot = load(userId);
+        if (userId == null) return;
+
+        String attachedUserId = userId;
+        registration = db.collection(USER_SETTINGS_COLLECTION)
+            .document(attachedUserId)
+            .addSnapshotListener((document, e) -> {
+                if (e != null) {
+                    Log.e(TAG, "Error listening to notification settings", e);
+                    return;
+                }
+                if (document != null) {
+                    merge(attachedUserId, document);
+                }
+            });
+    }
+
+    /**
+     * Valeurs locales d'un utilisateur (null : hors connexion) ; activé, version 0 par défaut
+     */
+    private Map<String, Entry> load(String forUserId) {
+        Map<String, Entry> entries = new HashMap<>();
+        for (String key : remoteFields.keySet()) {
+            String localKey = localKey(forUserId, key);
+            entries.put(key, new Entry(
+                preferences.getBoolean(localKey, true),
+                preferences.getLong(localKey + VERSION_SUFFIX, 0)));
+        }
+        return Collections.unmodifiableMap(entries);
+    }
+
+    private static String localKey(String forUserId, String key) {
+        return forUserId != null ? forUserId + ":" + key : key;
+    }
+
+    private synchronized void merge(String documentUserId, DocumentSnapshot document) {
+        // Rappel tardif d'un compte précédent
+        if (!documentUserId.equals(userId)) return;
+
+        Object nested = document.get(FIELD_PREFERENCES);
+        Map<?, ?> remote = nested instanceof Map ? (Map<?, ?>) nested : Collections.emptyMap();
+
+        for (Map.Entry<String, String> field : remoteFields.entrySet()) {
+            String key = field.getKey();
+            Entry local = snapshot.get(key);
+            Entry server = parse(remote.get(field.getValue()), document.get(field.getValue()));
+
+            if (server != null && (local == null || server.version > local.version)) {
+                apply(key, server);
+            } else if (local != null && local.version > 0 && (server == null || local.version > server.version)) {
+                // Valeur locale plus récente (écrite hors ligne ou écrasée par un autre appareil)
+                push(key, local);
+            }
+        }
+    }
+
+    private static Entry parse(Object value, Object legacyValue) {
+        if (value instanceof Map) {
+            Object enabled = ((Map<?, ?>) value).get("value");
+            Object version = ((Map<?, ?>) value).get("version");
+            if (enabled instanceof Boolean && version instanceof Number) {
+                return new Entry((Boolean) enabled, ((Number) version).longValue());
+            }
+        }
+        // Ancien format : booléen à la racine du document, sans version
+        if (legacyValue instanceof Boolean) {
+            return new Entry((Boolean) legacyValue, 0);
+        }
+        return null;
+    }
+
+    private void apply(String key, Entry entry) {
+        Map<String, Entry> next = new HashMap<>(snapshot);
+        next.put(key, entry);
+        snapshot = Collections.unmodifiableMap(next);
+
+        String localKey = localKey(userId, key);
+        preferences.edit()
+            .putBoolean(localKey, entry.value)
+            .putLong(localKey + VERSION_SUFFIX, entry.version)
+            .apply();
+    }
+
+    private void push(String key, Entry entry) {
+        if (userId == null) return;
+
+        Map<String, Object> value = new HashMap<>();
+        value.put("value", entry.value);
+        value.put("version", entry.version);
+        Map<String, Object> delta = new HashMap<>();
+        delta.put(remoteFields.get(key), value);
+        Map<String, Object> update = new HashMap<>();
+        update.put(FIELD_PREFERENCES, delta);
+        update.put("updatedAt", FieldValue.serverTimestamp());
+
+        db.collection(USER_SETTINGS_COLLECTION)
+            .document(userId)
+            .set(update, SetOptions.merge())
+            .addOnFailureListener(e -> Log.e(TAG, "Error saving notification setting " + key, e));
+    }
+}
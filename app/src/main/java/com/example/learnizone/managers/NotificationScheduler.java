@@ -0,0 +1,183 @@
+package com.example.learnizone.managers;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.WorkerThread;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+
+import com.example.learnizone.database.LearnIzoneDatabase;
+import com.example.learnizone.database.ScheduledNotification;
+import com.example.learnizone.database.ScheduledNotificationDao;
+import com.example.learnizone.models.UserNotification;
+import com.example.learnizone.workers.NotificationWorker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Programmation groupée des notifications.
+ * Les notifications en attente sont conservées dans Room et dans une file de priorité
+ * triée par échéance ; les échéances sont arrondies à des tranches de 15 minutes et
+ * un seul travail WorkManager est armé pour la prochaine tranche, qui livre tout ce
+ * qui est dû en même temps. Une notification affichée reste en base jusqu'à ce que
+ * son envoi soit confirmé dans Firestore.
+ */
+public class NotificationScheduler {
+    private static final String TAG = "NotificationScheduler";
+    private static NotificationScheduler instance;
+
+    public static final String ACTION_DELIVER_BUCKET = "deliver_bucket";
+    private static final String WORK_NAME = "scheduled_notifications";
+    private static final long BUCKET_MS = TimeUnit.MINUTES.toMillis(15);
+    private static final String PREFS_NAME = "notification_scheduler";
+    private static final String PREF_ARMED_BUCKET = "armed_bucket";
+    /** Taille maximale d'un lot Firestore */
+    public static final int MAX_CONFIRM_BATCH = 500;
+
+    private final Context context;
+    private final ScheduledNotificationDao dao;
+    private final SharedPreferences preferences;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final PriorityQueue<ScheduledNotification> queue =
+        new PriorityQueue<>(16, (a, b) -> Long.compare(a.dueAt, b.dueAt));
+    private boolean loaded;
+
+    private NotificationScheduler(Context context) {
+        this.context = context.getApplicationContext();
+        this.dao = LearnIzoneDatabase.getInstance(context).scheduledNotificationDao();
+        this.preferences = this.context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    public static synchronized NotificationScheduler getInstance(Context context) {
+        if (instance == null) {
+            instance = new NotificationScheduler(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Ajoute la notification à la file ; le travail n'est réarmé que si la prochaine tranche change
+     */
+    public void schedule(UserNotification notification, long delayMillis) {
+        ScheduledNotification scheduled = ScheduledNotification.fromNotification(
+            notification, System.currentTimeMillis() + Math.max(0, delayMillis));
+
+        executor.execute(() -> {
+            try {
+                synchronized (queue) {
+                    ensureLoaded();
+                    dao.upsert(scheduled);
+                    queue.removeIf(item -> item.id.equals(scheduled.id));
+                    queue.add(scheduled);
+                }
+                rearm(false);
+            } catch (Exception e) {
+                Log.e(TAG, "Error scheduling notification", e);
+            }
+        });
+    }
+
+    /**
+     * Retire de la file et retourne toutes les notifications dont la tranche est échue.
+     * Les lignes restent en base : un arrêt avant l'affichage les relivrera.
+     */
+    @WorkerThread
+    public List<UserNotification> drainDue(long now) {
+        synchronized (queue) {
+            ensureLoaded();
+            List<UserNotification> due = new ArrayList<>();
+            while (queue.peek() != null && bucketOf(queue.peek().dueAt) <= now) {
+                due.add(queue.poll().toNotification());
+            }
+            return due;
+        }
+    }
+
+    /**
+     * Note l'affichage : les notifications ne seront plus relivrées, seul leur envoi reste à confirmer
+     */
+    @WorkerThread
+    public void markDisplayed(List<UserNotification> notifications, long now) {
+        List<String> ids = new ArrayList<>(notifications.size());
+        for (UserNotification notification : notifications) {
+            ids.add(notification.getId());
+        }
+        dao.markDisplayed(ids, now);
+    }
+
+    /**
+     * Notifications affichées dont l'envoi n'est pas encore confirmé dans Firestore
+     */
+    @WorkerThread
+    public List<String> getUnconfirmedIds() {
+        return dao.getUnconfirmedIds(MAX_CONFIRM_BATCH);
+    }
+
+    /**
+     * Envoi confirmé dans Firestore : les lignes peuvent être supprimées
+     */
+    @WorkerThread
+    public void confirmDelivered(List<String> ids) {
+        dao.delete(ids);
+    }
+
+    /**
+     * Arme le travail unique pour la prochaine tranche (ou l'annule si la file est vide).
+     * Depuis le worker, le nouveau travail est chaîné pour ne pas annuler celui en cours.
+     */
+    @WorkerThread
+    public void rearm(boolean fromWorker) {
+        long nextBucket;
+        synchronized (queue) {
+            ensureLoaded();
+            ScheduledNotification next = queue.peek();
+            nextBucket = next != null ? bucketOf(next.dueAt) : -1;
+        }
+
+        long armedBucket = preferences.getLong(PREF_ARMED_BUCKET, -1);
+        if (!fromWorker && nextBucket == armedBucket) return;
+
+        WorkManager workManager = WorkManager.getInstance(context);
+        if (nextBucket < 0) {
+            if (!fromWorker) {
+                workManager.cancelUniqueWork(WORK_NAME);
+            }
+        } else {
+            Data inputData = new Data.Builder()
+                .putString("action", ACTION_DELIVER_BUCKET)
+                .build();
+            OneTimeWorkRequest work = new OneTimeWorkRequest.Builder(NotificationWorker.class)
+                .setInputData(inputData)
+                .setInitialDelay(Math.max(0, nextBucket - System.currentTimeMillis()), TimeUnit.MILLISECONDS)
+                .build();
+            workManager.enqueueUniqueWork(
+                WORK_NAME,
+                fromWorker ? ExistingWorkPolicy.APPEND_OR_REPLACE : ExistingWorkPolicy.REPLACE,
+                work
+            );
+        }
+        preferences.edit().putLong(PREF_ARMED_BUCKET, nextBucket).apply();
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        queue.addAll(dao.getPending());
+        loaded = true;
+    }
+
+    /**
+     * Fin de la tranche de 15 minutes contenant l'échéance : jamais de livraison anticipée
+     */
+    static long bucketOf(long dueAt) {
+        return ((dueAt + BUCKET_MS - 1) / BUCKET_MS) * BUCKET_MS;
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.learnizone.managers;
+
+import android.util.Log;
+
+import com.example.learnizone.firebase.FirebaseManager;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Popularité des cours avec oubli exponentiel, tenue à jour à chaque inscription ou avis.
+ * Un événement à l'instant t pèse exp((t - EPOCH) / TAU) : les poids ne sont jamais
+ * réécrits, les événements anciens deviennent simplement négligeables face aux récents.
+ * Les sommes sont conservées en logarithme (coursePopularity/{courseId}) pour éviter
+ * le dépassement, avec le score qui en découle. Un événement n'écrit que le document
+ * de son cours : les meilleurs cours sont résumés dans rankings/popular, reconstruit
+ * depuis coursePopularity au plus une fois par REBUILD_INTERVAL_MS, à la lecture.
+ */
+public class PopularityManager {
+    private static final String TAG = "PopularityManager";
+    private static PopularityManager instance;
+
+    // Collections
+    private static final String POPULARITY_COLLECTION = "coursePopularity";
+    private static final String RANKINGS_COLLECTION = "rankings";
+    private static final String POPULAR_DOCUMENT = "popular";
+
+    /** Origine des poids (01/01/2024) */
+    private static final long EPOCH_MS = 1704067200000L;
+    private static final long HALF_LIFE_MS = 14L * 24 * 60 * 60 * 1000;
+    private static final double TAU_MS = HALF_LIFE_MS / Math.log(2);
+
+    private static final int RANKING_SIZE = 20;
+    private static final long REBUILD_INTERVAL_MS = 60L * 60 * 1000;
+    /** A priori de la moyenne des notes : PRIOR_COUNT avis à PRIOR_RATING */
+    private static final double PRIOR_RATING = 3.5;
+    private static final double PRIOR_COUNT = 5;
+    /** Influence de la note face au volume d'inscriptions */
+    private static final double RATING_EXPONENT = 2;
+
+    private final FirebaseFirestore db;
+
+    private PopularityManager() {
+        db = FirebaseManager.getInstance().getFirestore();
+    }
+
+    public static synchronized PopularityManager getInstance() {
+        if (instance == null) {
+            instance = new PopularityManager();
+        }
+        return instance;
+    }
+
+    /**
+     * Identifiants des cours populaires, du plus populaire au moins populaire.
+     * Un classement périmé est renvoyé tel quel et reconstruit en arrière-plan.
+     */
+    public Task<List<String>> getPopularCourseIds() {
+        return rankingRef().get().continueWith(task -> {
+            if (!task.isSuccessful()) {
+                Log.e(TAG, "Error loading popular ranking", task.getException());
+                return Collections.<String>emptyList();
+            }
+            DocumentSnapshot ranking = task.getResult();
+            if (ranking.exists() && isStale(ranking, System.currentTimeMillis())) {
+                rebuildRanking();
+            }
+            List<String> ids = new ArrayList<>();
+            for (Map<String, Object> entry : entries(ranking)) {
+                ids.add((String) entry.get("courseId"));
+            }
+            return ids;
+        });
+    }
+
+    /**
+     * Classement relu depuis les scores de coursePopularity (une requête indexée) ;
+     * la transaction ne réécrit rankings/popular que si aucun autre client ne l'a fait entre-temps
+     */
+    private Task<Void> rebuildRanking() {
+        return db.collection(POPULARITY_COLLECTION)
+            .orderBy("score", Query.Direction.DESCENDING)
+            .limit(RANKING_SIZE)
+            .get()
+            .continueWithTask(top -> {
+                List<Map<String, Object>> entries = new ArrayList<>();
+                for (QueryDocumentSnapshot popularity : top.getResult()) {
+                    Double score = popularity.getDouble("score");
+                    if (score == null) continue;
+                    Map<String, Object> entry = new HashMap<>();
+                    entry.put("courseId", popularity.getId());
+                    entry.put("score", score);
+                    entries.add(entry);
+                }
+
+                DocumentReference rankingRef = rankingRef();
+                return db.runTransaction(transaction -> {
+                    long now = System.currentTimeMillis();
+                    DocumentSnapshot ranking = transaction.get(rankingRef);
+                    if (!ranking.exists() || isStale(ranking, now)) {
+                        transaction.set(rankingRef, rankingDocument(entries, now));
+                    }
+                    return (Void) null;
+                });
+            })
+            .addOnFailureListener(e -> Log.e(TAG, "Error rebuilding popular ranking", e));
+    }
+
+    private static boolean isStale(DocumentSnapshot ranking, long now) {
+        Long updatedAt = ranking.getLong("updatedAt");
+        return updatedAt == null || now - updatedAt >= REBUILD_INTERVAL_MS;
+    }
+
+    public Task<Void> recordEnrollment(String courseId) {
+        return record(courseId, 0);
+    }
+
+    /**
+     * @param rating note de 1 à 5
+     */
+    public Task<Void> recordReview(String courseId, double rating) {
+        return record(courseId, rating);
+    }
+
+    /**
+     * Seul le document du cours est lu et écrit : pas de point chaud commun à tous les cours
+     */
+    private Task<Void> record(String courseId, double rating) {
+        long now = System.currentTimeMillis();
+        double logWeight = age(now);
+        DocumentReference popularityRef = db.collection(POPULARITY_COLLECTION).document(courseId);
+
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot popularity = transaction.get(popularityRef);
+
+            double logEnrollments = logField(popularity, "logEnrollments");
+            double logRatingSum = logField(popularity, "logRatingSum");
+            double logRatingCount = logField(popularity, "logRatingCount");
+            if (rating > 0) {
+                logRatingSum = logAdd(logRatingSum, Math.log(rating) + logWeight);
+                logRatingCount = logAdd(logRatingCount, logWeight);
+            } else {
+                logEnrollments = logAdd(logEnrollments, logWeight);
+            }
+
+            Map<String, Object> update = new HashMap<>();
+            putLog(update, "logEnrollments", logEnrollments);
+            putLog(update, "logRatingSum", logRatingSum);
+            putLog(update, "logRatingCount", logRatingCount);
+            putLog(update, "score", score(logEnrollments, logRatingSum, logRatingCount, now));
+            update.put("updatedAt", now);
+            transaction.set(popularityRef, update, SetOptions.merge());
+            return null;
+        }).addOnFailureListener(e -> Log.e(TAG, "Error recording popularity event for " + courseId, e));
+    }
+
+    /**
+     * Initialise le classement depuis les compteurs répartis des cours
+     * (enrolledStudents, totalRatings, ratingSum), si aucun classement n'existe encore
+     */
+    public Task<Void> seedFromCourses() {
+        return rankingRef().get().continueWithTask(existing -> {
+            if (existing.isSuccessful() && existing.getResult().exists()) {
+                return Tasks.forResult((Void) null);
+            }
+            return FirebaseManager.getInstance().getCoursesCollection()
+                .whereEqualTo("isPublished", true)
+                .get()
+                .continueWithTask(courses -> {
+                    FirebaseManager firebase = FirebaseManager.getInstance();
+                    List<String> courseIds = new ArrayList<>();
+                    List<Task<Double>> counters = new ArrayList<>();
+                    for (QueryDocumentSnapshot course : courses.getResult()) {
+                        courseIds.add(course.getId());
+                        counters.add(firebase.getCourseCounter(course.getId(),
+                            FirebaseManager.COUNTER_ENROLLED_STUDENTS).get());
+                        counters.add(firebase.getCourseCounter(course.getId(),
+                            FirebaseManager.COUNTER_TOTAL_RATINGS).get());
+                        counters.add(firebase.getCourseCounter(course.getId(),
+                            FirebaseManager.COUNTER_RATING_SUM).get());
+                    }
+                    return Tasks.whenAllSuccess(counters).continueWithTask(totals -> {
+                        List<Object> values = totals.getResult();
+                        long now = System.currentTimeMillis();
+                        double logWeight = age(now);
+                        WriteBatch batch = db.batch();
+                        List<Map<String, Object>> entries = new ArrayList<>();
+
+                        for (int i = 0; i < courseIds.size(); i++) {
+                            String courseId = courseIds.get(i);
+                            // Compteurs existants comptés comme des événements d'aujourd'hui
+                            double logEnrollments = logCount((Number) values.get(3 * i), logWeight);
+                            double logRatingCount = logCount((Number) values.get(3 * i + 1), logWeight);
+                            double logRatingSum = logCount((Number) values.get(3 * i + 2), logWeight);
+
+                            Map<String, Object> update = new HashMap<>();
+                            putLog(update, "logEnrollments", logEnrollments);
+                            putLog(update, "logRatingSum", logRatingSum);
+                            putLog(update, "logRatingCount", logRatingCount);
+                            double score = score(logEnrollments, logRatingSum, logRatingCount, now);
+                            putLog(update, "score", score);
+                            update.put("updatedAt", now);
+                            batch.set(db.collection(POPULARITY_COLLECTION).document(courseId), update);
+
+                            if (!Double.isInfinite(score)) {
+                                entries = rank(entries, courseId, score);
+                            }
+                        }
+
+                        batch.set(rankingRef(), rankingDocument(entries, now));
+                        return batch.commit();
+                    });
+                });
+        }).addOnFailureListener(e -> Log.e(TAG, "Error seeding popular ranking", e));
+    }
+
+    /**
+     * Log de la popularité : inscriptions pondérées x (moyenne lissée des notes / 5)^RATING_EXPONENT
+     */
+    static double score(double logEnrollments, double logRatingSum, double logRatingCount, long now) {
+        // Sommes ramenées à l'instant présent pour les mêler à l'a priori
+        double decay = age(now);
+        double ratingSum = Math.exp(logRatingSum - decay);
+        double ratingCount = Math.exp(logRatingCount - decay);
+        double rating = (PRIOR_RATING * PRIOR_COUNT + ratingSum) / (PRIOR_COUNT + ratingCount);
+        return logEnrollments + RATING_EXPONENT * Math.log(rating / 5);
+    }
+
+    /**
+     * Classement initial avec le score d'un cours de plus, limité à RANKING_SIZE entrées
+     */
+    private static List<Map<String, Object>> rank(List<Map<String, Object>> entries, String courseId, double score) {
+        List<Map<String, Object>> ranked = new ArrayList<>(entries.size() + 1);
+        for (Map<String, Object> entry : entries) {
+            if (!courseId.equals(entry.get("courseId"))) {
+                ranked.add(entry);
+            }
+        }
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("courseId", courseId);
+        entry.put("score", score);
+        ranked.add(entry);
+
+        Collections.sort(ranked, (a, b) -> Double.compare(scoreOf(b), scoreOf(a)));
+        if (ranked.size() > RANKING_SIZE) {
+            ranked = new ArrayList<>(ranked.subList(0, RANKING_SIZE));
+        }
+        return ranked;
+    }
+
+    private static Map<String, Object> rankingDocument(List<Map<String, Object>> entries, long now) {
+        Map<String, Object> ranking = new HashMap<>();
+        ranking.put("courses", entries);
+        ranking.put("updatedAt", now);
+        return ranking;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> entries(DocumentSnapshot ranking) {
+        Object courses = ranking.exists() ? ranking.get("courses") : null;
+        return courses instanceof List ? (List<Map<String, Object>>) courses : Collections.<Map<String, Object>>emptyList();
+    }
+
+    private static double scoreOf(Map<String, Object> entry) {
+        Object score = entry.get("score");
+        return score instanceof Number ? ((Number) score).doubleValue() : Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Log du poids d'un événement à l'instant t
+     */
+    private static double age(long timeMs) {
+        return (timeMs - EPOCH_MS) / TAU_MS;
+    }
+
+    /**
+     * log(exp(a) + exp(b)) sans dépassement
+     */
+    static double logAdd(double a, double b) {
+        if (a == Double.NEGATIVE_INFINITY) return b;
+        if (b == Double.NEGATIVE_INFINITY) return a;
+        double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(Math.min(a, b) - max));
+    }
+
+    private static double logCount(Number count, double logWeight) {
+        return count != null && count.doubleValue() > 0
+            ? Math.log(count.doubleValue()) + logWeight
+            : Double.NEGATIVE_INFINITY;
+    }
+
+    private static double logField(DocumentSnapshot document, String field) {
+        Double value = document.exists() ? document.getDouble(field) : null;
+        return value != null ? value : Double.NEGATIVE_INFINITY;
+    }
+
+    /** Un total nul (log = -inf) n'est pas écrit */
+    private static void putLog(Map<String, Object> update, String field, double value) {
+        if (!Double.isInfinite(value)) {
+            update.put(field, value);
+        }
+    }
+
+    private DocumentReference rankingRef() {
+        return db.collection(RANKINGS_COLLECTION).document(POPULAR_DOCUMENT);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.learnizone.managers;
+
+import android.util.Log;
+
+import com.example.learnizone.models.QuizSummary;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Agrégation incrémentale des tentatives de quiz dans quizSummaries/{quizId}.
+ * Chaque tentative n'est comptée qu'une fois grâce au champ aggregatedAt.
+ */
+public class QuizAnalyticsManager {
+    private static final String TAG = "QuizAnalyticsManager";
+    private static QuizAnalyticsManager instance;
+
+    // Collections
+    private static final String ATTEMPTS_COLLECTION = "quizAttempts";
+    private static final String SUMMARIES_COLLECTION = "quizSummaries";
+
+    private static final long SUMMARY_CACHE_TTL_MS = 5 * 60 * 1000;
+
+    private final FirebaseFirestore db;
+    private final Map<String, QuizSummary> summaryCache = new HashMap<>();
+    private final Map<String, Long> summaryCacheTimes = new HashMap<>();
+
+    private QuizAnalyticsManager() {
+        db = FirebaseFirestore.getInstance();
+    }
+
+    public static synchronized QuizAnalyticsManager getInstance() {
+        if (instance == null) {
+            instance = new QuizAnalyticsManager();
+        }
+        return instance;
+    }
+
+    /**
+     * Ajoute une tentative terminée au résumé du quiz (une seule fois par tentative).
+     * percentage doit être le score enregistré dans la tentative elle-même.
+     */
+    public Task<Boolean> recordAttempt(String attemptId, String quizId, double percentage,
+                                       boolean passed, List<QuizSummary.QuestionOutcome> outcomes) {
+        DocumentReference attemptRef = db.collection(ATTEMPTS_COLLECTION).document(attemptId);
+        DocumentReference summaryRef = db.collection(SUMMARIES_COLLECTION).document(quizId);
+
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot attempt = transaction.get(attemptRef);
+            if (attempt.exists() && attempt.get("aggregatedAt") != null) {
+                return false; // Déjà comptée
+            }
+
+            transaction.set(summaryRef, buildIncrements(percentage, passed, outcomes), SetOptions.merge());
+            transaction.set(attemptRef, singletonMap("aggregatedAt", new Date()), SetOptions.merge());
+            return true;
+        }).addOnSuccessListener(applied -> {
+            if (applied) {
+                invalidate(quizId);
+            }
+        }).addOnFailureListener(e -> Log.e(TAG, "Error aggregating attempt " + attemptId, e));
+    }
+
+    /**
+     * Récupère le résumé d'un quiz (un seul document, mis en cache quelques minutes)
+     */
+    public Task<QuizSummary> getQuizSummary(String quizId) {
+        synchronized (summaryCache) {
+            Long cachedAt = summaryCacheTimes.get(quizId);
+            if (cachedAt != null && System.currentTimeMillis() - cachedAt < SUMMARY_CACHE_TTL_MS) {
+                return Tasks.forResult(summaryCache.get(quizId));
+            }
+        }
+
+        return db.collection(SUMMARIES_COLLECTION).document(quizId)
+            .get()
+            .continueWith(task -> {
+                QuizSummary summary = QuizSummary.fromDocument(task.getResult());
+                synchronized (summaryCache) {
+                    summaryCache.put(quizId, summary);
+                    summaryCacheTimes.put(quizId, System.currentTimeMillis());
+                }
+                return summary;
+            });
+    }
+
+    private void invalidate(String quizId) {
+        synchronized (summaryCache) {
+            summaryCache.remove(quizId);
+            summaryCacheTimes.remove(quizId);
+        }
+    }
+
+    /**
+     * Construit les incréments atomiques à fusionner dans le résumé
+     */
+    private Map<String, Object> buildIncrements(double percentage, boolean passed,
+                                                List<QuizSummary.QuestionOutcome> outcomes) {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("attemptCount", FieldValue.increment(1));
+        updates.put("passedCount", FieldValue.increment(passed ? 1 : 0));
+        updates.put("scoreSum", FieldValue.increment(percentage));
+        updates.put("histogram", singletonMap(
+            String.valueOf(QuizSummary.bucketFor(percentage)), FieldValue.increment(1)));
+
+        if (outcomes != null && !outcomes.isEmpty()) {
+            Map<String, Object> questions = new HashMap<>();
+            for (QuizSummary.QuestionOutcome outcome : outcomes) {
+                Map<String, Object> stats = new HashMap<>();
+                stats.put("answered", FieldValue.increment(1));
+                stats.put("correct", FieldValue.increment(outcome.isCorrect() ? 1 : 0));
+                stats.put("timeMillis", FieldValue.increment(Math.max(0, outcome.getTimeMillis())));
+                questions.put(outcome.getQuestionId(), stats);
+            }
+            updates.put("questions", questions);
+        }
+
+        updates.put("updatedAt", new Date());
+        return updates;
+    }
+
+    private static Map<String, Object> singletonMap(String key, Object value) {
+        Map<String, Object> map = new HashMap<>();
+        map.put(key, value);
+        return map;
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.learnizone.managers;
+
+import android.util.Log;
+
+import com.example.learnizone.firebase.FirebaseManager;
+import com.example.learnizone.models.Review;
+import com.example.learnizone.models.ReviewSummary;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.SetOptions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Agrégation incrémentale des avis dans reviewSummaries/{courseId} : l'histogramme des notes
+ * de 1 à 5, dont se déduisent le nombre d'avis et la moyenne. Le résumé se lit en un document.
+ * Un avis par utilisateur et par cours ; le modifier remplace sa note dans le résumé.
+ */
+public class ReviewAggregator {
+    private static final String TAG = "ReviewAggregator";
+    private static ReviewAggregator instance;
+
+    // Collections
+    private static final String SUMMARIES_COLLECTION = "reviewSummaries";
+
+    public static final int DEFAULT_PAGE_SIZE = 10;
+    private static final long SUMMARY_CACHE_TTL_MS = 5 * 60 * 1000;
+
+    private final FirebaseFirestore db;
+    private final Map<String, ReviewSummary> summaryCache = new HashMap<>();
+    private final Map<String, Long> summaryCacheTimes = new HashMap<>();
+
+    private ReviewAggregator() {
+        db = FirebaseManager.getInstance().getFirestore();
+    }
+
+    public static synchronized ReviewAggregator getInstance() {
+        if (instance == null) {
+            instance = new ReviewAggregator();
+        }
+        return instance;
+    }
+
+    /**
+     * Écrit l'avis et met à jour le résumé du cours dans la même transaction
+     *
+     * @return true pour un nouvel avis, false pour la modification d'un avis existant
+     */
+    public Task<Boolean> submitReview(String courseId, String userId, String userName, int rating, String comment) {
+        int stars = ReviewSummary.clampRating(rating);
+        DocumentReference reviewRef = FirebaseManager.getInstance().getReviewsCollection()
+            .document(courseId + "_" + userId);
+        DocumentReference summaryRef = db.collection(SUMMARIES_COLLECTION).document(courseId);
+
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot existing = transaction.get(reviewRef);
+            Long previous = existing.exists() ? existing.getLong("rating") : null;
+
+            Map<String, Object> review = new HashMap<>();
+            review.put("courseId", courseId);
+            review.put("userId", userId);
+            review.put("userName", userName);
+            review.put("rating", stars);
+            review.put("comment", comment);
+            review.put("updatedAt", FieldValue.serverTimestamp());
+            if (previous == null) {
+                review.put("createdAt", FieldValue.serverTimestamp());
+            }
+            transaction.set(reviewRef, review, SetOptions.merge());
+            transaction.set(summaryRef, buildIncrements(stars, previous), SetOptions.merge());
+
+            // Compteurs répartis du cours, lus pour initialiser le classement de popularité
+            FirebaseManager firebase = FirebaseManager.getInstance();
+            if (previous == null) {
+                firebase.getCourseCounter(courseId, FirebaseManager.COUNTER_TOTAL_RATINGS).increment(transaction, 1);
+                firebase.getCourseCounter(courseId, FirebaseManager.COUNTER_RATING_SUM).increment(transaction, stars);
+            } else {
+                int delta = stars - ReviewSummary.clampRating(previous.intValue());
+                if (delta != 0) {
+                    firebase.getCourseCounter(courseId, FirebaseManager.COUNTER_RATING_SUM).increment(transaction, delta);
+                }
+            }
+            return previous == null;
+        }).addOnSuccessListener(created -> {
+            invalidate(courseId);
+            if (created) {
+                PopularityManager.getInstance().recordReview(courseId, stars);
+            }
+        }).addOnFailureListener(e -> Log.e(TAG, "Error submitting review for course " + courseId, e));
+    }
+
+    /**
+     * Résumé des avis d'un cours (un seul document lu), en cache pendant SUMMARY_CACHE_TTL_MS
+     */
+    public Task<ReviewSummary> getSummary(String courseId) {
+        synchronized (summaryCache) {
+            Long cachedAt = summaryCacheTimes.get(courseId);
+            if (cachedAt != null && System.currentTimeMillis() - cachedAt < SUMMARY_CACHE_TTL_MS) {
+                return Tasks.forResult(summaryCache.get(courseId));
+            }
+        }
+
+        return db.collection(SUMMARIES_COLLECTION).document(courseId)
+            .get()
+            .continueWith(task -> {
+                ReviewSummary summary = ReviewSummary.fromDocument(task.getResult());
+                synchronized (summaryCache) {
+                    summaryCache.put(courseId, summary);
+                    summaryCacheTimes.put(courseId, System.currentTimeMillis());
+                }
+                return summary;
+            });
+    }
+
+    /**
+     * Page d'avis, du plus récent au plus ancien
+     *
+     * @param after dernier document de la page précédente, null pour la première page
+     */
+    public Task<Page> getReviewsPage(String courseId, DocumentSnapshot after, int pageSize) {
+        Query query = FirebaseManager.getInstance().getReviewsCollection()
+            .whereEqualTo("courseId", courseId)
+            .orderBy("createdAt", Query.Direction.DESCENDING)
+            .limit(pageSize);
+        if (after != null) {
+            query = query.startAfter(after);
+        }
+
+        return query.get().continueWith(task -> {
+            if (!task.isSuccessful()) {
+                Log.e(TAG, "Error loading reviews for course " + courseId, task.getException());
+                throw task.getException();
+            }
+            List<DocumentSnapshot> documents = task.getResult().getDocuments();
+            List<Review> reviews = new ArrayList<>(documents.size());
+            for (DocumentSnapshot document : documents) {
+                reviews.add(Review.fromDocument(document));
+            }
+            DocumentSnapshot last = documents.isEmpty() ? null : documents.get(documents.size() - 1);
+            return new Page(reviews, last, documents.size() == pageSize);
+        });
+    }
+
+    private void invalidate(String courseId) {
+        synchronized (summaryCache) {
+            summaryCache.remove(courseId);
+            summaryCacheTimes.remove(courseId);
+        }
+    }
+
+    /**
+     * Construit les incréments atomiques de l'histogramme à fusionner dans le résumé
+     */
+    private Map<String, Object> buildIncrements(int rating, Long previous) {
+        Map<String, Object> histogram = new HashMap<>();
+        histogram.put(String.valueOf(rating), FieldValue.increment(1));
+
+        Map<String, Object> updates = new HashMap<>();
+        if (previous != null) {
+            int old = ReviewSummary.clampRating(previous.intValue());
+            if (old != rating) {
+                histogram.put(String.valueOf(old), FieldValue.increment(-1));
+            } else {
+                histogram.clear();
+            }
+        }
+        if (!histogram.isEmpty()) {
+            updates.put("histogram", histogram);
+        }
+        updates.put("updatedAt", new Date());
+        return updates;
+    }
+
+    /**
+     * Page d'avis et curseur de la suivante
+     */
+    public static class Page {
+        private final List<Review> reviews;
+        private final DocumentSnapshot last;
+        private final boolean hasMore;
+
+        Page(List<Review> reviews, DocumentSnapshot last, boolean hasMore) {
+            this.reviews = Collections.unmodifiableList(reviews);
+            this.last = last;
+            this.hasMore = hasMore;
+        }
+
+        public List<Review> getReviews() { return reviews; }
+        public DocumentSnapshot getLast() { return last; }
+        public boolean hasMore() { return hasMore; }
+    }
+}
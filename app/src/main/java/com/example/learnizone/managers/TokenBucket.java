@@ -0,0 +1,39 @@
+package com.example.learnizone.managers;
+
+/**
+ * Seau à jetons : capacity jetons au maximum, un jeton rendu toutes les refillMillis
+ */
+class TokenBucket {
+    final int capacity;
+    final long refillMillis;
+    double tokens;
+    long lastRefill;
+
+    TokenBucket(int capacity, long refillMillis) {
+        this.capacity = capacity;
+        this.refillMillis = refillMillis;
+    }
+
+    boolean tryConsume(long now) {
+        refill(now);
+        if (tokens < 1) return false;
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * Instant où un jeton sera de nouveau disponible (now s'il y en a déjà un)
+     */
+    long nextTokenAt(long now) {
+        refill(now);
+        if (tokens >= 1) return now;
+        return lastRefill + (long) Math.ceil((1 - tokens) * refillMillis);
+    }
+
+    private void refill(long now) {
+        if (now > lastRefill) {
+            tokens = Math.min(capacity, tokens + (double) (now - lastRefill) / refillMillis);
+        }
+        lastRefill = now;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.learnizone.models
 
+import com.example.learnizone.codec.EnumCodec
 import com.google.firebase.firestore.DocumentSnapshot
 import java.util.Date
 
@@ -97,8 +98,8 @@ enum class EnrollmentStatus(val value: String) {
     CANCELLED("cancelled");
 
     companion object {
-        fun fromString(value: String): EnrollmentStatus {
-            return values().find { it.value == value } ?: ACTIVE
-        }
+        private val CODEC = EnumCodec.of(EnrollmentStatus::class.java, { it.value }, ACTIVE)
+
+        fun fromString(value: String): EnrollmentStatus = CODEC.decode(value)
     }
 } 
\ No newline at end of file
@@ -1,15 +1,22 @@
 package com.example.learnizone.models;
 
+import com.example.learnizone.codec.CodecIgnore;
+import com.example.learnizone.codec.DocumentId;
+import com.example.learnizone.codec.EnumCodec;
+import com.example.learnizone.codec.FirestoreModel;
 import com.google.firebase.firestore.DocumentSnapshot;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+@FirestoreModel
 public class Lesson implements Serializable {
+    @DocumentId
     private String lessonId;
     private String courseId;
     private String sectionId;
@@ -19,6 +26,7 @@ public class Lesson implements Serializable {
     private String content; // Contenu textuel ou HTML
     private String videoUrl;
     private String audioUrl;
+    @CodecIgnore
     private List<LessonResource> resources;
     private int duration; // Durée en minutes
     private int orderIndex;
@@ -41,6 +49,9 @@ public class Lesson implements Serializable {
         private final String value;
         private final String displayName;
 
+        private static final EnumCodec<LessonType> CODEC =
+            EnumCodec.of(LessonType.class, LessonType::getValue, TEXT);
+
         LessonType(String value, String displayName) {
             this.value = value;
             this.displayName = displayName;
@@ -55,12 +66,7 @@ public class Lesson implements Serializable {
         }
 
         public static LessonType fromString(String value) {
-            for (LessonType type : values()) {
-                if (type.value.equals(value)) {
-                    return type;
-                }
-            }
-            return TEXT;
+            return CODEC.decode(value);
         }
     }
 
@@ -74,56 +80,12 @@ public class Lesson implements Serializable {
     }
 
     public static Lesson fromDocument(DocumentSnapshot document) {
-        Lesson lesson = new Lesson();
-        lesson.lessonId = document.getId();
-        lesson.courseId = document.getString("courseId");
-        lesson.sectionId = document.getString("sectionId");
-        lesson.title = document.getString("title");
-        lesson.description = document.getString("description");
-        lesson.type = LessonType.fromString(document.getString("type"));
-        lesson.content = document.getString("content");
-        lesson.videoUrl = document.getString("videoUrl");
-        lesson.audioUrl = document.getString("audioUrl");
-
-        Long duration = document.getLong("duration");
-        lesson.duration = duration != null ? duration.intValue() : 0;
-
-        Long orderIndex = document.getLong("orderIndex");
-        lesson.orderIndex = orderIndex != null ? orderIndex.intValue() : 0;
-
-        Boolean isPublished = document.getBoolean("isPublished");
-        lesson.isPublished = isPublished != null ? isPublished : true;
-
-        Boolean isFree = document.getBoolean("isFree");
-        lesson.isFree = isFree != null ? isFree : false;
-
-        lesson.createdAt = document.getDate("createdAt");
-        lesson.updatedAt = document.getDate("updatedAt");
-
-        Map<String, Object> metadata = (Map<String, Object>) document.get("metadata");
-        lesson.metadata = metadata != null ? metadata : new HashMap<>();
-
-        return lesson;
+        Map<String, Object> data = document.getData();
+        return LessonCodec.decode(document.getId(), data != null ? data : Collections.emptyMap());
     }
 
     public Map<String, Object> toMap() {
-        Map<String, Object> map = new HashMap<>();
-        map.put("courseId", courseId);
-        map.put("sectionId", sectionId);
-        map.put("title", title);
-        map.put("description", description);
-        map.put("type", type.getValue());
-        map.put("content", content);
-        map.put("videoUrl", videoUrl);
-        map.put("audioUrl", audioUrl);
-        map.put("duration", duration);
-        map.put("orderIndex", orderIndex);
-        map.put("isPublished", isPublished);
-        map.put("isFree", isFree);
-        map.put("createdAt", createdAt);
-        map.put("updatedAt", updatedAt);
-        map.put("metadata", metadata);
-        return map;
+        return LessonCodec.encode(this);
     }
 
     // Getters et Setters
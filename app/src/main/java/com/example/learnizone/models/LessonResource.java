@@ -1,13 +1,18 @@
 package com.example.learnizone.models;
 
+import com.example.learnizone.codec.DocumentId;
+import com.example.learnizone.codec.EnumCodec;
+import com.example.learnizone.codec.FirestoreModel;
 import com.google.firebase.firestore.DocumentSnapshot;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
 
+@FirestoreModel
 public class LessonResource implements Serializable {
+    @DocumentId
     private String resourceId;
     private String lessonId;
     private String title;
@@ -34,6 +39,9 @@ public class LessonResource implements Serializable {
         private final String value;
         private final String displayName;
 
+        private static final EnumCodec<ResourceType> CODEC =
+            EnumCodec.of(ResourceType.class, ResourceType::getValue, OTHER);
+
         ResourceType(String value, String displayName) {
             this.value = value;
             this.displayName = displayName;
@@ -43,12 +51,7 @@ public class LessonResource implements Serializable {
         public String getDisplayName() { return displayName; }
 
         public static ResourceType fromString(String value) {
-            for (ResourceType type : values()) {
-                if (type.value.equals(value)) {
-                    return type;
-                }
-            }
-            return OTHER;
+            return CODEC.decode(value);
         }
     }
 
@@ -58,38 +61,12 @@ public class LessonResource implements Serializable {
     }
 
     public static LessonResource fromDocument(DocumentSnapshot document) {
-        LessonResource resource = new LessonResource();
-        resource.resourceId = document.getId();
-        resource.lessonId = document.getString("lessonId");
-        resource.title = document.getString("title");
-        resource.description = document.getString("description");
-        resource.type = ResourceType.fromString(document.getString("type"));
-        resource.url = document.getString("url");
-        resource.fileName = document.getString("fileName");
-
-        Long fileSize = document.getLong("fileSize");
-        resource.fileSize = fileSize != null ? fileSize : 0;
-
-        Boolean isDownloadable = document.getBoolean("isDownloadable");
-        resource.isDownloadable = isDownloadable != null ? isDownloadable : true;
-
-        resource.uploadedAt = document.getDate("uploadedAt");
-
-        return resource;
+        Map<String, Object> data = document.getData();
+        return LessonResourceCodec.decode(document.getId(), data != null ? data : Collections.emptyMap());
     }
 
     public Map<String, Object> toMap() {
-        Map<String, Object> map = new HashMap<>();
-        map.put("lessonId", lessonId);
-        map.put("title", title);
-        map.put("description", description);
-        map.put("type", type.getValue());
-        map.put("url", url);
-        map.put("fileName", fileName);
-        map.put("fileSize", fileSize);
-        map.put("isDownloadable", isDownloadable);
-        map.put("uploadedAt", uploadedAt);
-        return map;
+        return LessonResourceCodec.encode(this);
     }
 
     // Getters et Setters
@@ -0,0 +1,156 @@
+package com.example.learnizone.models;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Résumé agrégé des tentatives d'un quiz (document quizSummaries/{quizId}).
+ * Mis à jour de façon incrémentale à chaque tentative terminée.
+ */
+public class QuizSummary {
+    public static final int HISTOGRAM_BUCKETS = 10; // Tranches de 10%
+
+    private String quizId;
+    private long attemptCount;
+    private long passedCount;
+    private double scoreSum;
+    private long[] histogram;
+    private Map<String, QuestionStats> questions;
+    private Date updatedAt;
+
+    public QuizSummary() {
+        this.histogram = new long[HISTOGRAM_BUCKETS];
+        this.questions = new HashMap<>();
+    }
+
+    /**
+     * Statistiques agrégées d'une question
+     */
+    public static class QuestionStats {
+        private long answered;
+        private long correct;
+        private long timeMillis; // Temps de réponse cumulé
+
+        public long getAnswered() { return answered; }
+        public long getCorrect() { return correct; }
+        public long getTimeMillis() { return timeMillis; }
+
+        /**
+         * Taux de réussite entre 0 et 1, -1 si aucune réponse
+         */
+        public double getSuccessRate() {
+            return answered > 0 ? (double) correct / answered : -1;
+        }
+
+        /**
+         * Difficulté entre 0 (facile) et 1 (difficile), -1 si inconnue
+         */
+        public double getDifficulty() {
+            return answered > 0 ? 1.0 - getSuccessRate() : -1;
+        }
+
+        public long getMeanTimeMillis() {
+            return answered > 0 ? timeMillis / answered : 0;
+        }
+    }
+
+    /**
+     * Résultat d'une question dans une tentative, utilisé pour l'agrégation
+     */
+    public static class QuestionOutcome {
+        private final String questionId;
+        private final boolean correct;
+        private final long timeMillis;
+
+        public QuestionOutcome(String questionId, boolean correct, long timeMillis) {
+            this.questionId = questionId;
+            this.correct = correct;
+            this.timeMillis = timeMillis;
+        }
+
+        public String getQuestionId() { return questionId; }
+        public boolean isCorrect() { return correct; }
+        public long getTimeMillis() { return timeMillis; }
+    }
+
+    public static int bucketFor(double percentage) {
+        int bucket = (int) (percentage / (100.0 / HISTOGRAM_BUCKETS));
+        return Math.max(0, Math.min(HISTOGRAM_BUCKETS - 1, bucket));
+    }
+
+    public static QuizSummary fromDocument(DocumentSnapshot document) {
+        QuizSummary summary = new QuizSummary();
+        summary.quizId = document.getId();
+
+        Long attemptCount = document.getLong("attemptCount");
+        summary.attemptCount = attemptCount != null ? attemptCount : 0;
+
+        Long passedCount = document.getLong("passedCount");
+        summary.passedCount = passedCount != null ? passedCount : 0;
+
+        Double scoreSum = document.getDouble("scoreSum");
+        summary.scoreSum = scoreSum != null ? scoreSum : 0;
+
+        Object histogram = document.get("histogram");
+        if (histogram instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) histogram).entrySet()) {
+                try {
+                    int bucket = Integer.parseInt(String.valueOf(entry.getKey()));
+                    if (bucket >= 0 && bucket < HISTOGRAM_BUCKETS && entry.getValue() instanceof Number) {
+                        summary.histogram[bucket] = ((Number) entry.getValue()).longValue();
+                    }
+                } catch (NumberFormatException ignored) {
+                    // Tranche invalide, ignorée
+                }
+            }
+        }
+
+        Object questions = document.get("questions");
+        if (questions instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) questions).entrySet()) {
+                if (!(entry.getValue() instanceof Map)) continue;
+                Map<?, ?> values = (Map<?, ?>) entry.getValue();
+                QuestionStats stats = new QuestionStats();
+                stats.answered = asLong(values.get("answered"));
+                stats.correct = asLong(values.get("correct"));
+                stats.timeMillis = asLong(values.get("timeMillis"));
+                summary.questions.put(String.valueOf(entry.getKey()), stats);
+            }
+        }
+
+        summary.updatedAt = document.getDate("updatedAt");
+        return summary;
+    }
+
+    private static long asLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    // Getters
+    public String getQuizId() { return quizId; }
+    public long getAttemptCount() { return attemptCount; }
+    public long getPassedCount() { return passedCount; }
+    public long[] getHistogram() { return histogram; }
+    public Map<String, QuestionStats> getQuestions() { return questions; }
+    public Date getUpdatedAt() { return updatedAt; }
+
+    public QuestionStats getQuestionStats(String questionId) {
+        return questions.get(questionId);
+    }
+
+    // Méthodes utiles
+    public double getPassRate() {
+        return attemptCount > 0 ? (double) passedCount / attemptCount : 0;
+    }
+
+    public double getAverageScore() {
+        return attemptCount > 0 ? scoreSum / attemptCount : 0;
+    }
+
+    public boolean isEmpty() {
+        return attemptCount == 0;
+    }
+}
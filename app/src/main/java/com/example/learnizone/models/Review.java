@@ -0,0 +1,40 @@
+package com.example.learnizone.models;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.Date;
+
+/**
+ * Avis d'un utilisateur sur un cours (document reviews/{courseId}_{userId})
+ */
+public class Review {
+    private String reviewId;
+    private String courseId;
+    private String userId;
+    private String userName;
+    private int rating;
+    private String comment;
+    private Date createdAt;
+
+    public static Review fromDocument(DocumentSnapshot document) {
+        Review review = new Review();
+        review.reviewId = document.getId();
+        review.courseId = document.getString("courseId");
+        review.userId = document.getString("userId");
+        review.userName = document.getString("userName");
+        Long rating = document.getLong("rating");
+        review.rating = rating != null ? ReviewSummary.clampRating(rating.intValue()) : ReviewSummary.MIN_RATING;
+        review.comment = document.getString("comment");
+        review.createdAt = document.getDate("createdAt");
+        return review;
+    }
+
+    // Getters
+    public String getReviewId() { return reviewId; }
+    public String getCourseId() { return courseId; }
+    public String getUserId() { return userId; }
+    public String getUserName() { return userName; }
+    public int getRating() { return rating; }
+    public String getComment() { return comment; }
+    public Date getCreatedAt() { return createdAt; }
+}
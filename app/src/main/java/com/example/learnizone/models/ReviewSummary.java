@@ -0,0 +1,79 @@
+package com.example.learnizone.models;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Résumé agrégé des avis d'un cours (document reviewSummaries/{courseId}).
+ * Seul l'histogramme est stocké : le nombre d'avis et la somme des notes s'en déduisent.
+ * Mis à jour dans la même transaction que l'écriture de chaque avis.
+ */
+public class ReviewSummary {
+    public static final int MIN_RATING = 1;
+    public static final int MAX_RATING = 5;
+
+    private String courseId;
+    private long reviewCount;
+    private long ratingSum;
+    private long[] histogram; // Nombre d'avis par note, index 0 = 1 étoile
+    private Date updatedAt;
+
+    public ReviewSummary() {
+        this.histogram = new long[MAX_RATING];
+    }
+
+    public static int clampRating(int rating) {
+        return Math.max(MIN_RATING, Math.min(MAX_RATING, rating));
+    }
+
+    public static ReviewSummary fromDocument(DocumentSnapshot document) {
+        ReviewSummary summary = new ReviewSummary();
+        summary.courseId = document.getId();
+
+        Object histogram = document.get("histogram");
+        if (histogram instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) histogram).entrySet()) {
+                try {
+                    int rating = Integer.parseInt(String.valueOf(entry.getKey()));
+                    if (rating >= MIN_RATING && rating <= MAX_RATING && entry.getValue() instanceof Number) {
+                        summary.histogram[rating - 1] = ((Number) entry.getValue()).longValue();
+                    }
+                } catch (NumberFormatException ignored) {
+                    // Note invalide, ignorée
+                }
+            }
+        }
+
+        // Nombre d'avis = somme des h[i], somme des notes = somme des i * h[i]
+        for (int rating = MIN_RATING; rating <= MAX_RATING; rating++) {
+            long count = Math.max(0, summary.histogram[rating - 1]);
+            summary.reviewCount += count;
+            summary.ratingSum += rating * count;
+        }
+
+        summary.updatedAt = document.getDate("updatedAt");
+        return summary;
+    }
+
+    // Getters
+    public String getCourseId() { return courseId; }
+    public long getReviewCount() { return reviewCount; }
+    public long getRatingSum() { return ratingSum; }
+    public long[] getHistogram() { return histogram; }
+    public Date getUpdatedAt() { return updatedAt; }
+
+    // Méthodes utiles
+    public double getAverageRating() {
+        return reviewCount > 0 ? (double) ratingSum / reviewCount : 0;
+    }
+
+    public long getCountForRating(int rating) {
+        return rating >= MIN_RATING && rating <= MAX_RATING ? histogram[rating - 1] : 0;
+    }
+
+    public boolean isEmpty() {
+        return reviewCount == 0;
+    }
+}
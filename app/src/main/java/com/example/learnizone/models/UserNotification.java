@@ -1,13 +1,19 @@
 package com.example.learnizone.models;
 
+import com.example.learnizone.codec.DocumentId;
+import com.example.learnizone.codec.EnumCodec;
+import com.example.learnizone.codec.FirestoreModel;
 import com.google.firebase.firestore.DocumentSnapshot;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
+@FirestoreModel
 public class UserNotification implements Serializable {
+    @DocumentId
     private String id;
     private String userId;
     private NotificationType type;
@@ -19,12 +25,15 @@ public class UserNotification implements Serializable {
     private Date scheduledAt;
     private Date sentAt;
     private Date readAt;
+    private Date updatedAt; // Toute écriture (envoi, lecture, suppression) : curseur de synchronisation
     private boolean isRead;
     private boolean isSent;
+    private boolean isDeleted; // Suppression logique, pour que les autres appareils la voient
     private Map<String, Object> data; // Données additionnelles (courseId, quizId, etc.)
     
     public UserNotification() {
         this.createdAt = new Date();
+        this.updatedAt = createdAt;
         this.isRead = false;
         this.isSent = false;
         this.priority = Priority.NORMAL;
@@ -41,10 +50,14 @@ public class UserNotification implements Serializable {
         MESSAGE_FROM_INSTRUCTOR("message_instructor", "Message d'instructeur"),
         COURSE_COMPLETED("course_completed", "Cours terminé"),
         STREAK_REMINDER("streak_reminder", "Rappel de série"),
+        REVIEW_DUE("review_due", "Révisions à faire"),
         GENERAL("general", "Général");
         
         private final String value;
         private final String displayName;
+
+        private static final EnumCodec<NotificationType> CODEC =
+            EnumCodec.of(NotificationType.class, NotificationType::getValue, GENERAL);
         
         NotificationType(String value, String displayName) {
             this.value = value;
@@ -60,12 +73,7 @@ public class UserNotification implements Serializable {
         }
         
         public static NotificationType fromString(String value) {
-            for (NotificationType type : values()) {
-                if (type.value.equals(value)) {
-                    return type;
-                }
-            }
-            return GENERAL;
+            return CODEC.decode(value);
         }
     }
     
@@ -77,6 +85,9 @@ public class UserNotification implements Serializable {
         
         private final String value;
         private final int level;
+
+        private static final EnumCodec<Priority> CODEC =
+            EnumCodec.of(Priority.class, Priority::getValue, NORMAL);
         
         Priority(String value, int level) {
             this.value = value;
@@ -92,59 +103,19 @@ public class UserNotification implements Serializable {
         }
         
         public static Priority fromString(String value) {
-            for (Priority priority : values()) {
-                if (priority.value.equals(value)) {
-                    return priority;
-                }
-            }
-            return NORMAL;
+            return CODEC.decode(value);
         }
     }
     
     // Méthode pour créer depuis Firestore
     public static UserNotification fromDocument(DocumentSnapshot document) {
-        UserNotification notification = new UserNotification();
-        notification.id = document.getId();
-        notification.userId = document.getString("userId");
-        notification.type = NotificationType.fromString(document.getString("type"));
-        notification.title = document.getString("title");
-        notification.message = document.getString("message");
-        notification.imageUrl = document.getString("imageUrl");
-        notification.priority = Priority.fromString(document.getString("priority"));
-        notification.createdAt = document.getDate("createdAt");
-        notification.scheduledAt = document.getDate("scheduledAt");
-        notification.sentAt = document.getDate("sentAt");
-        notification.readAt = document.getDate("readAt");
-        
-        Boolean isRead = document.getBoolean("isRead");
-        notification.isRead = isRead != null ? isRead : false;
-        
-        Boolean isSent = document.getBoolean("isSent");
-        notification.isSent = isSent != null ? isSent : false;
-        
-        Map<String, Object> data = (Map<String, Object>) document.get("data");
-        notification.data = data != null ? data : new HashMap<>();
-        
-        return notification;
+        Map<String, Object> data = document.getData();
+        return UserNotificationCodec.decode(document.getId(), data != null ? data : Collections.emptyMap());
     }
     
     // Convertir en Map pour Firestore
     public Map<String, Object> toMap() {
-        Map<String, Object> map = new HashMap<>();
-        map.put("userId", userId);
-        map.put("type", type.getValue());
-        map.put("title", title);
-        map.put("message", message);
-        map.put("imageUrl", imageUrl);
-        map.put("priority", priority.getValue());
-        map.put("createdAt", createdAt);
-        map.put("scheduledAt", scheduledAt);
-        map.put("sentAt", sentAt);
-        map.put("readAt", readAt);
-        map.put("isRead", isRead);
-        map.put("isSent", isSent);
-        map.put("data", data);
-        return map;
+        return UserNotificationCodec.encode(this);
     }
     
     // Getters et Setters
@@ -247,6 +218,22 @@ public class UserNotification implements Serializable {
         }
     }
     
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public boolean isDeleted() {
+        return isDeleted;
+    }
+    
+    public void setDeleted(boolean deleted) {
+        isDeleted = deleted;
+    }
+    
     public boolean isSent() {
         return isSent;
     }
@@ -0,0 +1,137 @@
+package com.example.learnizone.quiz;
+
+/**
+ * Sélection adaptative des questions (modèle de Rasch).
+ * Le niveau de l'apprenant est estimé par la moyenne a posteriori sur une grille fixe ;
+ * la question suivante est celle dont la difficulté est la plus proche de ce niveau,
+ * c'est-à-dire la plus informative. Le quiz peut s'arrêter dès que l'estimation est
+ * suffisamment précise.
+ */
+public class AdaptiveQuestionSelector {
+    private static final int GRID_SIZE = 41;
+    private static final float GRID_MIN = -4f;
+    private static final float GRID_STEP = 0.2f;
+
+    public static final float DEFAULT_TARGET_STANDARD_ERROR = 0.55f;
+
+    private final float[] difficulties;
+    private final boolean[] asked;
+    private final float[] grid = new float[GRID_SIZE];
+    private final double[] logPosterior = new double[GRID_SIZE];
+    private final int minQuestions;
+    private final float targetStandardError;
+
+    private int askedCount;
+    private double ability;
+    private double standardError;
+
+    /**
+     * @param difficulties difficulté (logit) de chaque question, dans l'ordre du quiz
+     * @param minQuestions nombre minimal de questions avant un arrêt anticipé
+     */
+    public AdaptiveQuestionSelector(float[] difficulties, int minQuestions, float targetStandardError) {
+        this.difficulties = difficulties;
+        this.asked = new boolean[difficulties.length];
+        this.minQuestions = Math.min(minQuestions, difficulties.length);
+        this.targetStandardError = targetStandardError;
+
+        for (int g = 0; g < GRID_SIZE; g++) {
+            grid[g] = GRID_MIN + g * GRID_STEP;
+            // A priori normal centré réduit
+            logPosterior[g] = -0.5 * grid[g] * grid[g];
+        }
+        updateEstimate();
+    }
+
+    /**
+     * Index de la prochaine question à poser, -1 si le quiz peut s'arrêter
+     */
+    public int nextQuestionIndex() {
+        if (isConfident()) return -1;
+
+        int best = -1;
+        double bestDistance = Double.MAX_VALUE;
+        for (int i = 0; i < difficulties.length; i++) {
+            if (asked[i]) continue;
+            double distance = Math.abs(difficulties[i] - ability);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Enregistre la réponse à une question et met à jour l'estimation du niveau
+     */
+    public void recordAnswer(int questionIndex, boolean correct) {
+        if (questionIndex < 0 || questionIndex >= difficulties.length || asked[questionIndex]) return;
+
+        asked[questionIndex] = true;
+        askedCount++;
+
+        float difficulty = difficulties[questionIndex];
+        for (int g = 0; g < GRID_SIZE; g++) {
+            double p = probabilityCorrect(grid[g], difficulty);
+            logPosterior[g] += Math.log(correct ? p : 1 - p);
+        }
+        updateEstimate();
+    }
+
+    /**
+     * Vrai quand assez de questions ont été posées pour un score fiable
+     */
+    public boolean isConfident() {
+        if (askedCount >= difficulties.length) return true;
+        return askedCount >= minQuestions && standardError <= targetStandardError;
+    }
+
+    /**
+     * Score estimé sur l'ensemble du quiz (0-100), y compris les questions non posées
+     */
+    public double getEstimatedPercentage() {
+        if (difficulties.length == 0) return 0;
+        double expected = 0;
+        for (float difficulty : difficulties) {
+            expected += probabilityCorrect(ability, difficulty);
+        }
+        return expected * 100 / difficulties.length;
+    }
+
+    public double getAbility() {
+        return ability;
+    }
+
+    public double getStandardError() {
+        return standardError;
+    }
+
+    public int getAskedCount() {
+        return askedCount;
+    }
+
+    private void updateEstimate() {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : logPosterior) {
+            if (value > max) max = value;
+        }
+
+        double total = 0;
+        double mean = 0;
+        double squares = 0;
+        for (int g = 0; g < GRID_SIZE; g++) {
+            double weight = Math.exp(logPosterior[g] - max);
+            total += weight;
+            mean += weight * grid[g];
+            squares += weight * grid[g] * grid[g];
+        }
+        mean /= total;
+        ability = mean;
+        standardError = Math.sqrt(Math.max(0, squares / total - mean * mean));
+    }
+
+    private static double probabilityCorrect(double ability, double difficulty) {
+        return 1.0 / (1.0 + Math.exp(difficulty - ability));
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.learnizone.quiz;
+
+import com.example.learnizone.models.Question;
+import com.example.learnizone.models.QuestionAnswer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Correction locale des réponses. Les réponses libres (FILL_IN_BLANK, SHORT_ANSWER)
+ * passent par un TextAnswerMatcher compilé une seule fois par question et par corrigé.
+ * Plusieurs réponses acceptées sont séparées par '|' dans correctAnswer.
+ */
+public class AnswerGrader {
+    private static final String ANSWER_SEPARATOR = "\\|";
+    private static final int MAX_EDITS = 2;
+
+    private static AnswerGrader instance;
+
+    private final Map<String, TextAnswerMatcher> matchers = new HashMap<>();
+
+    private AnswerGrader() {}
+
+    public static synchronized AnswerGrader getInstance() {
+        if (instance == null) {
+            instance = new AnswerGrader();
+        }
+        return instance;
+    }
+
+    /**
+     * Corrige les réponses libres d'un quiz et met à jour leur statut.
+     * Les autres types gardent la correction du serveur.
+     *
+     * @return le nombre de réponses libres correctes
+     */
+    public int gradeAll(List<Question> questions, List<QuestionAnswer> answers) {
+        Map<String, Question> questionsById = new HashMap<>();
+        for (Question question : questions) {
+            questionsById.put(question.getQuestionId(), question);
+        }
+
+        int correctCount = 0;
+        for (QuestionAnswer answer : answers) {
+            Question question = questionsById.get(answer.getQuestionId());
+            if (question == null || !isTextAnswer(question)) continue;
+
+            boolean correct = isCorrect(question, answer);
+            answer.setCorrect(correct);
+            if (correct) correctCount++;
+        }
+        return correctCount;
+    }
+
+    /**
+     * Réponses libres, corrigées par TextAnswerMatcher
+     */
+    public static boolean isTextAnswer(Question question) {
+        switch (question.getType()) {
+            case FILL_IN_BLANK:
+            case SHORT_ANSWER:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Vérifie si la réponse est correcte
+     */
+    public boolean isCorrect(Question question, QuestionAnswer answer) {
+        if (question == null || answer == null || question.getCorrectAnswer() == null) {
+            return false;
+        }
+
+        switch (question.getType()) {
+            case MULTIPLE_CHOICE:
+            case TRUE_FALSE:
+                return question.getCorrectAnswer().equals(answer.getUserAnswer());
+            case FILL_IN_BLANK:
+            case SHORT_ANSWER:
+                return getMatcher(question).matches(answer.getUserAnswer());
+            case MATCHING:
+                return answer.getUserAnswers() != null
+                    && new HashSet<>(answer.getUserAnswers()).equals(splitAnswers(question.getCorrectAnswer()));
+            case ESSAY:
+            default:
+                // Les rédactions sont corrigées par l'instructeur
+                return false;
+        }
+    }
+
+    /**
+     * Libère les comparateurs compilés (à appeler à la fin d'un quiz)
+     */
+    public synchronized void clear() {
+        matchers.clear();
+    }
+
+    private synchronized TextAnswerMatcher getMatcher(Question question) {
+        // Le corrigé fait partie de la clé : une question modifiée est recompilée
+        String key = question.getQuestionId() + '\u0000' + question.getCorrectAnswer();
+        TextAnswerMatcher matcher = matchers.get(key);
+        if (matcher == null) {
+            matcher = TextAnswerMatcher.compile(new ArrayList<>(splitAnswers(question.getCorrectAnswer())), MAX_EDITS);
+            matchers.put(key, matcher);
+        }
+        return matcher;
+    }
+
+    private static Set<String> splitAnswers(String correctAnswer) {
+        Set<String> answers = new HashSet<>();
+        for (String value : correctAnswer.split(ANSWER_SEPARATOR)) {
+            String trimmed = value.trim();
+            if (!trimmed.isEmpty()) {
+                answers.add(trimmed);
+            }
+        }
+        return answers;
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.learnizone.quiz;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.learnizone.models.QuizSummary;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Modèle local compact des difficultés de questions d'un quiz (échelle logit, modèle de Rasch).
+ * Construit à partir du résumé quizSummaries et conservé dans un petit fichier binaire,
+ * pour ne pas relire Firestore à chaque tentative.
+ */
+public class QuestionDifficultyModel {
+    private static final String TAG = "QuestionDifficultyModel";
+    private static final String DIRECTORY = "quiz_models";
+    private static final int FORMAT_VERSION = 1;
+    private static final float MAX_LOGIT = 4f;
+    private static final ExecutorService IO = Executors.newSingleThreadExecutor();
+
+    private final String[] questionIds;
+    private final float[] difficulties;
+    private final int[] sampleSizes;
+    private final Map<String, Integer> indexById;
+
+    private QuestionDifficultyModel(String[] questionIds, float[] difficulties, int[] sampleSizes) {
+        this.questionIds = questionIds;
+        this.difficulties = difficulties;
+        this.sampleSizes = sampleSizes;
+        this.indexById = new HashMap<>(questionIds.length * 2);
+        for (int i = 0; i < questionIds.length; i++) {
+            indexById.put(questionIds[i], i);
+        }
+    }
+
+    /**
+     * Construit le modèle depuis les statistiques agrégées
+     */
+    public static QuestionDifficultyModel fromSummary(QuizSummary summary) {
+        Map<String, QuizSummary.QuestionStats> questions = summary.getQuestions();
+        String[] ids = new String[questions.size()];
+        float[] difficulties = new float[ids.length];
+        int[] sampleSizes = new int[ids.length];
+
+        int i = 0;
+        for (Map.Entry<String, QuizSummary.QuestionStats> entry : questions.entrySet()) {
+            QuizSummary.QuestionStats stats = entry.getValue();
+            ids[i] = entry.getKey();
+            // Lissage de Laplace pour éviter les logits infinis sur peu de réponses
+            double successRate = (stats.getCorrect() + 1.0) / (stats.getAnswered() + 2.0);
+            difficulties[i] = clamp((float) Math.log((1 - successRate) / successRate));
+            sampleSizes[i] = (int) Math.min(Integer.MAX_VALUE, stats.getAnswered());
+            i++;
+        }
+        return new QuestionDifficultyModel(ids, difficulties, sampleSizes);
+    }
+
+    public static QuestionDifficultyModel empty() {
+        return new QuestionDifficultyModel(new String[0], new float[0], new int[0]);
+    }
+
+    /**
+     * Difficultés alignées sur l'ordre des questions ; 0 pour une question inconnue
+     */
+    public float[] difficultiesFor(List<String> orderedQuestionIds) {
+        float[] aligned = new float[orderedQuestionIds.size()];
+        for (int i = 0; i < aligned.length; i++) {
+            Integer index = indexById.get(orderedQuestionIds.get(i));
+            aligned[i] = index != null ? difficulties[index] : 0f;
+        }
+        return aligned;
+    }
+
+    public int size() {
+        return questionIds.length;
+    }
+
+    public int getSampleSize(String questionId) {
+        Integer index = indexById.get(questionId);
+        return index != null ? sampleSizes[index] : 0;
+    }
+
+    /**
+     * Charge le modèle local hors du thread principal
+     */
+    public static Task<QuestionDifficultyModel> loadAsync(Context context, String quizId) {
+        Context appContext = context.getApplicationContext();
+        return Tasks.call(IO, () -> load(appContext, quizId));
+    }
+
+    /**
+     * Sauvegarde le modèle hors du thread principal
+     */
+    public void saveAsync(Context context, String quizId) {
+        Context appContext = context.getApplicationContext();
+        IO.execute(() -> save(appContext, quizId));
+    }
+
+    /**
+     * Sauvegarde locale du modèle
+     */
+    public void save(Context context, String quizId) {
+        File file = fileFor(context, quizId);
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(questionIds.length);
+            for (int i = 0; i < questionIds.length; i++) {
+                out.writeUTF(questionIds[i]);
+                out.writeFloat(difficulties[i]);
+                out.writeInt(sampleSizes[i]);
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Error saving difficulty model for " + quizId, e);
+        }
+    }
+
+    /**
+     * Charge le modèle local, ou un modèle vide s'il n'existe pas encore
+     */
+    public static QuestionDifficultyModel load(Context context, String quizId) {
+        File file = fileFor(context, quizId);
+        if (!file.exists()) return empty();
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION) return empty();
+
+            int count = in.readInt();
+            String[] ids = new String[count];
+            float[] difficulties = new float[count];
+            int[] sampleSizes = new int[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = in.readUTF();
+                difficulties[i] = in.readFloat();
+                sampleSizes[i] = in.readInt();
+            }
+            return new QuestionDifficultyModel(ids, difficulties, sampleSizes);
+        } catch (IOException e) {
+            Log.e(TAG, "Error loading difficulty model for " + quizId, e);
+            return empty();
+        }
+    }
+
+    private static File fileFor(Context context, String quizId) {
+        File directory = new File(context.getFilesDir(), DIRECTORY);
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+        return new File(directory, quizId + ".bin");
+    }
+
+    private static float clamp(float logit) {
+        return Math.max(-MAX_LOGIT, Math.min(MAX_LOGIT, logit));
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.learnizone.quiz;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.WorkerThread;
+
+import com.example.learnizone.database.LearnIzoneDatabase;
+import com.example.learnizone.database.ReviewCard;
+import com.example.learnizone.database.ReviewCardDao;
+import com.example.learnizone.models.Question;
+import com.example.learnizone.models.QuestionAnswer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Planificateur de révisions espacées (SM-2).
+ * Les questions ratées deviennent des cartes stockées dans Room ; une file de priorité
+ * triée par date d'échéance permet de connaître les révisions dues sans parcourir la table.
+ */
+public class ReviewScheduler {
+    private static final String TAG = "ReviewScheduler";
+    private static ReviewScheduler instance;
+
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+    private static final int GRADE_FAILED = 1;
+    private static final int GRADE_GOOD = 4;
+
+    private final ReviewCardDao dao;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final PriorityQueue<ReviewCard> queue =
+        new PriorityQueue<>(16, (a, b) -> Long.compare(a.dueAt, b.dueAt));
+    private final Map<String, ReviewCard> cardsById = new HashMap<>();
+    private boolean loaded;
+
+    private ReviewScheduler(Context context) {
+        this.dao = LearnIzoneDatabase.getInstance(context).reviewCardDao();
+    }
+
+    public static synchronized ReviewScheduler getInstance(Context context) {
+        if (instance == null) {
+            instance = new ReviewScheduler(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Met à jour les cartes à partir des réponses d'une tentative (en arrière-plan)
+     */
+    public void recordQuizResults(String quizId, List<Question> questions, List<QuestionAnswer> answers) {
+        // Copie des données utiles : les objets du quiz peuvent encore changer côté UI
+        List<String> questionIds = new ArrayList<>();
+        List<String> questionTexts = new ArrayList<>();
+        List<Boolean> results = new ArrayList<>();
+        Map<String, Question> questionsById = new HashMap<>();
+        for (Question question : questions) {
+            questionsById.put(question.getQuestionId(), question);
+        }
+        for (QuestionAnswer answer : answers) {
+            Question question = questionsById.get(answer.getQuestionId());
+            if (question == null || !isAnswered(answer)) continue;
+            questionIds.add(question.getQuestionId());
+            questionTexts.add(question.getQuestionText());
+            results.add(answer.isCorrect());
+        }
+
+        executor.execute(() -> {
+            try {
+                ensureLoaded();
+                long now = System.currentTimeMillis();
+                List<ReviewCard> changed = new ArrayList<>();
+                for (int i = 0; i < questionIds.size(); i++) {
+                    ReviewCard card = applyResult(quizId, questionIds.get(i), questionTexts.get(i), results.get(i), now);
+                    if (card != null) changed.add(card);
+                }
+                if (!changed.isEmpty()) {
+                    dao.upsertAll(changed);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error recording quiz results", e);
+            }
+        });
+    }
+
+    /**
+     * Cartes dont l'échéance est passée, de la plus ancienne à la plus récente
+     */
+    @WorkerThread
+    public List<ReviewCard> getDueCards(long now, int limit) {
+        synchronized (queue) {
+            ensureLoaded();
+            // Les cartes dues sont en tête de file : on les retire puis on les remet
+            List<ReviewCard> due = new ArrayList<>();
+            while (due.size() < limit && queue.peek() != null && queue.peek().isDue(now)) {
+                due.add(queue.poll());
+            }
+            queue.addAll(due);
+            return due;
+        }
+    }
+
+    /**
+     * Nombre de cartes dues, compté par Room sur l'index dueAt
+     */
+    @WorkerThread
+    public int getDueCount(long now) {
+        return dao.countDue(now);
+    }
+
+    /**
+     * Date de la prochaine révision, -1 s'il n'y en a aucune
+     */
+    @WorkerThread
+    public long getNextDueAt() {
+        synchronized (queue) {
+            ensureLoaded();
+            ReviewCard next = queue.peek();
+            return next != null ? next.dueAt : -1;
+        }
+    }
+
+    private void ensureLoaded() {
+        synchronized (queue) {
+            if (loaded) return;
+            for (ReviewCard card : dao.getAll()) {
+                queue.add(card);
+                cardsById.put(card.cardId, card);
+            }
+            loaded = true;
+        }
+    }
+
+    private ReviewCard applyResult(String quizId, String questionId, String questionText,
+                                   boolean correct, long now) {
+        synchronized (queue) {
+            String cardId = ReviewCard.idFor(quizId, questionId);
+            ReviewCard card = cardsById.get(cardId);
+
+            if (card == null) {
+                if (correct) return null; // Seules les erreurs créent des cartes
+                card = new ReviewCard();
+                card.cardId = cardId;
+                card.quizId = quizId;
+                card.questionId = questionId;
+                cardsById.put(cardId, card);
+            } else {
+                if (correct && !card.isDue(now)) return null; // Révision anticipée ignorée
+                queue.remove(card);
+            }
+
+            card.questionText = questionText;
+            schedule(card, correct ? GRADE_GOOD : GRADE_FAILED, now);
+            queue.add(card);
+            return card;
+        }
+    }
+
+    /**
+     * Algorithme SM-2 : nouvel intervalle et facteur de facilité selon la note (0-5)
+     */
+    static void schedule(ReviewCard card, int grade, long now) {
+        if (grade < 3) {
+            card.repetitions = 0;
+            card.intervalDays = 1;
+            card.lapses++;
+        } else {
+            if (card.repetitions == 0) {
+                card.intervalDays = 1;
+            } else if (card.repetitions == 1) {
+                card.intervalDays = 6;
+            } else {
+                card.intervalDays = Math.round(card.intervalDays * card.easeFactor);
+            }
+            card.repetitions++;
+        }
+
+        int distance = 5 - grade;
+        card.easeFactor = Math.max(ReviewCard.MIN_EASE_FACTOR,
+            card.easeFactor + (0.1f - distance * (0.08f + distance * 0.02f)));
+        card.dueAt = now + card.intervalDays * DAY_MS;
+        card.updatedAt = now;
+    }
+
+    private static boolean isAnswered(QuestionAnswer answer) {
+        if (answer == null) return false;
+        if (answer.getUserAnswers() != null && !answer.getUserAnswers().isEmpty()) return true;
+        return answer.getUserAnswer() != null && !answer.getUserAnswer().trim().isEmpty();
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.learnizone.quiz;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Comparateur de réponses libres, compilé une fois par question.
+ * Normalise casse, accents, ponctuation et espaces, puis accepte une distance
+ * d'édition bornée (Levenshtein en bande). Aucune allocation par appel une fois
+ * le tampon dimensionné ; les appels sont synchronisés car les tampons sont partagés.
+ */
+public final class TextAnswerMatcher {
+
+    private static final char FIRST_FOLDED = '\u00C0'; // À
+    private static final char LAST_FOLDED = '\u024F';  // fin du latin étendu B
+    private static final char[] FOLD_TABLE = buildFoldTable();
+
+    private final char[][] accepted;
+    private final int[] allowedEdits;
+    private char[] buffer;
+    private int[] previousRow;
+    private int[] currentRow;
+
+    private TextAnswerMatcher(char[][] accepted, int[] allowedEdits, int maxLength) {
+        this.accepted = accepted;
+        this.allowedEdits = allowedEdits;
+        this.buffer = new char[Math.max(16, maxLength * 2)];
+        this.previousRow = new int[maxLength + 1];
+        this.currentRow = new int[maxLength + 1];
+    }
+
+    /**
+     * Compile les réponses acceptées ; maxEdits plafonne la tolérance aux fautes de frappe
+     */
+    public static TextAnswerMatcher compile(List<String> acceptedAnswers, int maxEdits) {
+        List<char[]> normalized = new ArrayList<>();
+        char[] scratch = new char[64];
+        int maxLength = 0;
+
+        for (String answer : acceptedAnswers) {
+            if (answer == null) continue;
+            if (scratch.length < answer.length() * 2) {
+                scratch = new char[answer.length() * 2];
+            }
+            int length = normalize(answer, scratch);
+            if (length == 0) continue;
+
+            char[] value = new char[length];
+            System.arraycopy(scratch, 0, value, 0, length);
+            normalized.add(value);
+            maxLength = Math.max(maxLength, length);
+        }
+
+        char[][] accepted = normalized.toArray(new char[0][]);
+        int[] allowedEdits = new int[accepted.length];
+        for (int i = 0; i < accepted.length; i++) {
+            allowedEdits[i] = Math.min(maxEdits, toleranceFor(accepted[i]));
+        }
+        return new TextAnswerMatcher(accepted, allowedEdits, maxLength);
+    }
+
+    /**
+     * Vérifie si la réponse correspond à l'une des réponses acceptées
+     */
+    public synchronized boolean matches(CharSequence answer) {
+        if (answer == null || accepted.length == 0) return false;
+
+        ensureBufferCapacity(answer.length());
+        int length = normalize(answer, buffer);
+        if (length == 0) return false;
+
+        for (int i = 0; i < accepted.length; i++) {
+            char[] candidate = accepted[i];
+            int maxEdits = allowedEdits[i];
+            if (Math.abs(candidate.length - length) > maxEdits) continue;
+            if (boundedDistance(candidate, buffer, length, maxEdits) <= maxEdits) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indique si le texte contient autre chose que des espaces ou de la ponctuation
+     */
+    public static boolean hasContent(CharSequence text) {
+        if (text == null) return false;
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isLetterOrDigit(text.charAt(i))) return true;
+        }
+        return false;
+    }
+
+    private void ensureBufferCapacity(int inputLength) {
+        // Les ligatures (œ, æ, ß) peuvent doubler la longueur
+        if (buffer.length < inputLength * 2) {
+            buffer = new char[inputLength * 2];
+        }
+    }
+
+    /**
+     * Normalise dans out et retourne la longueur écrite
+     */
+    static int normalize(CharSequence input, char[] out) {
+        int length = 0;
+        boolean pendingSpace = false;
+
+        for (int i = 0; i < input.length(); i++) {
+            char c = Character.toLowerCase(input.charAt(i));
+
+            if (!Character.isLetterOrDigit(c)) {
+                // Ponctuation et espaces deviennent un séparateur unique
+                pendingSpace = length > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                out[length++] = ' ';
+                pendingSpace = false;
+            }
+
+            switch (c) {
+                case 'œ':
+                    out[length++] = 'o';
+                    out[length++] = 'e';
+                    break;
+                case 'æ':
+                    out[length++] = 'a';
+                    out[length++] = 'e';
+                    break;
+                case 'ß':
+                    out[length++] = 's';
+                    out[length++] = 's';
+                    break;
+                default:
+                    out[length++] = c >= FIRST_FOLDED && c <= LAST_FOLDED ? FOLD_TABLE[c - FIRST_FOLDED] : c;
+                    break;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Distance de Levenshtein limitée à la bande |i - j| <= maxEdits.
+     * Retourne maxEdits + 1 dès que la distance dépasse la borne.
+     */
+    private int boundedDistance(char[] target, char[] input, int inputLength, int maxEdits) {
+        int targetLength = target.length;
+        int overflow = maxEdits + 1;
+        int[] previous = previousRow;
+        int[] current = currentRow;
+
+        for (int j = 0; j <= targetLength; j++) {
+            previous[j] = Math.min(j, overflow);
+        }
+
+        for (int i = 1; i <= inputLength; i++) {
+            int from = Math.max(1, i - maxEdits);
+            int to = Math.min(targetLength, i + maxEdits);
+            char c = input[i - 1];
+
+            current[from - 1] = from == 1 ? Math.min(i, overflow) : overflow;
+            int rowMin = current[from - 1];
+
+            for (int j = from; j <= to; j++) {
+                int substitution = previous[j - 1] + (target[j - 1] == c ? 0 : 1);
+                int deletion = previous[j] + 1;
+                int insertion = current[j - 1] + 1;
+                int value = Math.min(substitution, Math.min(deletion, insertion));
+                if (value > overflow) value = overflow;
+                current[j] = value;
+                if (value < rowMin) rowMin = value;
+            }
+            if (to < targetLength) {
+                current[to + 1] = overflow;
+            }
+            if (rowMin > maxEdits) {
+                return overflow;
+            }
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[targetLength];
+    }
+
+    /**
+     * Tolérance selon la longueur : aucune faute pour les réponses courtes ou numériques
+     */
+    private static int toleranceFor(char[] answer) {
+        boolean numeric = true;
+        for (char c : answer) {
+            if (!Character.isDigit(c) && c != ' ') {
+                numeric = false;
+                break;
+            }
+        }
+        if (numeric || answer.length <= 3) return 0;
+        if (answer.length <= 7) return 1;
+        return 2;
+    }
+
+    private static char[] buildFoldTable() {
+        // Calculée une seule fois : lettre de base de chaque caractère latin accentué
+        char[] table = new char[LAST_FOLDED - FIRST_FOLDED + 1];
+        for (char c = FIRST_FOLDED; c <= LAST_FOLDED; c++) {
+            String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            table[c - FIRST_FOLDED] = Character.toLowerCase(decomposed.charAt(0));
+        }
+        return table;
+    }
+}
@@ -0,0 +1,389 @@
+package com.example.learnizone.recommendations;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.learnizone.auth.AuthManager;
+import com.example.learnizone.auth.Session;
+import com.example.learnizone.models.Course;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Recommandations calculées sur l'appareil, sans appel serveur.
+ * Chaque cours est un vecteur compact : catégorie (one-hot), niveau (one-hot) et note.
+ * Le profil de l'apprenant est un vecteur de mêmes dimensions, mis à jour à chaque
+ * inscription ou résultat de quiz avec un oubli exponentiel ; le score d'un cours est
+ * le produit scalaire des deux et les K meilleurs sont retenus par un tas de taille K.
+ * Le profil est propre à chaque utilisateur et rechargé à chaque changement de session,
+ * hors du thread principal : getProfileRevision() est incrémenté une fois le profil lu.
+ */
+public class RecommendationEngine {
+    private static final String TAG = "RecommendationEngine";
+    private static final String PREFS_NAME = "recommendations";
+    private static final String KEY_CATEGORY = "category:";
+    private static final String KEY_LEVEL = "level:";
+    private static final String KEY_ENROLLED = "enrolled";
+
+    /** Niveaux, dans l'ordre de progression */
+    static final String[] LEVELS = {"Débutant", "Intermédiaire", "Avancé"};
+
+    /** Oubli appliqué au profil à chaque nouvelle activité */
+    private static final float DECAY = 0.9f;
+    private static final float ENROLLMENT_WEIGHT = 1f;
+    private static final float QUIZ_WEIGHT = 0.5f;
+    /** Poids de la note (sur 5) face à l'affinité, seule composante au démarrage à froid */
+    private static final float RATING_WEIGHT = 0.3f;
+    private static final double QUIZ_MASTERED = 80;
+    private static final double QUIZ_STRUGGLING = 50;
+
+    private static RecommendationEngine instance;
+
+    private final Context context;
+    private final FirebaseFirestore db;
+    private final MutableLiveData<Integer> profileRevision = new MutableLiveData<>(0);
+    private final ExecutorService loader = Executors.newSingleThreadExecutor();
+    private int revision;
+
+    // Utilisateur dont le profil est chargé (null : hors connexion)
+    private String userId;
+    private boolean switched;
+    // null tant que le profil de userId est en cours de lecture
+    private SharedPreferences preferences;
+    // Activité enregistrée pendant la lecture du profil, appliquée ensuite
+    private final List<Runnable> pendingUpdates = new ArrayList<>();
+    private ListenerRegistration enrollmentsRegistration;
+    // Inscriptions de users/{userId}, suivies pendant toute la session
+    private final Set<String> remoteEnrollments = new HashSet<>();
+
+    // Profil de l'apprenant : poids par catégorie et par niveau
+    private final Map<String, Float> categoryWeights = new HashMap<>();
+    private final float[] levelWeights = new float[LEVELS.length];
+    private final Set<String> enrolledCourses = new HashSet<>();
+
+    // Vecteurs du dernier catalogue évalué, recalculés seulement si la liste change
+    private List<Course> indexedCatalog;
+    private Map<String, Integer> categoryIndex;
+    private float[][] features;
+
+    private RecommendationEngine(Context context) {
+        this.context = context;
+        this.db = FirebaseFirestore.getInstance();
+        AuthManager authManager = AuthManager.getInstance(context);
+        switchUser(authManager.getUserId());
+        authManager.getSession().observeForever(this::onSessionChanged);
+    }
+
+    /**
+     * À appeler depuis le thread principal (abonnement à la session)
+     */
+    public static synchronized RecommendationEngine getInstance(Context context) {
+        if (instance == null) {
+            instance = new RecommendationEngine(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Incrémenté quand le profil change hors de l'appelant : changement d'utilisateur
+     * ou nouvelles inscriptions faites sur un autre écran ou appareil
+     */
+    public LiveData<Integer> getProfileRevision() {
+        return profileRevision;
+    }
+
+    /**
+     * Les k cours du catalogue les plus proches du profil, hors cours suivis
+     */
+    public synchronized List<Course> recommend(List<Course> catalog, int k) {
+        if (catalog.isEmpty() || k <= 0) return Collections.emptyList();
+        if (catalog != indexedCatalog) {
+            index(catalog);
+        }
+
+        float[] profile = profileVector();
+        // Tas minimal : la racine est le moins bon des k retenus
+        PriorityQueue<ScoredCourse> top = new PriorityQueue<>(k);
+        for (int i = 0; i < catalog.size(); i++) {
+            Course course = catalog.get(i);
+            if (enrolledCourses.contains(course.getId())) continue;
+
+            float score = dot(profile, features[i]);
+            if (top.size() < k) {
+                top.add(new ScoredCourse(course, score));
+            } else if (score > top.peek().score) {
+                top.poll();
+                top.add(new ScoredCourse(course, score));
+            }
+        }
+
+        List<Course> result = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            result.add(top.poll().course);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Prend en compte une inscription
+     */
+    public synchronized void recordEnrollment(Course course) {
+        if (course == null) return;
+        if (preferences == null) {
+            pendingUpdates.add(() -> recordEnrollment(course));
+            return;
+        }
+        if (!enrolledCourses.add(course.getId())) return;
+        decay();
+        addCategory(course.getCategory(), ENROLLMENT_WEIGHT);
+        addLevel(levelOf(course.getDifficulty()), ENROLLMENT_WEIGHT);
+        save();
+    }
+
+    /**
+     * Prend en compte un résultat de quiz : la catégorie gagne du poids et le niveau
+     * visé monte si le quiz est maîtrisé, descend s'il a été difficile
+     */
+    public synchronized void recordQuizResult(Course course, double percentage) {
+        if (course == null) return;
+        if (preferences == null) {
+            pendingUpdates.add(() -> recordQuizResult(course, percentage));
+            return;
+        }
+        int level = levelOf(course.getDifficulty());
+        if (percentage >= QUIZ_MASTERED) {
+            level = Math.min(level + 1, LEVELS.length - 1);
+        } else if (percentage < QUIZ_STRUGGLING) {
+            level = Math.max(level - 1, 0);
+        }
+        decay();
+        addCategory(course.getCategory(), QUIZ_WEIGHT);
+        addLevel(level, QUIZ_WEIGHT);
+        save();
+    }
+
+    /**
+     * Ajoute au profil les inscriptions de la session pas encore prises en compte
+     * (aucune lecture : elles sont suivies par un écouteur sur users/{userId})
+     *
+     * @return le nombre de nouvelles inscriptions ; 0 tant que le profil est en cours de lecture
+     */
+    public synchronized int applyEnrollments(Map<String, Course> catalogById) {
+        if (preferences == null) return 0;
+        int added = 0;
+        for (String courseId : remoteEnrollments) {
+            Course course = catalogById.get(courseId);
+            if (course != null && !enrolledCourses.contains(course.getId())) {
+                recordEnrollment(course);
+                added++;
+            }
+        }
+        return added;
+    }
+
+    private void onSessionChanged(Session session) {
+        switchUser(session.isLoggedIn() ? session.getUserId() : null);
+    }
+
+    /**
+     * Lit le profil de l'utilisateur en arrière-plan et suit ses inscriptions jusqu'au
+     * prochain changement ; d'ici là le profil est vide
+     */
+    private synchronized void switchUser(String nextUserId) {
+        if (switched && Objects.equals(nextUserId, userId)) return;
+        switched = true;
+
+        if (enrollmentsRegistration != null) {
+            enrollmentsRegistration.remove();
+            enrollmentsRegistration = null;
+        }
+        userId = nextUserId;
+        preferences = null;
+        pendingUpdates.clear();
+        categoryWeights.clear();
+        Arrays.fill(levelWeights, 0f);
+        enrolledCourses.clear();
+        remoteEnrollments.clear();
+        loader.execute(() -> {
+            SharedPreferences loaded = context.getSharedPreferences(
+                nextUserId != null ? PREFS_NAME + "_" + nextUserId : PREFS_NAME, Context.MODE_PRIVATE);
+            Map<String, ?> values = loaded.getAll();
+            synchronized (this) {
+                // Remplacé entre-temps par un autre changement de session
+                if (!Objects.equals(nextUserId, userId) || preferences != null) return;
+                preferences = loaded;
+                load(values);
+                for (Runnable update : pendingUpdates) {
+                    update.run();
+                }
+                pendingUpdates.clear();
+                profileRevision.postValue(++revision);
+            }
+        });
+        if (nextUserId != null) {
+            enrollmentsRegistration = db.collection("users").document(nextUserId)
+                .addSnapshotListener((user, e) -> {
+                    if (e != null) {
+                        Log.e(TAG, "Error listening to enrollments for " + nextUserId, e);
+                        return;
+                    }
+                    if (user == null || !user.exists()) return;
+                    Object enrolled = user.get("enrolledCourses");
+                    Set<String> courseIds = new HashSet<>();
+                    if (enrolled instanceof List) {
+                        for (Object courseId : (List<?>) enrolled) {
+                            courseIds.add(String.valueOf(courseId));
+                        }
+                    }
+                    synchronized (this) {
+                        // Rappel d'une session précédente, ou document modifié sans nouvelle inscription
+                        if (!nextUserId.equals(userId) || remoteEnrollments.equals(courseIds)) return;
+                        remoteEnrollments.clear();
+                        remoteEnrollments.addAll(courseIds);
+                        profileRevision.postValue(++revision);
+                    }
+                });
+        }
+    }
+
+    private void index(List<Course> catalog) {
+        categoryIndex = new HashMap<>();
+        for (Course course : catalog) {
+            if (!categoryIndex.containsKey(course.getCategory())) {
+                categoryIndex.put(course.getCategory(), categoryIndex.size());
+            }
+        }
+
+        int dimensions = categoryIndex.size() + LEVELS.length + 1;
+        features = new float[catalog.size()][];
+        for (int i = 0; i < catalog.size(); i++) {
+            Course course = catalog.get(i);
+            float[] vector = new float[dimensions];
+            vector[categoryIndex.get(course.getCategory())] = 1f;
+            vector[categoryIndex.size() + levelOf(course.getDifficulty())] = 1f;
+            vector[dimensions - 1] = (float) (course.getRating() / 5.0);
+            features[i] = vector;
+        }
+        indexedCatalog = catalog;
+    }
+
+    /**
+     * Profil aligné sur les dimensions du catalogue indexé, affinités ramenées à [0, 1]
+     */
+    private float[] profileVector() {
+        int dimensions = categoryIndex.size() + LEVELS.length + 1;
+        float[] profile = new float[dimensions];
+
+        float max = 0;
+        for (float weight : categoryWeights.values()) max = Math.max(max, weight);
+        for (float weight : levelWeights) max = Math.max(max, weight);
+        if (max > 0) {
+            for (Map.Entry<String, Integer> category : categoryIndex.entrySet()) {
+                Float weight = categoryWeights.get(category.getKey());
+                if (weight != null) profile[category.getValue()] = weight / max;
+            }
+            for (int level = 0; level < LEVELS.length; level++) {
+                profile[categoryIndex.size() + level] = levelWeights[level] / max;
+            }
+        }
+        profile[dimensions - 1] = RATING_WEIGHT;
+        return profile;
+    }
+
+    private static float dot(float[] a, float[] b) {
+        float sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private void decay() {
+        for (Map.Entry<String, Float> category : categoryWeights.entrySet()) {
+            category.setValue(category.getValue() * DECAY);
+        }
+        for (int level = 0; level < LEVELS.length; level++) {
+            levelWeights[level] *= DECAY;
+        }
+    }
+
+    private void addCategory(String category, float weight) {
+        if (category == null) return;
+        Float current = categoryWeights.get(category);
+        categoryWeights.put(category, (current != null ? current : 0f) + weight);
+    }
+
+    private void addLevel(int level, float weight) {
+        levelWeights[level] += weight;
+    }
+
+    static int levelOf(String difficulty) {
+        for (int level = 0; level < LEVELS.length; level++) {
+            if (LEVELS[level].equals(difficulty)) return level;
+        }
+        return 0;
+    }
+
+    private void load(Map<String, ?> values) {
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            if (!(entry.getValue() instanceof Float)) continue;
+            float weight = (Float) entry.getValue();
+            if (entry.getKey().startsWith(KEY_CATEGORY)) {
+                categoryWeights.put(entry.getKey().substring(KEY_CATEGORY.length()), weight);
+            } else if (entry.getKey().startsWith(KEY_LEVEL)) {
+                levelWeights[levelOf(entry.getKey().substring(KEY_LEVEL.length()))] = weight;
+            }
+        }
+        Object enrolled = values.get(KEY_ENROLLED);
+        if (enrolled instanceof Set) {
+            for (Object courseId : (Set<?>) enrolled) {
+                enrolledCourses.add(String.valueOf(courseId));
+            }
+        }
+    }
+
+    private void save() {
+        SharedPreferences.Editor editor = preferences.edit().clear();
+        for (Map.Entry<String, Float> category : categoryWeights.entrySet()) {
+            editor.putFloat(KEY_CATEGORY + category.getKey(), category.getValue());
+        }
+        for (int level = 0; level < LEVELS.length; level++) {
+            editor.putFloat(KEY_LEVEL + LEVELS[level], levelWeights[level]);
+        }
+        editor.putStringSet(KEY_ENROLLED, new HashSet<>(enrolledCourses));
+        editor.apply();
+    }
+
+    private static final class ScoredCourse implements Comparable<ScoredCourse> {
+        final Course course;
+        final float score;
+
+        ScoredCourse(Course course, float score) {
+            this.course = course;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(ScoredCourse other) {
+            return Float.compare(score, other.score);
+        }
+    }
+}
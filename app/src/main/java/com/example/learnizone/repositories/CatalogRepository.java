@@ -0,0 +1,355 @@
+package com.example.learnizone.repositories;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.learnizone.catalog.format.CatalogReader;
+import com.example.learnizone.catalog.format.CatalogRecord;
+import com.example.learnizone.catalog.format.CatalogSchema.Section;
+import com.example.learnizone.catalog.format.CatalogWriter;
+import com.example.learnizone.firebase.FirebaseManager;
+import com.example.learnizone.models.Course;
+import com.example.learnizone.models.Lesson;
+import com.example.learnizone.models.LessonResource;
+import com.example.learnizone.models.Module;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catalogue local (cours, modules, leçons, ressources) stocké dans un instantané binaire.
+ * Le fichier est projeté en mémoire au démarrage, hors du thread principal, et chaque
+ * enregistrement n'est décodé qu'à l'affichage : le catalogue complet est disponible
+ * avant la réponse de Firestore.
+ * À la première exécution, le catalogue de départ généré au build (assets) sert de base.
+ */
+public class CatalogRepository {
+    private static final String TAG = "CatalogRepository";
+    private static final String SNAPSHOT_FILE = "catalog.bin";
+    private static final String SEED_ASSET = "catalog_seed.bin";
+    private static final long FETCH_TIMEOUT_SECONDS = 30;
+
+    private static CatalogRepository instance;
+
+    private final File snapshotFile;
+    private final FirebaseFirestore db;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final MutableLiveData<List<Course>> courses = new MutableLiveData<>();
+    private final TaskCompletionSource<Void> opened = new TaskCompletionSource<>();
+
+    private volatile CatalogReader reader;
+
+    private CatalogRepository(Context context) {
+        this.snapshotFile = new File(context.getFilesDir(), SNAPSHOT_FILE);
+        this.db = FirebaseManager.getInstance().getFirestore();
+        // Premier travail de l'exécuteur : un rafraîchissement part toujours de l'instantané ouvert
+        executor.execute(() -> {
+            reader = newest(open(snapshotFile), openSeed(context));
+            courses.postValue(coursesOf(reader));
+            opened.setResult(null);
+        });
+    }
+
+    public static synchronized CatalogRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new CatalogRepository(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Liste des cours, publiée une fois l'instantané ouvert ; vide si ni instantané
+     * ni catalogue de départ n'est disponible
+     */
+    public LiveData<List<Course>> getCourses() {
+        return courses;
+    }
+
+    /**
+     * Terminée une fois l'instantané local ouvert : avant, les lectures ne trouvent rien
+     */
+    public Task<Void> whenOpened() {
+        return opened.getTask();
+    }
+
+    public Course getCourse(String courseId) {
+        CatalogReader current = reader;
+        CatalogRecord record = current != null ? current.find(Section.COURSES, courseId) : null;
+        return record != null ? toCourse(record) : null;
+    }
+
+    public List<Module> getModules(String courseId) {
+        CatalogReader current = reader;
+        if (current == null) return Collections.emptyList();
+        return map(current.group(Section.MODULES, courseId), CatalogRepository::toModule);
+    }
+
+    public List<Lesson> getLessons(String courseId) {
+        CatalogReader current = reader;
+        if (current == null) return Collections.emptyList();
+        return map(current.group(Section.LESSONS, courseId), CatalogRepository::toLesson);
+    }
+
+    public List<LessonResource> getResources(String lessonId) {
+        CatalogReader current = reader;
+        if (current == null) return Collections.emptyList();
+        return map(current.group(Section.RESOURCES, lessonId), CatalogRepository::toResource);
+    }
+
+    /**
+     * Ne récupère que les documents modifiés depuis le watermark de l'instantané courant
+     * (le catalogue de départ fourni avec l'application, à la première exécution),
+     * puis les fusionne dans un nouvel instantané ; les documents marqués isDeleted en sont retirés
+     */
+    public void refresh() {
+        executor.execute(() -> {
+            try {
+                CatalogReader base = reader;
+                long since = base != null ? base.getWatermark() : 0;
+
+                Map<Section, Task<QuerySnapshot>> tasks = new EnumMap<>(Section.class);
+                tasks.put(Section.COURSES, fetchSince(FirebaseManager.COLLECTION_COURSES, since));
+                tasks.put(Section.MODULES, fetchSince(FirebaseManager.COLLECTION_MODULES, since));
+                tasks.put(Section.LESSONS, fetchSince(FirebaseManager.COLLECTION_LESSONS, since));
+                tasks.put(Section.RESOURCES, fetchSince(FirebaseManager.COLLECTION_LESSON_RESOURCES, since));
+                Tasks.await(Tasks.whenAll(tasks.values()), FETCH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+                int changed = 0;
+                for (Task<QuerySnapshot> task : tasks.values()) {
+                    changed += task.getResult().size();
+                }
+                if (changed == 0) return;
+
+                long watermark = since;
+                Map<Section, Map<String, Map<String, Object>>> merged = new EnumMap<>(Section.class);
+                for (Map.Entry<Section, Task<QuerySnapshot>> entry : tasks.entrySet()) {
+                    Section section = entry.getKey();
+                    Map<String, Map<String, Object>> byId = new LinkedHashMap<>();
+                    if (base != null) {
+                        for (CatalogRecord record : base.records(section)) {
+                            byId.put(record.getString("id"), record.toMap());
+                        }
+                    }
+                    for (DocumentSnapshot document : entry.getValue().getResult().getDocuments()) {
+                        Map<String, Object> record = toRecord(document);
+                        Object updatedAt = record.get(FirebaseManager.FIELD_UPDATED_AT);
+                        if (updatedAt instanceof Date) {
+                            watermark = Math.max(watermark, ((Date) updatedAt).getTime());
+                        }
+                        if (Boolean.TRUE.equals(record.get(FirebaseManager.FIELD_IS_DELETED))) {
+                            byId.remove(document.getId());
+                        } else {
+                            byId.put(document.getId(), record);
+                        }
+                    }
+                    merged.put(section, byId);
+                }
+
+                CatalogWriter snapshot = new CatalogWriter(watermark);
+                for (Map.Entry<Section, Map<String, Map<String, Object>>> section : merged.entrySet()) {
+                    for (Map<String, Object> record : section.getValue().values()) {
+                        snapshot.add(section.getKey(), record);
+                    }
+                }
+                Log.d(TAG, "Catalog delta: " + changed + " documents since " + since);
+                replaceSnapshot(snapshot);
+            } catch (Exception e) {
+                Log.e(TAG, "Error refreshing catalog", e);
+            }
+        });
+    }
+
+    private Task<QuerySnapshot> fetchSince(String collection, long since) {
+        if (since <= 0) {
+            return db.collection(collection).get();
+        }
+        return db.collection(collection)
+            .whereGreaterThan(FirebaseManager.FIELD_UPDATED_AT, new Timestamp(new Date(since)))
+            .get();
+    }
+
+    /**
+     * Écriture dans un fichier temporaire puis renommage : un lecteur déjà ouvert
+     * garde sa projection de l'ancien fichier
+     */
+    private void replaceSnapshot(CatalogWriter writer) throws IOException {
+        File temp = new File(snapshotFile.getPath() + ".tmp");
+        try (OutputStream out = new FileOutputStream(temp)) {
+            writer.writeTo(out);
+        }
+        if (!temp.renameTo(snapshotFile)) {
+            throw new IOException("Cannot replace " + snapshotFile);
+        }
+        reader = CatalogReader.open(snapshotFile);
+        courses.postValue(coursesOf(reader));
+    }
+
+    /**
+     * Catalogue de départ, projeté directement depuis l'APK (asset non compressé)
+     */
+    private static CatalogReader openSeed(Context context) {
+        try (AssetFileDescriptor descriptor = context.getAssets().openFd(SEED_ASSET);
+             FileInputStream in = descriptor.createInputStream()) {
+            return new CatalogReader(in.getChannel().map(FileChannel.MapMode.READ_ONLY,
+                descriptor.getStartOffset(), descriptor.getLength()));
+        } catch (IOException e) {
+            Log.e(TAG, "Seed catalog unavailable", e);
+            return null;
+        }
+    }
+
+    /**
+     * Après une mise à jour de l'application, le catalogue fourni peut être plus récent
+     * que l'instantané local
+     */
+    private static CatalogReader newest(CatalogReader local, CatalogReader seed) {
+        if (local == null) return seed;
+        if (seed == null) return local;
+        return seed.getWatermark() > local.getWatermark() ? seed : local;
+    }
+
+    private static CatalogReader open(File file) {
+        if (!file.exists()) return null;
+        try {
+            return CatalogReader.open(file);
+        } catch (IOException e) {
+            Log.e(TAG, "Unreadable catalog snapshot, ignoring it", e);
+            return null;
+        }
+    }
+
+    private static Map<String, Object> toRecord(DocumentSnapshot document) {
+        Map<String, Object> data = document.getData();
+        Map<String, Object> record = new HashMap<>(data != null ? data : Collections.emptyMap());
+        for (Map.Entry<String, Object> entry : record.entrySet()) {
+            if (entry.getValue() instanceof Timestamp) {
+                entry.setValue(((Timestamp) entry.getValue()).toDate());
+            }
+        }
+        record.put("id", document.getId());
+        return record;
+    }
+
+    private static List<Course> coursesOf(CatalogReader reader) {
+        if (reader == null) return Collections.emptyList();
+        return map(reader.records(Section.COURSES), CatalogRepository::toCourse);
+    }
+
+    private interface Mapper<T> {
+        T map(CatalogRecord record);
+    }
+
+    /**
+     * Liste paresseuse : chaque élément est décodé au premier accès puis conservé
+     */
+    private static <T> List<T> map(List<CatalogRecord> records, Mapper<T> mapper) {
+        Object[] cache = new Object[records.size()];
+        return new AbstractList<T>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public T get(int index) {
+                Object value = cache[index];
+                if (value == null) {
+                    value = mapper.map(records.get(index));
+                    cache[index] = value;
+                }
+                return (T) value;
+            }
+
+            @Override
+            public int size() {
+                return cache.length;
+            }
+        };
+    }
+
+    private static Course toCourse(CatalogRecord record) {
+        return new Course(
+            record.getString("id"),
+            record.getString("title", ""),
+            record.getString("category", ""),
+            record.getString("thumbnailUrl"),
+            formatDuration(record.getInt("duration", 0)),
+            record.getDouble("rating", 0),
+            levelLabel(record.getString("level")));
+    }
+
+    private static Module toModule(CatalogRecord record) {
+        return new Module(
+            record.getString("id"),
+            record.getString("title", ""),
+            formatDuration(record.getInt("duration", 0)));
+    }
+
+    private static Lesson toLesson(CatalogRecord record) {
+        Lesson lesson = new Lesson();
+        lesson.setLessonId(record.getString("id"));
+        lesson.setCourseId(record.getString("courseId"));
+        lesson.setSectionId(record.getString("sectionId"));
+        lesson.setTitle(record.getString("title"));
+        lesson.setDescription(record.getString("description"));
+        lesson.setType(Lesson.LessonType.fromString(record.getString("type")));
+        lesson.setVideoUrl(record.getString("videoUrl"));
+        lesson.setAudioUrl(record.getString("audioUrl"));
+        lesson.setDuration(record.getInt("duration", 0));
+        lesson.setOrderIndex(record.getInt("orderIndex", 0));
+        lesson.setPublished(record.getBoolean("isPublished", false));
+        lesson.setFree(record.getBoolean("isFree", false));
+        if (record.has("updatedAt")) {
+            lesson.setUpdatedAt(new Date(record.getLong("updatedAt", 0)));
+        }
+        return lesson;
+    }
+
+    private static LessonResource toResource(CatalogRecord record) {
+        LessonResource resource = new LessonResource();
+        resource.setResourceId(record.getString("id"));
+        resource.setLessonId(record.getString("lessonId"));
+        resource.setTitle(record.getString("title"));
+        resource.setType(LessonResource.ResourceType.fromString(record.getString("type")));
+        resource.setUrl(record.getString("url"));
+        resource.setFileName(record.getString("fileName"));
+        resource.setFileSize(record.getLong("fileSize", 0));
+        resource.setDownloadable(record.getBoolean("isDownloadable", false));
+        return resource;
+    }
+
+    private static String formatDuration(int minutes) {
+        int hours = minutes / 60;
+        return hours > 0
+            ? String.format("%dh %02dmin", hours, minutes % 60)
+            : String.format("%dmin", minutes);
+    }
+
+    private static String levelLabel(String level) {
+        if ("INTERMEDIATE".equals(level)) return "Intermédiaire";
+        if ("ADVANCED".equals(level)) return "Avancé";
+        return "Débutant";
+    }
+}
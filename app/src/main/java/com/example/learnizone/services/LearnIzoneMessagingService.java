@@ -0,0 +1,117 @@
+package com.example.learnizone.services;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.learnizone.database.NotificationEntity;
+import com.example.learnizone.managers.LearnIzoneNotificationManager;
+import com.example.learnizone.managers.NotificationInbox;
+import com.example.learnizone.models.UserNotification;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.messaging.FirebaseMessagingService;
+import com.google.firebase.messaging.RemoteMessage;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Réception des messages de données FCM.
+ * Le message porte la notification complète sous forme compacte : elle est écrite
+ * directement dans la boîte de réception locale puis affichée. Le document Firestore
+ * n'est relu que si le serveur a dû tronquer le contenu (limite de 4 Ko).
+ * Un message destiné à un autre compte (utilisé auparavant sur l'appareil) est ignoré.
+ */
+public class LearnIzoneMessagingService extends FirebaseMessagingService {
+    private static final String TAG = "MessagingService";
+    private static final long FETCH_TIMEOUT_SECONDS = 10;
+
+    // Clés du message de données
+    static final String KEY_ID = "id";
+    static final String KEY_USER_ID = "uid";
+    static final String KEY_TYPE = "ty";
+    static final String KEY_TITLE = "ti";
+    static final String KEY_MESSAGE = "msg";
+    static final String KEY_IMAGE = "img";
+    static final String KEY_PRIORITY = "pr";
+    static final String KEY_CREATED_AT = "ts";
+    static final String KEY_DATA = "d";
+    static final String KEY_TRUNCATED = "tr";
+
+    @Override
+    public void onNewToken(@NonNull String token) {
+        LearnIzoneNotificationManager.getInstance(getApplicationContext()).onNewToken(token);
+    }
+
+    @Override
+    public void onMessageReceived(@NonNull RemoteMessage remoteMessage) {
+        Map<String, String> payload = remoteMessage.getData();
+        String notificationId = payload.get(KEY_ID);
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        if (notificationId == null || user == null) return;
+        // Destinataire absent ou différent du compte connecté
+        if (!user.getUid().equals(payload.get(KEY_USER_ID))) return;
+
+        NotificationEntity entity = "1".equals(payload.get(KEY_TRUNCATED))
+            ? fetchFull(notificationId, payload, user.getUid())
+            : fromPayload(notificationId, payload, user.getUid());
+
+        // Supprimée, déjà reçue (message dupliqué) ou déjà synchronisée : rien à afficher
+        if (entity == null || !NotificationInbox.getInstance(getApplicationContext()).ingest(entity)) return;
+
+        UserNotification notification = entity.toNotification();
+        LearnIzoneNotificationManager manager = LearnIzoneNotificationManager.getInstance(getApplicationContext());
+        if (manager.isNotificationTypeEnabled(notification.getType())) {
+            manager.displayNotification(notification);
+        }
+    }
+
+    private static NotificationEntity fromPayload(String notificationId, Map<String, String> payload, String userId) {
+        NotificationEntity entity = new NotificationEntity();
+        entity.id = notificationId;
+        entity.userId = userId;
+        entity.type = payload.get(KEY_TYPE);
+        entity.title = payload.get(KEY_TITLE);
+        entity.message = payload.get(KEY_MESSAGE);
+        entity.imageUrl = payload.get(KEY_IMAGE);
+        entity.priority = payload.get(KEY_PRIORITY);
+        entity.dataJson = payload.get(KEY_DATA);
+        entity.createdAt = parseLong(payload.get(KEY_CREATED_AT), System.currentTimeMillis());
+        return entity;
+    }
+
+    /**
+     * Contenu tronqué : lecture du document complet, ou repli sur le message partiel ;
+     * null si la notification a été supprimée entre-temps ou appartient à un autre compte
+     */
+    private NotificationEntity fetchFull(String notificationId, Map<String, String> payload, String userId) {
+        try {
+            DocumentSnapshot document = Tasks.await(FirebaseFirestore.getInstance()
+                .collection("notifications")
+                .document(notificationId)
+                .get(), FETCH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (document.exists()) {
+                UserNotification notification = UserNotification.fromDocument(document);
+                if (!userId.equals(notification.getUserId())) return null;
+                // Déjà supprimée sur un autre appareil
+                return notification.isDeleted() ? null : NotificationEntity.fromNotification(notification);
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error fetching truncated notification " + notificationId, e);
+        }
+        return fromPayload(notificationId, payload, userId);
+    }
+
+    private static long parseLong(String value, long fallback) {
+        if (value == null) return fallback;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
@@ -1,28 +1,26 @@
 package com.example.learnizone.viewmodels;
 
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
-import androidx.lifecycle.ViewModel;
-import com.google.firebase.auth.FirebaseUser;
 import com.example.learnizone.auth.AuthManager;
-import com.google.android.gms.tasks.OnCompleteListener;
-import com.google.firebase.auth.AuthResult;
+import com.example.learnizone.auth.Session;
 
-public class AuthViewModel extends ViewModel {
-    private MutableLiveData<FirebaseUser> currentUser = new MutableLiveData<>();
+public class AuthViewModel extends AndroidViewModel {
     private MutableLiveData<String> authError = new MutableLiveData<>();
     private MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
-    private AuthManager authManager;
-
-    public AuthViewModel() {
-        // AuthManager sera initialisé dans l'Activity avec le context
-    }
+    private final AuthManager authManager;
 
-    public void init(AuthManager authManager) {
-        this.authManager = authManager;
-        currentUser.setValue(authManager.getCurrentUser());
+    public AuthViewModel(@NonNull Application application) {
+        super(application);
+        authManager = AuthManager.getInstance(application);
     }
 
-    public MutableLiveData<FirebaseUser> getCurrentUser() { return currentUser; }
+    // L'état connecté/déconnecté vient uniquement de la session publiée par AuthManager
+    public LiveData<Session> getSession() { return authManager.getSession(); }
     public MutableLiveData<String> getAuthError() { return authError; }
     public MutableLiveData<Boolean> getIsLoading() { return isLoading; }
 
@@ -31,7 +29,6 @@ public class AuthViewModel extends ViewModel {
         authManager.signIn(email, password, task -> {
             isLoading.setValue(false);
             if (task.isSuccessful()) {
-                currentUser.setValue(authManager.getCurrentUser());
                 authError.setValue(null);
             } else {
                 authError.setValue(task.getException() != null ? 
@@ -45,7 +42,6 @@ public class AuthViewModel extends ViewModel {
         authManager.signUp(email, password, fullName, userType, task -> {
             isLoading.setValue(false);
             if (task.isSuccessful()) {
-                currentUser.setValue(authManager.getCurrentUser());
                 authError.setValue(null);
             } else {
                 authError.setValue(task.getException() != null ? 
@@ -56,7 +52,6 @@ public class AuthViewModel extends ViewModel {
 
     public void signOut() {
         authManager.signOut();
-        currentUser.setValue(null);
     }
 
     public void resetPassword(String email) {
@@ -85,9 +80,7 @@ public class AuthViewModel extends ViewModel {
         isLoading.setValue(true);
         authManager.deleteAccount(task -> {
             isLoading.setValue(false);
-            if (task.isSuccessful()) {
-                currentUser.setValue(null);
-            } else {
+            if (!task.isSuccessful()) {
                 authError.setValue(task.getException() != null ? 
                     task.getException().getMessage() : "Erreur de suppression du compte");
             }
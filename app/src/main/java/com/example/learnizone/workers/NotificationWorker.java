@@ -7,17 +7,45 @@ import androidx.annotation.NonNull;
 import androidx.work.Worker;
 import androidx.work.WorkerParameters;
 
+import com.example.learnizone.database.ReviewCard;
 import com.example.learnizone.managers.LearnIzoneNotificationManager;
+import com.example.learnizone.managers.NotificationDigester;
+import com.example.learnizone.managers.NotificationScheduler;
 import com.example.learnizone.models.UserNotification;
+import com.example.learnizone.quiz.ReviewScheduler;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
 
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class NotificationWorker extends Worker {
     private static final String TAG = "NotificationWorker";
+    private static final int REVIEW_SAMPLE_SIZE = 5;
+    private static final int MAX_DAILY_NOTIFICATIONS = 3;
+    private static final long READ_TIMEOUT_SECONDS = 30;
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+    private static final String DEDUPE_KEY = "dedupeKey";
     private final FirebaseFirestore db;
 
     public NotificationWorker(@NonNull Context context, @NonNull WorkerParameters params) {
@@ -38,8 +66,16 @@ public class NotificationWorker extends Worker {
                         return handleStreakReminder();
                     case "quiz_due":
                         return handleQuizDueReminder();
+                    case NotificationScheduler.ACTION_DELIVER_BUCKET:
+                        return handleDueBucket();
+                    case NotificationDigester.ACTION_FLUSH_DIGESTS:
+                        // Résumés retenus pendant les heures calmes ou par la limitation
+                        LearnIzoneNotificationManager.getInstance(getApplicationContext()).flushDigests();
+                        return Result.success();
                     default:
-                        return handleScheduledNotification();
+                        // Les notifications programmées passent toutes par la file locale (deliver_bucket)
+                        Log.w(TAG, "Unknown notification work action: " + action);
+                        return Result.failure();
                 }
             }
             return Result.failure();
@@ -49,24 +85,120 @@ public class NotificationWorker extends Worker {
         }
     }
 
+    /**
+     * Passe d'évaluation quotidienne : une lecture groupée de l'état de l'utilisateur,
+     * calcul de toutes les notifications candidates, dédoublonnage, tri, puis un seul WriteBatch
+     */
     private Result handleDailyReminder() {
+        // Résumés retenus pendant la nuit
+        LearnIzoneNotificationManager.getInstance(getApplicationContext()).flushDigests();
+
+        String userId = resolveUserId();
+        if (userId == null) return Result.success(); // Aucun utilisateur connecté
+
         try {
-            // Vérifier les cours incomplets
-            checkIncompleteCourses();
-            
-            // Vérifier les quiz à faire
-            checkUpcomingQuizzes();
-            
-            // Vérifier les séries d'apprentissage
-            checkLearningStreaks();
-            
+            Date now = new Date();
+            Task<QuerySnapshot> coursesTask = db.collection("userCourses")
+                .whereEqualTo("userId", userId)
+                .whereEqualTo("status", "in_progress")
+                .get();
+            Task<QuerySnapshot> quizzesTask = db.collection("quizzes")
+                .whereGreaterThanOrEqualTo("dueDate", now)
+                .whereLessThanOrEqualTo("dueDate", new Date(now.getTime() + DAY_MS))
+                .get();
+            Task<DocumentSnapshot> userTask = db.collection("users").document(userId).get();
+            Task<QuerySnapshot> recentTask = db.collection("notifications")
+                .whereEqualTo("userId", userId)
+                .whereGreaterThanOrEqualTo("createdAt", new Date(now.getTime() - DAY_MS))
+                .get();
+
+            // Les lectures partent en parallèle et sont attendues ensemble
+            Tasks.await(Tasks.whenAll(coursesTask, quizzesTask, userTask, recentTask),
+                READ_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            List<UserNotification> candidates = new ArrayList<>();
+            addCourseReminders(userId, coursesTask.getResult(), candidates);
+            addQuizReminders(userId, quizzesTask.getResult(), candidates);
+            addStreakReminder(userId, userTask.getResult(), now, candidates);
+            addReviewReminder(userId, candidates);
+
+            List<UserNotification> selected = dedupeAndRank(candidates, recentKeys(recentTask.getResult()));
+            if (selected.isEmpty()) return Result.success();
+
+            WriteBatch batch = db.batch();
+            for (UserNotification notification : selected) {
+                DocumentReference ref = db.collection("notifications").document();
+                notification.setId(ref.getId());
+                notification.setCreatedAt(now);
+                notification.setUpdatedAt(now);
+                notification.setSent(true);
+                notification.setSentAt(now);
+                batch.set(ref, notification.toMap());
+            }
+            Tasks.await(batch.commit(), READ_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            // Affichage uniquement après l'écriture : pas de doublon si le travail est relancé
+            LearnIzoneNotificationManager manager = LearnIzoneNotificationManager.getInstance(getApplicationContext());
+            for (UserNotification notification : selected) {
+                manager.displayNotification(notification);
+            }
             return Result.success();
-        } catch (Exception e) {
-            Log.e(TAG, "Error handling daily reminder", e);
-            return Result.failure();
+        } catch (ExecutionException | TimeoutException e) {
+            Log.e(TAG, "Error evaluating daily reminders", e);
+            return Result.retry();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.retry();
         }
     }
 
+    /**
+     * Livre ensemble toutes les notifications programmées dans la tranche échue,
+     * puis arme le travail de la tranche suivante
+     */
+    private Result handleDueBucket() {
+        NotificationScheduler scheduler = NotificationScheduler.getInstance(getApplicationContext());
+        long now = System.currentTimeMillis();
+        List<UserNotification> due = scheduler.drainDue(now);
+
+        if (!due.isEmpty()) {
+            LearnIzoneNotificationManager manager = LearnIzoneNotificationManager.getInstance(getApplicationContext());
+            for (UserNotification notification : due) {
+                manager.displayNotification(notification);
+            }
+            scheduler.markDisplayed(due, now);
+        }
+
+        // Confirmation de l'envoi, y compris pour les livraisons précédentes restées en attente
+        List<String> unconfirmed = scheduler.getUnconfirmedIds();
+        if (!unconfirmed.isEmpty()) {
+            Map<String, Object> sent = new HashMap<>();
+            sent.put("isSent", true);
+            sent.put("sentAt", new Date(now));
+            sent.put("updatedAt", new Date(now));
+
+            WriteBatch batch = db.batch();
+            for (String notificationId : unconfirmed) {
+                // Fusion : un document absent ne fait pas échouer tout le lot
+                batch.set(db.collection("notifications").document(notificationId), sent, SetOptions.merge());
+            }
+            try {
+                Tasks.await(batch.commit(), READ_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                scheduler.confirmDelivered(unconfirmed);
+            } catch (ExecutionException | TimeoutException e) {
+                Log.e(TAG, "Error marking scheduled notifications as sent", e);
+                scheduler.rearm(true);
+                return Result.retry();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Result.retry();
+            }
+        }
+
+        scheduler.rearm(true);
+        return Result.success();
+    }
+
     private Result handleStreakReminder() {
         try {
             String userId = getInputData().getString("userId");
@@ -147,146 +279,145 @@ public class NotificationWorker extends Worker {
         }
     }
 
-    private Result handleScheduledNotification() {
-        try {
-            String notificationId = getInputData().getString("notificationId");
-            if (notificationId == null) return Result.failure();
+    private String resolveUserId() {
+        String userId = getInputData().getString("userId");
+        if (userId != null) return userId;
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        return user != null ? user.getUid() : null;
+    }
 
-            // Récupérer la notification depuis Firestore
-            db.collection("notifications").document(notificationId)
-                .get()
-                .addOnSuccessListener(document -> {
-                    if (document != null && document.exists()) {
-                        UserNotification notification = UserNotification.fromDocument(document);
-                        
-                        // Vérifier si la notification n'est pas déjà envoyée
-                        if (!notification.isSent() && notification.isPending()) {
-                            LearnIzoneNotificationManager.getInstance(getApplicationContext())
-                                .sendLocalNotification(notification);
-                        }
-                    }
-                });
+    private boolean isEnabled(UserNotification.NotificationType type) {
+        return LearnIzoneNotificationManager.getInstance(getApplicationContext()).isNotificationTypeEnabled(type);
+    }
 
-            return Result.success();
-        } catch (Exception e) {
-            Log.e(TAG, "Error handling scheduled notification", e);
-            return Result.failure();
+    private void addCourseReminders(String userId, QuerySnapshot courses, List<UserNotification> out) {
+        if (!isEnabled(UserNotification.NotificationType.COURSE_REMINDER)) return;
+
+        for (DocumentSnapshot doc : courses.getDocuments()) {
+            String courseId = doc.getString("courseId");
+            String courseTitle = doc.getString("courseTitle");
+            if (courseId == null || courseTitle == null) continue;
+
+            UserNotification notification = new UserNotification();
+            notification.setUserId(userId);
+            notification.setType(UserNotification.NotificationType.COURSE_REMINDER);
+            notification.setTitle("Continuez votre apprentissage");
+            notification.setMessage("Reprenez votre cours : " + courseTitle);
+            notification.setPriority(UserNotification.Priority.NORMAL);
+            notification.addData("courseId", courseId);
+            notification.addData(DEDUPE_KEY, "course:" + courseId);
+            out.add(notification);
         }
     }
 
-    private void checkIncompleteCourses() {
-        String userId = getInputData().getString("userId");
-        if (userId == null) return;
-
-        // Vérifier les cours en cours
-        db.collection("userCourses")
-            .whereEqualTo("userId", userId)
-            .whereEqualTo("status", "in_progress")
-            .get()
-            .addOnSuccessListener(queryDocumentSnapshots -> {
-                if (!queryDocumentSnapshots.isEmpty()) {
-                    // Créer une notification pour chaque cours incomplet
-                    for (var doc : queryDocumentSnapshots) {
-                        String courseId = doc.getString("courseId");
-                        String courseTitle = doc.getString("courseTitle");
-                        
-                        if (courseId != null && courseTitle != null) {
-                            UserNotification notification = new UserNotification();
-                            notification.setUserId(userId);
-                            notification.setType(UserNotification.NotificationType.COURSE_REMINDER);
-                            notification.setTitle("Continuez votre apprentissage");
-                            notification.setMessage("Reprenez votre cours : " + courseTitle);
-                            notification.setPriority(UserNotification.Priority.NORMAL);
-                            notification.addData("courseId", courseId);
+    private void addQuizReminders(String userId, QuerySnapshot quizzes, List<UserNotification> out) {
+        if (!isEnabled(UserNotification.NotificationType.QUIZ_DUE)) return;
+
+        for (DocumentSnapshot doc : quizzes.getDocuments()) {
+            String quizTitle = doc.getString("title");
+            Date dueDate = doc.getDate("dueDate");
+            if (quizTitle == null || dueDate == null) continue;
+
+            UserNotification notification = new UserNotification();
+            notification.setUserId(userId);
+            notification.setType(UserNotification.NotificationType.QUIZ_DUE);
+            notification.setTitle("Quiz à faire : " + quizTitle);
+            notification.setMessage("Ce quiz est à faire avant le " +
+                java.text.DateFormat.getDateInstance().format(dueDate));
+            notification.setPriority(UserNotification.Priority.HIGH);
+            notification.addData("quizId", doc.getId());
+            notification.addData("dueDate", dueDate);
+            notification.addData(DEDUPE_KEY, "quiz:" + doc.getId());
+            out.add(notification);
+        }
+    }
 
-                            LearnIzoneNotificationManager.getInstance(getApplicationContext())
-                                .createNotification(notification)
-                                .addOnSuccessListener(id -> 
-                                    LearnIzoneNotificationManager.getInstance(getApplicationContext())
-                                        .sendLocalNotification(notification)
-                                );
-                        }
-                    }
-                }
-            });
+    private void addStreakReminder(String userId, DocumentSnapshot user, Date now, List<UserNotification> out) {
+        if (user == null || !user.exists() || !isEnabled(UserNotification.NotificationType.STREAK_REMINDER)) return;
+
+        Long currentStreak = user.getLong("currentStreak");
+        Date lastActivityDate = user.getDate("lastActivityDate");
+        if (currentStreak == null || currentStreak <= 0 || lastActivityDate == null) return;
+
+        // Pas d'activité aujourd'hui (jour local)
+        if (isSameLocalDay(now, lastActivityDate)) return;
+
+        UserNotification notification = new UserNotification();
+        notification.setUserId(userId);
+        notification.setType(UserNotification.NotificationType.STREAK_REMINDER);
+        notification.setTitle("Ne perdez pas votre série !");
+        notification.setMessage("Vous avez une série de " + currentStreak +
+            " jours. Continuez à apprendre aujourd'hui !");
+        notification.setPriority(UserNotification.Priority.NORMAL);
+        notification.addData("currentStreak", currentStreak);
+        notification.addData(DEDUPE_KEY, "streak");
+        out.add(notification);
     }
 
-    private void checkUpcomingQuizzes() {
-        String userId = getInputData().getString("userId");
-        if (userId == null) return;
-
-        Date now = new Date();
-        Date tomorrow = new Date(now.getTime() + (24 * 60 * 60 * 1000));
-
-        // Vérifier les quiz à venir dans les 24 prochaines heures
-        db.collection("quizzes")
-            .whereGreaterThanOrEqualTo("dueDate", now)
-            .whereLessThanOrEqualTo("dueDate", tomorrow)
-            .get()
-            .addOnSuccessListener(queryDocumentSnapshots -> {
-                if (!queryDocumentSnapshots.isEmpty()) {
-                    for (var doc : queryDocumentSnapshots) {
-                        String quizId = doc.getId();
-                        String quizTitle = doc.getString("title");
-                        Date dueDate = doc.getDate("dueDate");
-
-                        if (quizId != null && quizTitle != null && dueDate != null) {
-                            UserNotification notification = new UserNotification();
-                            notification.setUserId(userId);
-                            notification.setType(UserNotification.NotificationType.QUIZ_DUE);
-                            notification.setTitle("Quiz à faire : " + quizTitle);
-                            notification.setMessage("Ce quiz est à faire avant le " + 
-                                java.text.DateFormat.getDateInstance().format(dueDate));
-                            notification.setPriority(UserNotification.Priority.HIGH);
-                            notification.addData("quizId", quizId);
-                            notification.addData("dueDate", dueDate);
+    private static boolean isSameLocalDay(Date first, Date second) {
+        Calendar a = Calendar.getInstance();
+        a.setTime(first);
+        Calendar b = Calendar.getInstance();
+        b.setTime(second);
+        return a.get(Calendar.YEAR) == b.get(Calendar.YEAR)
+            && a.get(Calendar.DAY_OF_YEAR) == b.get(Calendar.DAY_OF_YEAR);
+    }
 
-                            LearnIzoneNotificationManager.getInstance(getApplicationContext())
-                                .createNotification(notification)
-                                .addOnSuccessListener(id -> 
-                                    LearnIzoneNotificationManager.getInstance(getApplicationContext())
-                                        .sendLocalNotification(notification)
-                                );
-                        }
-                    }
-                }
-            });
+    private void addReviewReminder(String userId, List<UserNotification> out) {
+        if (!isEnabled(UserNotification.NotificationType.REVIEW_DUE)) return;
+
+        // Stockage local, aucune lecture Firestore
+        ReviewScheduler scheduler = ReviewScheduler.getInstance(getApplicationContext());
+        long now = System.currentTimeMillis();
+        int dueCount = scheduler.getDueCount(now);
+        if (dueCount == 0) return;
+
+        List<String> sampleQuestions = new ArrayList<>();
+        for (ReviewCard card : scheduler.getDueCards(now, REVIEW_SAMPLE_SIZE)) {
+            if (card.questionText != null) {
+                sampleQuestions.add(card.questionText);
+            }
+        }
+
+        UserNotification notification = LearnIzoneNotificationManager.getInstance(getApplicationContext())
+            .buildReviewReminder(dueCount, sampleQuestions);
+        notification.setUserId(userId);
+        notification.addData(DEDUPE_KEY, "reviews");
+        out.add(notification);
     }
 
-    private void checkLearningStreaks() {
-        String userId = getInputData().getString("userId");
-        if (userId == null) return;
-
-        // Vérifier la série d'apprentissage
-        db.collection("users").document(userId)
-            .get()
-            .addOnSuccessListener(document -> {
-                if (document != null && document.exists()) {
-                    Long currentStreak = document.getLong("currentStreak");
-                    Date lastActivityDate = document.getDate("lastActivityDate");
-
-                    if (currentStreak != null && currentStreak > 0 && lastActivityDate != null) {
-                        // Vérifier si l'utilisateur n'a pas eu d'activité aujourd'hui
-                        Date today = new Date();
-                        if (today.getDate() != lastActivityDate.getDate()) {
-                            UserNotification notification = new UserNotification();
-                            notification.setUserId(userId);
-                            notification.setType(UserNotification.NotificationType.STREAK_REMINDER);
-                            notification.setTitle("Ne perdez pas votre série !");
-                            notification.setMessage("Vous avez une série de " + currentStreak + 
-                                " jours. Continuez à apprendre aujourd'hui !");
-                            notification.setPriority(UserNotification.Priority.NORMAL);
-                            notification.addData("currentStreak", currentStreak);
+    private static Set<String> recentKeys(QuerySnapshot recent) {
+        Set<String> keys = new HashSet<>();
+        for (DocumentSnapshot doc : recent.getDocuments()) {
+            Object data = doc.get("data");
+            if (data instanceof Map) {
+                Object key = ((Map<?, ?>) data).get(DEDUPE_KEY);
+                if (key != null) keys.add(key.toString());
+            }
+        }
+        return keys;
+    }
 
-                            LearnIzoneNotificationManager.getInstance(getApplicationContext())
-                                .createNotification(notification)
-                                .addOnSuccessListener(id -> 
-                                    LearnIzoneNotificationManager.getInstance(getApplicationContext())
-                                        .sendLocalNotification(notification)
-                                );
-                        }
-                    }
-                }
-            });
+    /**
+     * Retire les doublons (y compris ceux déjà envoyés dans les dernières 24 h),
+     * trie par priorité décroissante et limite le nombre de notifications par jour
+     */
+    private static List<UserNotification> dedupeAndRank(List<UserNotification> candidates, Set<String> alreadySent) {
+        Map<String, UserNotification> unique = new LinkedHashMap<>();
+        for (UserNotification notification : candidates) {
+            String key = String.valueOf(notification.getData().get(DEDUPE_KEY));
+            if (alreadySent.contains(key)) continue;
+            UserNotification existing = unique.get(key);
+            if (existing == null || existing.getPriority().getLevel() < notification.getPriority().getLevel()) {
+                unique.put(key, notification);
+            }
+        }
+
+        List<UserNotification> ranked = new ArrayList<>(unique.values());
+        // Tri stable : à priorité égale, l'ordre des règles est conservé
+        Collections.sort(ranked, (a, b) -> Integer.compare(b.getPriority().getLevel(), a.getPriority().getLevel()));
+        return ranked.size() > MAX_DAILY_NOTIFICATIONS
+            ? new ArrayList<>(ranked.subList(0, MAX_DAILY_NOTIFICATIONS))
+            : ranked;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,71 @@
+package com.example.learnizone.managers;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Consommation et remplissage du seau à jetons du regroupement des notifications.
+ */
+public class TokenBucketTest {
+
+    private static final long HOUR_MS = 60 * 60 * 1000;
+    private static final long START = 1_700_000_000_000L;
+
+    private static TokenBucket fullBucket(int capacity) {
+        TokenBucket bucket = new TokenBucket(capacity, HOUR_MS);
+        bucket.tokens = capacity;
+        bucket.lastRefill = START;
+        return bucket;
+    }
+
+    @Test
+    public void fullBucket_allowsBurstUpToCapacity() {
+        TokenBucket bucket = fullBucket(3);
+        assertTrue(bucket.tryConsume(START));
+        assertTrue(bucket.tryConsume(START));
+        assertTrue(bucket.tryConsume(START));
+        assertFalse(bucket.tryConsume(START));
+    }
+
+    @Test
+    public void tokens_refillProportionallyToElapsedTime() {
+        TokenBucket bucket = fullBucket(2);
+        bucket.tryConsume(START);
+        bucket.tryConsume(START);
+
+        assertFalse(bucket.tryConsume(START + HOUR_MS / 2));
+        assertEquals(0.5, bucket.tokens, 1e-9);
+        assertTrue(bucket.tryConsume(START + HOUR_MS));
+        assertEquals(0, bucket.tokens, 1e-9);
+    }
+
+    @Test
+    public void refill_isCappedAtCapacity() {
+        TokenBucket bucket = fullBucket(2);
+        bucket.tryConsume(START);
+        assertTrue(bucket.tryConsume(START + 10 * HOUR_MS));
+        assertEquals(1, bucket.tokens, 1e-9);
+    }
+
+    @Test
+    public void clockGoingBackwards_addsNoTokens() {
+        TokenBucket bucket = fullBucket(1);
+        bucket.tryConsume(START);
+        assertFalse(bucket.tryConsume(START - HOUR_MS));
+        assertEquals(0, bucket.tokens, 1e-9);
+        assertEquals(START - HOUR_MS, bucket.lastRefill);
+    }
+
+    @Test
+    public void nextTokenAt_predictsRefill() {
+        TokenBucket bucket = fullBucket(1);
+        assertEquals(START, bucket.nextTokenAt(START));
+
+        bucket.tryConsume(START);
+        assertEquals(START + HOUR_MS, bucket.nextTokenAt(START));
+        assertEquals(START + HOUR_MS, bucket.nextTokenAt(START + HOUR_MS / 4));
+        assertFalse(bucket.tryConsume(START + HOUR_MS - 1));
+        assertTrue(bucket.tryConsume(bucket.nextTokenAt(START + HOUR_MS - 1)));
+    }
+}
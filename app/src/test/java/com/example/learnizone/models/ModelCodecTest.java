@@ -0,0 +1,207 @@
+package com.example.learnizone.models;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Aller-retour des codecs générés par CodecProcessor : encodage puis décodage,
+ * champs nuls ou absents, identifiant du document et champs ignorés.
+ */
+public class ModelCodecTest {
+
+    @Test
+    public void userNotification_decodeThenEncode_isIdentity() {
+        Map<String, Object> data = notificationData();
+        UserNotification notification = UserNotificationCodec.decode("n1", data);
+
+        assertEquals("n1", notification.getId());
+        assertEquals(UserNotification.NotificationType.QUIZ_DUE, notification.getType());
+        assertEquals(UserNotification.Priority.HIGH, notification.getPriority());
+        assertTrue(notification.isRead());
+        assertFalse(notification.isDeleted());
+        assertEquals(data.get("createdAt"), notification.getCreatedAt());
+        assertEquals("quiz-1", notification.getData("quizId"));
+        assertEquals(data, UserNotificationCodec.encode(notification));
+    }
+
+    @Test
+    public void lesson_encodeThenDecode_keepsEveryField() {
+        Lesson lesson = new Lesson();
+        lesson.setLessonId("l1");
+        lesson.setCourseId("course-1");
+        lesson.setTitle("Introduction");
+        lesson.setType(Lesson.LessonType.VIDEO);
+        lesson.setVideoUrl("https://example.com/v.mp4");
+        lesson.setDuration(12);
+        lesson.setOrderIndex(3);
+        lesson.setFree(true);
+        lesson.setCreatedAt(new Date(1_700_000_000_000L));
+        lesson.getMetadata().put("level", "débutant");
+
+        Map<String, Object> encoded = LessonCodec.encode(lesson);
+        Lesson decoded = LessonCodec.decode("l1", encoded);
+
+        assertEquals("l1", decoded.getLessonId());
+        assertEquals("course-1", decoded.getCourseId());
+        assertEquals("Introduction", decoded.getTitle());
+        assertEquals(Lesson.LessonType.VIDEO, decoded.getType());
+        assertEquals("https://example.com/v.mp4", decoded.getVideoUrl());
+        assertEquals(12, decoded.getDuration());
+        assertEquals(3, decoded.getOrderIndex());
+        assertTrue(decoded.isPublished());
+        assertTrue(decoded.isFree());
+        assertEquals(new Date(1_700_000_000_000L), decoded.getCreatedAt());
+        assertEquals("débutant", decoded.getMetadata().get("level"));
+        assertEquals(encoded, LessonCodec.encode(decoded));
+    }
+
+    @Test
+    public void nullFields_areEncodedAndDecodedAsNull() {
+        Lesson lesson = new Lesson();
+        lesson.setType(null);
+        lesson.setUpdatedAt(null);
+
+        Map<String, Object> encoded = LessonCodec.encode(lesson);
+        assertTrue(encoded.containsKey("type"));
+        assertNull(encoded.get("type"));
+        assertTrue(encoded.containsKey("content"));
+        assertNull(encoded.get("content"));
+
+        Lesson decoded = LessonCodec.decode("l1", encoded);
+        assertNull(decoded.getContent());
+        assertNull(decoded.getUpdatedAt());
+        // fromString(null) : valeur par défaut de l'énumération
+        assertEquals(Lesson.LessonType.TEXT, decoded.getType());
+    }
+
+    @Test
+    public void missingFields_keepConstructorDefaultsForPrimitivesAndCollections() {
+        Lesson decoded = LessonCodec.decode("l1", Collections.<String, Object>emptyMap());
+
+        assertEquals("l1", decoded.getLessonId());
+        assertNull(decoded.getTitle());
+        assertNull(decoded.getCreatedAt());
+        assertEquals(Lesson.LessonType.TEXT, decoded.getType());
+        assertEquals(0, decoded.getDuration());
+        assertTrue(decoded.isPublished());
+        assertFalse(decoded.isFree());
+        assertNotNull(decoded.getMetadata());
+        assertTrue(decoded.getMetadata().isEmpty());
+    }
+
+    @Test
+    public void wrongTypes_areIgnored() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("title", 42);
+        data.put("duration", "douze");
+        data.put("isPublished", "false");
+        data.put("createdAt", "2024-01-01");
+
+        Lesson decoded = LessonCodec.decode("l1", data);
+        assertNull(decoded.getTitle());
+        assertEquals(0, decoded.getDuration());
+        assertTrue(decoded.isPublished());
+        assertNull(decoded.getCreatedAt());
+    }
+
+    @Test
+    public void numbers_areNarrowedFromAnyNumericType() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("duration", 45L);
+        data.put("orderIndex", 2.0);
+
+        Lesson decoded = LessonCodec.decode("l1", data);
+        assertEquals(45, decoded.getDuration());
+        assertEquals(2, decoded.getOrderIndex());
+    }
+
+    @Test
+    public void documentId_isSetFromIdAndNeverEncoded() {
+        Map<String, Object> data = lessonData();
+        data.put("lessonId", "ignored");
+
+        Lesson decoded = LessonCodec.decode("l1", data);
+        assertEquals("l1", decoded.getLessonId());
+        assertFalse(LessonCodec.encode(decoded).containsKey("lessonId"));
+
+        UserNotification notification = new UserNotification();
+        notification.setId("n1");
+        assertFalse(UserNotificationCodec.encode(notification).containsKey("id"));
+    }
+
+    @Test
+    public void codecIgnore_isNeitherWrittenNorRead() {
+        Lesson lesson = new Lesson();
+        List<LessonResource> resources = new ArrayList<>();
+        resources.add(new LessonResource());
+        lesson.setResources(resources);
+        assertFalse(LessonCodec.encode(lesson).containsKey("resources"));
+
+        Map<String, Object> data = lessonData();
+        data.put("resources", new ArrayList<>(Collections.singletonList("r1")));
+        Lesson decoded = LessonCodec.decode("l1", data);
+        assertNotNull(decoded.getResources());
+        assertTrue(decoded.getResources().isEmpty());
+    }
+
+    @Test
+    public void unknownEnum_fallsBackToDefault() {
+        Map<String, Object> data = lessonData();
+        data.put("type", "hologram");
+        assertEquals(Lesson.LessonType.TEXT, LessonCodec.decode("l1", data).getType());
+
+        data.remove("type");
+        assertEquals(Lesson.LessonType.TEXT, LessonCodec.decode("l1", data).getType());
+    }
+
+    private static Map<String, Object> notificationData() {
+        Map<String, Object> extra = new HashMap<>();
+        extra.put("quizId", "quiz-1");
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("userId", "user-1");
+        data.put("type", "quiz_due");
+        data.put("title", "Quiz à faire : Java");
+        data.put("message", "Ce quiz est à faire avant demain");
+        data.put("imageUrl", null);
+        data.put("priority", "high");
+        data.put("createdAt", new Date(1_700_000_000_000L));
+        data.put("scheduledAt", null);
+        data.put("sentAt", new Date(1_700_000_001_000L));
+        data.put("readAt", new Date(1_700_000_002_000L));
+        data.put("updatedAt", new Date(1_700_000_002_000L));
+        data.put("isRead", true);
+        data.put("isSent", true);
+        data.put("isDeleted", false);
+        data.put("data", extra);
+        return data;
+    }
+
+    private static Map<String, Object> lessonData() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("courseId", "course-1");
+        data.put("sectionId", "section-1");
+        data.put("title", "Introduction");
+        data.put("description", "Premiers pas");
+        data.put("type", "video");
+        data.put("content", null);
+        data.put("videoUrl", "https://example.com/v.mp4");
+        data.put("audioUrl", null);
+        data.put("duration", 12);
+        data.put("orderIndex", 1);
+        data.put("isPublished", true);
+        data.put("isFree", false);
+        data.put("createdAt", new Date(1_700_000_000_000L));
+        data.put("updatedAt", new Date(1_700_000_000_000L));
+        data.put("metadata", new HashMap<String, Object>());
+        return data;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.learnizone.quiz;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Mise à jour du niveau (modèle de Rasch) et choix de la question suivante.
+ */
+public class AdaptiveQuestionSelectorTest {
+
+    private static final float[] DIFFICULTIES = {-2f, -1f, 0f, 1f, 2f};
+
+    private static AdaptiveQuestionSelector selector(int minQuestions, float targetStandardError) {
+        return new AdaptiveQuestionSelector(DIFFICULTIES.clone(), minQuestions, targetStandardError);
+    }
+
+    @Test
+    public void prior_isCenteredAndPicksMediumQuestion() {
+        AdaptiveQuestionSelector selector = selector(5, 0f);
+        assertEquals(0, selector.getAbility(), 1e-6);
+        assertEquals(2, selector.nextQuestionIndex());
+        assertEquals(50, selector.getEstimatedPercentage(), 1e-6);
+    }
+
+    @Test
+    public void correctAnswer_raisesAbility() {
+        AdaptiveQuestionSelector selector = selector(5, 0f);
+        selector.recordAnswer(2, true);
+        assertTrue(selector.getAbility() > 0);
+        assertTrue(selector.getEstimatedPercentage() > 50);
+        // La question la plus informative est maintenant plus difficile
+        assertEquals(3, selector.nextQuestionIndex());
+    }
+
+    @Test
+    public void wrongAnswer_lowersAbility() {
+        AdaptiveQuestionSelector selector = selector(5, 0f);
+        selector.recordAnswer(2, false);
+        assertTrue(selector.getAbility() < 0);
+        assertTrue(selector.getEstimatedPercentage() < 50);
+        assertEquals(1, selector.nextQuestionIndex());
+    }
+
+    @Test
+    public void answers_reduceStandardError() {
+        AdaptiveQuestionSelector selector = selector(5, 0f);
+        double previous = selector.getStandardError();
+        for (int i = 0; i < DIFFICULTIES.length; i++) {
+            selector.recordAnswer(i, i % 2 == 0);
+            assertTrue(selector.getStandardError() < previous);
+            previous = selector.getStandardError();
+        }
+    }
+
+    @Test
+    public void repeatedOrInvalidAnswers_areIgnored() {
+        AdaptiveQuestionSelector selector = selector(5, 0f);
+        selector.recordAnswer(2, true);
+        double ability = selector.getAbility();
+
+        selector.recordAnswer(2, false);
+        selector.recordAnswer(-1, false);
+        selector.recordAnswer(DIFFICULTIES.length, false);
+
+        assertEquals(1, selector.getAskedCount());
+        assertEquals(ability, selector.getAbility(), 1e-12);
+    }
+
+    @Test
+    public void askedQuestions_areNeverSelectedAgain() {
+        AdaptiveQuestionSelector selector = selector(5, 0f);
+        boolean[] seen = new boolean[DIFFICULTIES.length];
+        for (int i = 0; i < DIFFICULTIES.length; i++) {
+            int next = selector.nextQuestionIndex();
+            assertTrue(next >= 0);
+            assertFalse(seen[next]);
+            seen[next] = true;
+            selector.recordAnswer(next, true);
+        }
+        assertTrue(selector.isConfident());
+        assertEquals(-1, selector.nextQuestionIndex());
+    }
+
+    @Test
+    public void minQuestions_delaysEarlyStop() {
+        // Cible d'erreur standard toujours atteinte : seul le minimum retient le quiz
+        AdaptiveQuestionSelector selector = selector(3, 10f);
+        selector.recordAnswer(selector.nextQuestionIndex(), true);
+        selector.recordAnswer(selector.nextQuestionIndex(), true);
+        assertFalse(selector.isConfident());
+
+        selector.recordAnswer(selector.nextQuestionIndex(), true);
+        assertTrue(selector.isConfident());
+        assertEquals(-1, selector.nextQuestionIndex());
+    }
+
+    @Test
+    public void emptyQuiz_isImmediatelyDone() {
+        AdaptiveQuestionSelector selector = new AdaptiveQuestionSelector(new float[0], 3, 0.5f);
+        assertEquals(-1, selector.nextQuestionIndex());
+        assertEquals(0, selector.getEstimatedPercentage(), 0);
+    }
+}
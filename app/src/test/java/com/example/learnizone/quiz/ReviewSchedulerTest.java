@@ -0,0 +1,80 @@
+package com.example.learnizone.quiz;
+
+import com.example.learnizone.database.ReviewCard;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Intervalles et facteur de facilité de l'algorithme SM-2.
+ */
+public class ReviewSchedulerTest {
+
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    public void goodAnswers_followSm2Intervals() {
+        ReviewCard card = new ReviewCard();
+        int[] expectedIntervals = {1, 6, 15, 38};
+        for (int expected : expectedIntervals) {
+            ReviewScheduler.schedule(card, 4, NOW);
+            assertEquals(expected, card.intervalDays);
+        }
+        assertEquals(4, card.repetitions);
+        // Une note de 4 ne change pas la facilité
+        assertEquals(ReviewCard.DEFAULT_EASE_FACTOR, card.easeFactor, 1e-6);
+        assertEquals(NOW + 38 * DAY_MS, card.dueAt);
+        assertEquals(NOW, card.updatedAt);
+    }
+
+    @Test
+    public void perfectAnswer_raisesEase() {
+        ReviewCard card = new ReviewCard();
+        ReviewScheduler.schedule(card, 5, NOW);
+        assertEquals(ReviewCard.DEFAULT_EASE_FACTOR + 0.1f, card.easeFactor, 1e-6);
+    }
+
+    @Test
+    public void failure_resetsRepetitionsAndLowersEase() {
+        ReviewCard card = new ReviewCard();
+        ReviewScheduler.schedule(card, 4, NOW);
+        ReviewScheduler.schedule(card, 4, NOW);
+        ReviewScheduler.schedule(card, 1, NOW);
+
+        assertEquals(0, card.repetitions);
+        assertEquals(1, card.intervalDays);
+        assertEquals(1, card.lapses);
+        assertEquals(ReviewCard.DEFAULT_EASE_FACTOR - 0.54f, card.easeFactor, 1e-6);
+        assertEquals(NOW + DAY_MS, card.dueAt);
+
+        // Le cycle reprend à 1 puis 6 jours
+        ReviewScheduler.schedule(card, 4, NOW);
+        assertEquals(1, card.intervalDays);
+        ReviewScheduler.schedule(card, 4, NOW);
+        assertEquals(6, card.intervalDays);
+    }
+
+    @Test
+    public void ease_neverDropsBelowMinimum() {
+        ReviewCard card = new ReviewCard();
+        for (int i = 0; i < 10; i++) {
+            ReviewScheduler.schedule(card, 0, NOW);
+        }
+        assertEquals(ReviewCard.MIN_EASE_FACTOR, card.easeFactor, 1e-6);
+        assertEquals(10, card.lapses);
+    }
+
+    @Test
+    public void interval_growsWithCurrentEase() {
+        ReviewCard card = new ReviewCard();
+        card.easeFactor = ReviewCard.MIN_EASE_FACTOR;
+        ReviewScheduler.schedule(card, 4, NOW);
+        ReviewScheduler.schedule(card, 4, NOW);
+        ReviewScheduler.schedule(card, 4, NOW);
+        assertEquals(Math.round(6 * ReviewCard.MIN_EASE_FACTOR), card.intervalDays);
+    }
+}
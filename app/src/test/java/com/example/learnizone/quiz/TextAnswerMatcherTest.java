@@ -0,0 +1,116 @@
+package com.example.learnizone.quiz;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Normalisation et bornes de la distance d'édition de TextAnswerMatcher.
+ */
+public class TextAnswerMatcherTest {
+
+    private static TextAnswerMatcher matcher(String... accepted) {
+        return TextAnswerMatcher.compile(Arrays.asList(accepted), 2);
+    }
+
+    @Test
+    public void normalization_ignoresCaseAccentsAndPunctuation() {
+        TextAnswerMatcher matcher = matcher("l'été");
+        assertTrue(matcher.matches("  L'ÉTÉ !"));
+        assertTrue(matcher.matches("l ete"));
+        assertTrue(matcher("cœur").matches("coeur"));
+        assertTrue(matcher("Straße").matches("strasse"));
+    }
+
+    @Test
+    public void shortAnswers_mustMatchExactly() {
+        TextAnswerMatcher matcher = matcher("oui");
+        assertTrue(matcher.matches("OUI"));
+        assertFalse(matcher.matches("ouo"));
+        assertFalse(matcher.matches("ou"));
+    }
+
+    @Test
+    public void numericAnswers_mustMatchExactly() {
+        TextAnswerMatcher matcher = matcher("1789");
+        assertTrue(matcher.matches("1789"));
+        assertFalse(matcher.matches("1788"));
+        assertFalse(matcher.matches("17890"));
+    }
+
+    @Test
+    public void mediumAnswers_allowOneEdit() {
+        TextAnswerMatcher matcher = matcher("paris");
+        assertTrue(matcher.matches("parus"));
+        assertTrue(matcher.matches("pars"));
+        assertTrue(matcher.matches("pariss"));
+        assertFalse(matcher.matches("porus"));
+    }
+
+    @Test
+    public void longAnswers_allowTwoEdits() {
+        TextAnswerMatcher matcher = matcher("photosynthese");
+        assertTrue(matcher.matches("fotosynthese"));
+        assertTrue(matcher.matches("photosynthèse"));
+        assertFalse(matcher.matches("fotosintese"));
+    }
+
+    @Test
+    public void lengthDifferenceBeyondBand_isRejected() {
+        TextAnswerMatcher matcher = matcher("photosynthese");
+        assertTrue(matcher.matches("photosynthe"));
+        assertFalse(matcher.matches("photosynth"));
+        assertTrue(matcher.matches("xxphotosynthese"));
+        assertFalse(matcher.matches("xxxphotosynthese"));
+    }
+
+    @Test
+    public void editsAtBandEdges_areCounted() {
+        TextAnswerMatcher matcher = matcher("photosynthese");
+        // Deux insertions en tête décalent toute la diagonale jusqu'au bord de la bande
+        assertTrue(matcher.matches("abphotosynthese"));
+        // Deux suppressions en fin de mot
+        assertTrue(matcher.matches("photosynthe"));
+        // Une faute de chaque côté
+        assertTrue(matcher.matches("xhotosynthesx"));
+        assertFalse(matcher.matches("xhotosxnthesx"));
+    }
+
+    @Test
+    public void maxEdits_capsTolerance() {
+        TextAnswerMatcher strict = TextAnswerMatcher.compile(Collections.singletonList("photosynthese"), 0);
+        assertTrue(strict.matches("Photosynthèse"));
+        assertFalse(strict.matches("fotosynthese"));
+    }
+
+    @Test
+    public void anyAcceptedAnswer_matches() {
+        TextAnswerMatcher matcher = matcher("Napoléon", "Bonaparte", "");
+        assertTrue(matcher.matches("napoleon"));
+        assertTrue(matcher.matches("bonapart"));
+        assertFalse(matcher.matches("wellington"));
+    }
+
+    @Test
+    public void inputLongerThanBuffers_isRejectedWithoutError() {
+        TextAnswerMatcher matcher = matcher("chat");
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 200; i++) input.append("chat ");
+        assertFalse(matcher.matches(input));
+        assertTrue(matcher.matches("chat"));
+    }
+
+    @Test
+    public void emptyOrPunctuationOnly_neverMatches() {
+        TextAnswerMatcher matcher = matcher("chat");
+        assertFalse(matcher.matches(null));
+        assertFalse(matcher.matches(""));
+        assertFalse(matcher.matches("?!"));
+        assertFalse(matcher().matches("chat"));
+        assertFalse(TextAnswerMatcher.hasContent(" .,; "));
+        assertTrue(TextAnswerMatcher.hasContent(" a "));
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.learnizone.catalog.format;
+
+import com.example.learnizone.catalog.format.CatalogSchema.Section;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lecture d'un instantané écrit par {@link CatalogWriter}.
+ * L'ouverture ne lit que l'en-tête et les schémas ; chaque enregistrement n'est décodé
+ * qu'au moment où il est demandé, et chaque chaîne au plus une fois.
+ * Les champs inconnus de cette version sont ignorés, les champs absents du fichier
+ * prennent la valeur par défaut.
+ */
+public final class CatalogReader {
+    private static final int HEADER_SIZE = 32;
+    private static final int SECTION_ENTRY_SIZE = 16;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final ByteBuffer buffer;
+    private final int version;
+    private final long watermark;
+    private final int stringCount;
+    private final int stringIndexOffset;
+    private final int stringDataOffset;
+    private final AtomicReferenceArray<String> strings;
+    private final Map<Section, SectionInfo> sections = new EnumMap<>(Section.class);
+
+    static final class SectionInfo {
+        final int count;
+        final int indexOffset;
+        final String[] fieldNames;
+        final CatalogSchema.Type[] fieldTypes;
+        final Map<String, Integer> fieldIndex;
+
+        SectionInfo(int count, int indexOffset, String[] fieldNames, CatalogSchema.Type[] fieldTypes) {
+            this.count = count;
+            this.indexOffset = indexOffset;
+            this.fieldNames = fieldNames;
+            this.fieldTypes = fieldTypes;
+            Map<String, Integer> index = new HashMap<>(fieldNames.length * 2);
+            for (int i = 0; i < fieldNames.length; i++) {
+                index.put(fieldNames[i], i);
+            }
+            this.fieldIndex = index;
+        }
+    }
+
+    /**
+     * Projette le fichier en mémoire (lecture seule) ; le fichier peut ensuite être remplacé
+     * sans affecter ce lecteur.
+     */
+    public static CatalogReader open(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            return new CatalogReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public CatalogReader(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        int limit = buffer.limit();
+        if (limit < HEADER_SIZE || buffer.getInt(0) != CatalogSchema.MAGIC) {
+            throw new IOException("Not a catalog snapshot");
+        }
+        version = buffer.getInt(4);
+        if (version > CatalogSchema.VERSION) {
+            throw new IOException("Unsupported catalog version " + version);
+        }
+        watermark = buffer.getLong(8);
+        stringCount = buffer.getInt(16);
+        stringIndexOffset = buffer.getInt(20);
+        stringDataOffset = buffer.getInt(24);
+        int sectionCount = buffer.getInt(28);
+        if (stringCount < 0 || sectionCount < 0
+                || stringIndexOffset + (long) (stringCount + 1) * 4 > limit
+                || HEADER_SIZE + (long) sectionCount * SECTION_ENTRY_SIZE > limit) {
+            throw new IOException("Corrupted catalog header");
+        }
+        strings = new AtomicReferenceArray<>(stringCount);
+
+        for (int s = 0; s < sectionCount; s++) {
+            int entry = HEADER_SIZE + s * SECTION_ENTRY_SIZE;
+            int count = buffer.getInt(entry + 4);
+            int schemaOffset = buffer.getInt(entry + 8);
+            int indexOffset = buffer.getInt(entry + 12);
+            if (count < 0 || indexOffset + (long) count * 4 > limit) {
+                throw new IOException("Corrupted catalog section " + s);
+            }
+            Section section = sectionOf(string(buffer.getInt(entry)));
+            if (section == null) continue; // Section ajoutée par une version plus récente
+
+            int[] cursor = {schemaOffset};
+            int fieldCount = (int) readVarint(cursor);
+            String[] names = new String[fieldCount];
+            CatalogSchema.Type[] types = new CatalogSchema.Type[fieldCount];
+            CatalogSchema.Type[] known = CatalogSchema.Type.values();
+            for (int f = 0; f < fieldCount; f++) {
+                names[f] = string((int) readVarint(cursor));
+                int type = buffer.get(cursor[0]++);
+                if (type < 0 || type >= known.length) {
+                    throw new IOException("Unknown field type " + type);
+                }
+                types[f] = known[type];
+            }
+            sections.put(section, new SectionInfo(count, indexOffset, names, types));
+        }
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public long getWatermark() {
+        return watermark;
+    }
+
+    public int size(Section section) {
+        SectionInfo info = sections.get(section);
+        return info != null ? info.count : 0;
+    }
+
+    public CatalogRecord get(Section section, int index) {
+        SectionInfo info = sections.get(section);
+        if (info == null || index < 0 || index >= info.count) {
+            throw new IndexOutOfBoundsException(section + "[" + index + "]");
+        }
+        return decode(info, buffer.getInt(info.indexOffset + index * 4));
+    }
+
+    /**
+     * Vue paresseuse sur toute une section
+     */
+    public List<CatalogRecord> records(Section section) {
+        return slice(section, 0, size(section));
+    }
+
+    /**
+     * Enregistrements dont le champ de regroupement vaut {@code key}
+     * (leçons d'un cours, ressources d'une leçon...), dans l'ordre de la section
+     */
+    public List<CatalogRecord> group(Section section, String key) {
+        int from = lowerBound(section, key);
+        int to = from;
+        while (to < size(section) && key.equals(groupOf(section, to))) {
+            to++;
+        }
+        return slice(section, from, to);
+    }
+
+    /**
+     * Premier enregistrement du groupe, ou null ; pour les cours, recherche par identifiant
+     */
+    public CatalogRecord find(Section section, String key) {
+        int index = lowerBound(section, key);
+        return index < size(section) && key.equals(groupOf(section, index)) ? get(section, index) : null;
+    }
+
+    private List<CatalogRecord> slice(Section section, int from, int to) {
+        if (from >= to) return Collections.emptyList();
+        return new AbstractList<CatalogRecord>() {
+            @Override
+            public CatalogRecord get(int index) {
+                if (index < 0 || index >= to - from) throw new IndexOutOfBoundsException();
+                return CatalogReader.this.get(section, from + index);
+            }
+
+            @Override
+            public int size() {
+                return to - from;
+            }
+        };
+    }
+
+    private int lowerBound(Section section, String key) {
+        int low = 0;
+        int high = size(section);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            String value = groupOf(section, mid);
+            if ((value != null ? value : "").compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private String groupOf(Section section, int index) {
+        return get(section, index).getString(section.groupField);
+    }
+
+    private CatalogRecord decode(SectionInfo info, int offset) {
+        int[] cursor = {offset};
+        long presence = readVarint(cursor);
+        Object[] values = new Object[info.fieldTypes.length];
+        for (int i = 0; i < values.length; i++) {
+            if ((presence & (1L << i)) == 0) continue;
+            switch (info.fieldTypes[i]) {
+                case STRING:
+                    values[i] = string((int) readVarint(cursor));
+                    break;
+                case INT:
+                case LONG:
+                    long zigzag = readVarint(cursor);
+                    values[i] = (zigzag >>> 1) ^ -(zigzag & 1);
+                    break;
+                case DOUBLE:
+                    values[i] = buffer.getDouble(cursor[0]);
+                    cursor[0] += 8;
+                    break;
+                case BOOLEAN:
+                    values[i] = buffer.get(cursor[0]++) != 0;
+                    break;
+            }
+        }
+        return new CatalogRecord(info.fieldIndex, values);
+    }
+
+    String string(int ref) {
+        if (ref < 0 || ref >= stringCount) {
+            throw new IndexOutOfBoundsException("string " + ref);
+        }
+        String value = strings.get(ref);
+        if (value == null) {
+            int start = buffer.getInt(stringIndexOffset + ref * 4);
+            int end = buffer.getInt(stringIndexOffset + (ref + 1) * 4);
+            byte[] bytes = new byte[end - start];
+            ByteBuffer view = buffer.duplicate();
+            ((Buffer) view).position(stringDataOffset + start);
+            view.get(bytes);
+            value = new String(bytes, UTF_8);
+            strings.set(ref, value);
+        }
+        return value;
+    }
+
+    private long readVarint(int[] cursor) {
+        long result = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get(cursor[0]++);
+            result |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return result;
+    }
+
+    private static Section sectionOf(String name) {
+        for (Section section : Section.values()) {
+            if (section.name().equals(name)) return section;
+        }
+        return null;
+    }
+}
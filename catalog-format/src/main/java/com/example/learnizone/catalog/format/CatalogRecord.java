@@ -0,0 +1,70 @@
+package com.example.learnizone.catalog.format;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enregistrement décodé du catalogue, accès par nom de champ
+ */
+public final class CatalogRecord {
+    private final Map<String, Integer> fieldIndex;
+    private final Object[] values;
+
+    CatalogRecord(Map<String, Integer> fieldIndex, Object[] values) {
+        this.fieldIndex = fieldIndex;
+        this.values = values;
+    }
+
+    public boolean has(String field) {
+        return value(field) != null;
+    }
+
+    public String getString(String field) {
+        Object value = value(field);
+        return value instanceof String ? (String) value : null;
+    }
+
+    public String getString(String field, String defaultValue) {
+        String value = getString(field);
+        return value != null ? value : defaultValue;
+    }
+
+    public int getInt(String field, int defaultValue) {
+        Object value = value(field);
+        return value instanceof Long ? (int) (long) (Long) value : defaultValue;
+    }
+
+    public long getLong(String field, long defaultValue) {
+        Object value = value(field);
+        return value instanceof Long ? (Long) value : defaultValue;
+    }
+
+    public double getDouble(String field, double defaultValue) {
+        Object value = value(field);
+        return value instanceof Double ? (Double) value : defaultValue;
+    }
+
+    public boolean getBoolean(String field, boolean defaultValue) {
+        Object value = value(field);
+        return value instanceof Boolean ? (Boolean) value : defaultValue;
+    }
+
+    /**
+     * Champs présents, sous la forme acceptée par {@link CatalogWriter#add}
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>(fieldIndex.size() * 2);
+        for (Map.Entry<String, Integer> field : fieldIndex.entrySet()) {
+            Object value = values[field.getValue()];
+            if (value != null) {
+                map.put(field.getKey(), value);
+            }
+        }
+        return map;
+    }
+
+    private Object value(String field) {
+        Integer index = fieldIndex.get(field);
+        return index != null ? values[index] : null;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.learnizone.catalog.format;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Schéma des sections du catalogue.
+ * Les enregistrements d'une section sont triés par champ de regroupement (puis par ordre),
+ * ce qui permet de retrouver par recherche dichotomique un cours ou les enfants d'un parent.
+ */
+public final class CatalogSchema {
+    public static final int MAGIC = 0x4C5A4354; // "LZCT"
+    public static final int VERSION = 1;
+
+    public enum Type { STRING, INT, LONG, DOUBLE, BOOLEAN }
+
+    public static final class Field {
+        public final String name;
+        public final Type type;
+
+        Field(String name, Type type) {
+            this.name = name;
+            this.type = type;
+        }
+    }
+
+    public enum Section {
+        COURSES("id", null,
+            field("id", Type.STRING),
+            field("title", Type.STRING),
+            field("description", Type.STRING),
+            field("category", Type.STRING),
+            field("thumbnailUrl", Type.STRING),
+            field("instructorName", Type.STRING),
+            field("level", Type.STRING),
+            field("duration", Type.INT),
+            field("rating", Type.DOUBLE),
+            field("totalRatings", Type.INT),
+            field("enrolledStudents", Type.INT),
+            field("price", Type.DOUBLE),
+            field("isPublished", Type.BOOLEAN),
+            field("updatedAt", Type.LONG)),
+        MODULES("courseId", "orderIndex",
+            field("id", Type.STRING),
+            field("courseId", Type.STRING),
+            field("title", Type.STRING),
+            field("duration", Type.INT),
+            field("orderIndex", Type.INT),
+            field("updatedAt", Type.LONG)),
+        LESSONS("courseId", "orderIndex",
+            field("id", Type.STRING),
+            field("courseId", Type.STRING),
+            field("sectionId", Type.STRING),
+            field("title", Type.STRING),
+            field("description", Type.STRING),
+            field("type", Type.STRING),
+            field("videoUrl", Type.STRING),
+            field("audioUrl", Type.STRING),
+            field("duration", Type.INT),
+            field("orderIndex", Type.INT),
+            field("isPublished", Type.BOOLEAN),
+            field("isFree", Type.BOOLEAN),
+            field("updatedAt", Type.LONG)),
+        RESOURCES("lessonId", null,
+            field("id", Type.STRING),
+            field("lessonId", Type.STRING),
+            field("title", Type.STRING),
+            field("type", Type.STRING),
+            field("url", Type.STRING),
+            field("fileName", Type.STRING),
+            field("fileSize", Type.LONG),
+            field("isDownloadable", Type.BOOLEAN),
+            field("updatedAt", Type.LONG));
+
+        /** Champ sur lequel les enregistrements sont regroupés et triés */
+        public final String groupField;
+        /** Tri secondaire (null : par identifiant) */
+        public final String orderField;
+        public final List<Field> fields;
+
+        Section(String groupField, String orderField, Field... fields) {
+            this.groupField = groupField;
+            this.orderField = orderField;
+            this.fields = Collections.unmodifiableList(Arrays.asList(fields));
+        }
+    }
+
+    private CatalogSchema() {}
+
+    private static Field field(String name, Type type) {
+        return new Field(name, type);
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.learnizone.catalog.format;
+
+import com.example.learnizone.catalog.format.CatalogSchema.Field;
+import com.example.learnizone.catalog.format.CatalogSchema.Section;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Écrit un instantané binaire du catalogue.
+ *
+ * Disposition (entiers big-endian, décalages absolus) :
+ * en-tête (magic, version, watermark, table des chaînes, sections),
+ * index des chaînes puis octets UTF-8, et pour chaque section son schéma,
+ * l'index des enregistrements et les enregistrements eux-mêmes.
+ * Un enregistrement commence par un masque de présence (varint) suivi des champs présents :
+ * référence de chaîne et entiers en varint, doubles sur 8 octets, booléens sur 1 octet.
+ * Les chaînes les plus fréquentes reçoivent les plus petites références.
+ */
+public final class CatalogWriter {
+    private static final int HEADER_SIZE = 32;
+    private static final int SECTION_ENTRY_SIZE = 16;
+
+    private final long watermark;
+    private final Map<Section, List<Map<String, ?>>> records = new EnumMap<>(Section.class);
+
+    /**
+     * @param watermark plus grand updatedAt (ms) contenu dans l'instantané
+     */
+    public CatalogWriter(long watermark) {
+        this.watermark = watermark;
+        for (Section section : Section.values()) {
+            records.put(section, new ArrayList<>());
+        }
+    }
+
+    public CatalogWriter add(Section section, Map<String, ?> record) {
+        records.get(section).add(record);
+        return this;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        Section[] sections = Section.values();
+        for (Section section : sections) {
+            Collections.sort(records.get(section), comparator(section));
+        }
+
+        // Table des chaînes, par fréquence décroissante
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (Section section : sections) {
+            count(frequencies, section.name());
+            for (Field field : section.fields) {
+                count(frequencies, field.name);
+            }
+            for (Map<String, ?> record : records.get(section)) {
+                for (Field field : section.fields) {
+                    if (field.type == CatalogSchema.Type.STRING && record.get(field.name) instanceof String) {
+                        count(frequencies, (String) record.get(field.name));
+                    }
+                }
+            }
+        }
+        List<Map.Entry<String, Integer>> ordered = new ArrayList<>(frequencies.entrySet());
+        Collections.sort(ordered, (a, b) -> {
+            int byCount = Integer.compare(b.getValue(), a.getValue());
+            return byCount != 0 ? byCount : a.getKey().compareTo(b.getKey());
+        });
+        Map<String, Integer> refs = new HashMap<>(ordered.size() * 2);
+        ByteArrayOutputStream stringData = new ByteArrayOutputStream();
+        int[] stringOffsets = new int[ordered.size() + 1];
+        for (int i = 0; i < ordered.size(); i++) {
+            String value = ordered.get(i).getKey();
+            refs.put(value, i);
+            stringOffsets[i] = stringData.size();
+            byte[] bytes = value.getBytes("UTF-8");
+            stringData.write(bytes, 0, bytes.length);
+        }
+        stringOffsets[ordered.size()] = stringData.size();
+
+        // Décalages absolus de chaque bloc
+        int stringIndexOffset = HEADER_SIZE + sections.length * SECTION_ENTRY_SIZE;
+        int stringDataOffset = stringIndexOffset + stringOffsets.length * 4;
+        int position = stringDataOffset + stringData.size();
+
+        byte[][] schemas = new byte[sections.length][];
+        int[][] recordOffsets = new int[sections.length][];
+        ByteArrayOutputStream[] recordData = new ByteArrayOutputStream[sections.length];
+        int[] schemaOffsets = new int[sections.length];
+        int[] indexOffsets = new int[sections.length];
+
+        for (int s = 0; s < sections.length; s++) {
+            Section section = sections[s];
+            List<Map<String, ?>> sectionRecords = records.get(section);
+
+            ByteArrayOutputStream schema = new ByteArrayOutputStream();
+            writeVarint(schema, section.fields.size());
+            for (Field field : section.fields) {
+                writeVarint(schema, refs.get(field.name));
+                schema.write(field.type.ordinal());
+            }
+            schemas[s] = schema.toByteArray();
+            schemaOffsets[s] = position;
+            position += schemas[s].length;
+
+            indexOffsets[s] = position;
+            position += sectionRecords.size() * 4;
+
+            recordData[s] = new ByteArrayOutputStream();
+            recordOffsets[s] = new int[sectionRecords.size()];
+            for (int i = 0; i < sectionRecords.size(); i++) {
+                recordOffsets[s][i] = position + recordData[s].size();
+                writeRecord(recordData[s], section, sectionRecords.get(i), refs);
+            }
+            position += recordData[s].size();
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(CatalogSchema.MAGIC);
+        data.writeInt(CatalogSchema.VERSION);
+        data.writeLong(watermark);
+        data.writeInt(ordered.size());
+        data.writeInt(stringIndexOffset);
+        data.writeInt(stringDataOffset);
+        data.writeInt(sections.length);
+        for (int s = 0; s < sections.length; s++) {
+            data.writeInt(refs.get(sections[s].name()));
+            data.writeInt(recordOffsets[s].length);
+            data.writeInt(schemaOffsets[s]);
+            data.writeInt(indexOffsets[s]);
+        }
+        for (int offset : stringOffsets) {
+            data.writeInt(offset);
+        }
+        stringData.writeTo(data);
+        for (int s = 0; s < sections.length; s++) {
+            data.write(schemas[s]);
+            for (int offset : recordOffsets[s]) {
+                data.writeInt(offset);
+            }
+            recordData[s].writeTo(data);
+        }
+        data.flush();
+    }
+
+    private static void writeRecord(ByteArrayOutputStream out, Section section, Map<String, ?> record,
+                                    Map<String, Integer> refs) {
+        List<Field> fields = section.fields;
+        Object[] values = new Object[fields.size()];
+        long presence = 0;
+        for (int i = 0; i < fields.size(); i++) {
+            values[i] = coerce(fields.get(i).type, record.get(fields.get(i).name));
+            if (values[i] != null) presence |= 1L << i;
+        }
+
+        writeVarint(out, presence);
+        for (int i = 0; i < fields.size(); i++) {
+            Object value = values[i];
+            if (value == null) continue;
+            switch (fields.get(i).type) {
+                case STRING:
+                    writeVarint(out, refs.get(value));
+                    break;
+                case INT:
+                case LONG:
+                    long number = (Long) value;
+                    writeVarint(out, (number << 1) ^ (number >> 63));
+                    break;
+                case DOUBLE:
+                    long bits = Double.doubleToRawLongBits((Double) value);
+                    for (int shift = 56; shift >= 0; shift -= 8) {
+                        out.write((int) (bits >>> shift));
+                    }
+                    break;
+                case BOOLEAN:
+                    out.write((Boolean) value ? 1 : 0);
+                    break;
+            }
+        }
+    }
+
+    private static Object coerce(CatalogSchema.Type type, Object value) {
+        switch (type) {
+            case STRING:
+                return value instanceof String ? value : null;
+            case INT:
+            case LONG:
+                if (value instanceof Date) return ((Date) value).getTime();
+                return value instanceof Number ? ((Number) value).longValue() : null;
+            case DOUBLE:
+                return value instanceof Number ? ((Number) value).doubleValue() : null;
+            case BOOLEAN:
+            default:
+                return value instanceof Boolean ? value : null;
+        }
+    }
+
+    private static Comparator<Map<String, ?>> comparator(Section section) {
+        return (a, b) -> {
+            int result = compareStrings(a.get(section.groupField), b.get(section.groupField));
+            if (result == 0 && section.orderField != null) {
+                result = Long.compare(orderOf(a.get(section.orderField)), orderOf(b.get(section.orderField)));
+            }
+            return result != 0 ? result : compareStrings(a.get("id"), b.get("id"));
+        };
+    }
+
+    private static int compareStrings(Object a, Object b) {
+        String left = a instanceof String ? (String) a : "";
+        String right = b instanceof String ? (String) b : "";
+        return left.compareTo(right);
+    }
+
+    private static long orderOf(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : Long.MAX_VALUE;
+    }
+
+    private static void count(Map<String, Integer> frequencies, String value) {
+        Integer current = frequencies.get(value);
+        frequencies.put(value, current == null ? 1 : current + 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.learnizone.catalog.format;
+
+import com.example.learnizone.catalog.format.CatalogSchema.Section;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Aller-retour CatalogWriter -> CatalogReader : bornes des varints et du zigzag,
+ * champs absents, table des chaînes et recherche dichotomique par groupe.
+ */
+public class CatalogRoundTripTest {
+
+    private static final long[] LONG_BOUNDARIES = {
+        0, 1, -1, 63, -64, 64, -65, 127, 128, 8191, -8192, 8192,
+        Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE
+    };
+
+    private static CatalogReader roundTrip(CatalogWriter writer) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeTo(out);
+        return new CatalogReader(ByteBuffer.wrap(out.toByteArray()));
+    }
+
+    private static Map<String, Object> course(String id) {
+        Map<String, Object> course = new HashMap<>();
+        course.put("id", id);
+        return course;
+    }
+
+    private static Map<String, Object> lesson(String id, String courseId, int orderIndex) {
+        Map<String, Object> lesson = new HashMap<>();
+        lesson.put("id", id);
+        lesson.put("courseId", courseId);
+        lesson.put("orderIndex", orderIndex);
+        return lesson;
+    }
+
+    @Test
+    public void header_keepsWatermarkAndVersion() throws IOException {
+        CatalogReader reader = roundTrip(new CatalogWriter(1_700_000_000_123L));
+        assertEquals(1_700_000_000_123L, reader.getWatermark());
+        assertEquals(CatalogSchema.VERSION, reader.getVersion());
+        for (Section section : Section.values()) {
+            assertEquals(0, reader.size(section));
+            assertTrue(reader.records(section).isEmpty());
+        }
+    }
+
+    @Test
+    public void longs_surviveVarintAndZigzagBoundaries() throws IOException {
+        CatalogWriter writer = new CatalogWriter(0);
+        for (int i = 0; i < LONG_BOUNDARIES.length; i++) {
+            Map<String, Object> course = course(String.format("c%02d", i));
+            course.put("updatedAt", LONG_BOUNDARIES[i]);
+            writer.add(Section.COURSES, course);
+        }
+
+        CatalogReader reader = roundTrip(writer);
+        for (int i = 0; i < LONG_BOUNDARIES.length; i++) {
+            CatalogRecord record = reader.find(Section.COURSES, String.format("c%02d", i));
+            assertNotNull(record);
+            assertEquals(LONG_BOUNDARIES[i], record.getLong("updatedAt", 42));
+        }
+    }
+
+    @Test
+    public void ints_surviveTheirExtremes() throws IOException {
+        CatalogWriter writer = new CatalogWriter(0);
+        Map<String, Object> max = course("max");
+        max.put("duration", Integer.MAX_VALUE);
+        Map<String, Object> min = course("min");
+        min.put("duration", Integer.MIN_VALUE);
+        writer.add(Section.COURSES, max).add(Section.COURSES, min);
+
+        CatalogReader reader = roundTrip(writer);
+        assertEquals(Integer.MAX_VALUE, reader.find(Section.COURSES, "max").getInt("duration", 0));
+        assertEquals(Integer.MIN_VALUE, reader.find(Section.COURSES, "min").getInt("duration", 0));
+    }
+
+    @Test
+    public void everyFieldType_roundTrips() throws IOException {
+        Map<String, Object> course = course("c1");
+        course.put("title", "Programmation Java – niveau 1 ✓");
+        course.put("rating", 4.75);
+        course.put("price", -0.0);
+        course.put("isPublished", true);
+        course.put("totalRatings", 12L);
+        course.put("updatedAt", new Date(1_700_000_000_000L));
+
+        CatalogRecord record = roundTrip(new CatalogWriter(0).add(Section.COURSES, course))
+            .find(Section.COURSES, "c1");
+        assertEquals("Programmation Java – niveau 1 ✓", record.getString("title"));
+        assertEquals(4.75, record.getDouble("rating", 0), 0);
+        assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(record.getDouble("price", 1)));
+        assertTrue(record.getBoolean("isPublished", false));
+        assertEquals(12, record.getInt("totalRatings", 0));
+        assertEquals(1_700_000_000_000L, record.getLong("updatedAt", 0));
+    }
+
+    @Test
+    public void missingOrMistypedFields_readAsDefaults() throws IOException {
+        Map<String, Object> course = course("c1");
+        course.put("title", 42);
+        course.put("duration", "long");
+        course.put("isPublished", "true");
+        course.put("unknownField", "ignoré");
+
+        CatalogRecord record = roundTrip(new CatalogWriter(0).add(Section.COURSES, course))
+            .find(Section.COURSES, "c1");
+        assertFalse(record.has("title"));
+        assertNull(record.getString("title"));
+        assertEquals("défaut", record.getString("description", "défaut"));
+        assertEquals(-1, record.getInt("duration", -1));
+        assertFalse(record.getBoolean("isPublished", false));
+        assertFalse(record.has("unknownField"));
+        assertEquals(course("c1"), record.toMap());
+    }
+
+    @Test
+    public void manyStrings_useMultiByteReferences() throws IOException {
+        CatalogWriter writer = new CatalogWriter(0);
+        for (int i = 0; i < 300; i++) {
+            Map<String, Object> course = course(String.format("c%03d", i));
+            course.put("title", "Titre " + i);
+            writer.add(Section.COURSES, course);
+        }
+
+        CatalogReader reader = roundTrip(writer);
+        assertEquals(300, reader.size(Section.COURSES));
+        for (int i = 0; i < 300; i++) {
+            CatalogRecord record = reader.get(Section.COURSES, i);
+            assertEquals(String.format("c%03d", i), record.getString("id"));
+            assertEquals("Titre " + i, record.getString("title"));
+        }
+    }
+
+    @Test
+    public void groups_areSortedByOrderAndFoundByLowerBound() throws IOException {
+        CatalogWriter writer = new CatalogWriter(0)
+            .add(Section.LESSONS, lesson("b2", "b", 2))
+            .add(Section.LESSONS, lesson("d1", "d", 1))
+            .add(Section.LESSONS, lesson("b1", "b", 1))
+            .add(Section.LESSONS, lesson("b3", "b", 3))
+            .add(Section.LESSONS, lesson("f1", "f", 1));
+
+        CatalogReader reader = roundTrip(writer);
+        List<String> ids = new ArrayList<>();
+        for (CatalogRecord record : reader.group(Section.LESSONS, "b")) {
+            ids.add(record.getString("id"));
+        }
+        assertEquals(Arrays.asList("b1", "b2", "b3"), ids);
+        assertEquals(1, reader.group(Section.LESSONS, "d").size());
+        assertEquals("f1", reader.find(Section.LESSONS, "f").getString("id"));
+
+        // Clés absentes : avant le premier, entre deux groupes, après le dernier
+        assertTrue(reader.group(Section.LESSONS, "a").isEmpty());
+        assertTrue(reader.group(Section.LESSONS, "c").isEmpty());
+        assertTrue(reader.group(Section.LESSONS, "g").isEmpty());
+        assertNull(reader.find(Section.LESSONS, "c"));
+        assertNull(reader.find(Section.LESSONS, "z"));
+    }
+
+    @Test
+    public void recordsWithoutGroup_sortFirstAndStayOutOfGroups() throws IOException {
+        Map<String, Object> orphan = lesson("o1", null, 1);
+        orphan.remove("courseId");
+        CatalogWriter writer = new CatalogWriter(0)
+            .add(Section.LESSONS, lesson("a1", "a", 1))
+            .add(Section.LESSONS, orphan);
+
+        CatalogReader reader = roundTrip(writer);
+        assertEquals("o1", reader.get(Section.LESSONS, 0).getString("id"));
+        assertEquals(1, reader.group(Section.LESSONS, "a").size());
+        assertEquals("a1", reader.find(Section.LESSONS, "a").getString("id"));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void get_outOfRange_throws() throws IOException {
+        roundTrip(new CatalogWriter(0).add(Section.COURSES, course("c1"))).get(Section.COURSES, 1);
+    }
+
+    @Test(expected = IOException.class)
+    public void reader_rejectsForeignData() throws IOException {
+        new CatalogReader(ByteBuffer.wrap(new byte[64]));
+    }
+}
@@ -0,0 +1,15 @@
+plugins {
+    id("java-library")
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+dependencies {
+    implementation(project(":catalog-format"))
+
+    // JSON export parsing for the seed catalog generator
+    implementation("com.google.code.gson:gson:2.10.1")
+}
@@ -0,0 +1,160 @@
+package com.example.learnizone.catalog.tool;
+
+import com.example.learnizone.catalog.format.CatalogSchema;
+import com.example.learnizone.catalog.format.CatalogSchema.Field;
+import com.example.learnizone.catalog.format.CatalogSchema.Section;
+import com.example.learnizone.catalog.format.CatalogWriter;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outil de build : convertit l'export JSON du catalogue en instantané de départ.
+ * L'export contient une liste de documents par collection (champ "id" inclus) ;
+ * les dates peuvent être en millisecondes, en ISO-8601 ou au format {"_seconds": ...}.
+ * Les documents marqués isDeleted ne font qu'avancer le watermark.
+ *
+ * Usage : SeedCatalogGenerator export.json catalog_seed.bin
+ */
+public final class SeedCatalogGenerator {
+    /** Collection Firestore -> section */
+    static final Map<String, Section> COLLECTIONS = new LinkedHashMap<>();
+
+    static {
+        COLLECTIONS.put("courses", Section.COURSES);
+        COLLECTIONS.put("modules", Section.MODULES);
+        COLLECTIONS.put("lessons", Section.LESSONS);
+        COLLECTIONS.put("lessonResources", Section.RESOURCES);
+    }
+
+    private SeedCatalogGenerator() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: SeedCatalogGenerator <export.json> <output.bin>");
+            System.exit(2);
+        }
+        File input = new File(args[0]);
+        File output = new File(args[1]);
+
+        JsonObject root;
+        try (Reader reader = new InputStreamReader(new FileInputStream(input), "UTF-8")) {
+            root = JsonParser.parseReader(reader).getAsJsonObject();
+        }
+
+        Map<Section, List<Map<String, Object>>> records = new EnumMap<>(Section.class);
+        long watermark = 0;
+        for (Map.Entry<String, Section> collection : COLLECTIONS.entrySet()) {
+            List<Map<String, Object>> documents = new ArrayList<>();
+            JsonElement array = root.get(collection.getKey());
+            if (array != null && array.isJsonArray()) {
+                for (JsonElement element : (JsonArray) array) {
+                    JsonObject document = element.getAsJsonObject();
+                    Map<String, Object> record = toRecord(collection.getValue(), document);
+                    Object updatedAt = record.get("updatedAt");
+                    if (updatedAt instanceof Long) {
+                        watermark = Math.max(watermark, (Long) updatedAt);
+                    }
+                    if (!isDeleted(document)) {
+                        documents.add(record);
+                    }
+                }
+            }
+            records.put(collection.getValue(), documents);
+        }
+
+        CatalogWriter writer = new CatalogWriter(watermark);
+        int total = 0;
+        for (Map.Entry<Section, List<Map<String, Object>>> section : records.entrySet()) {
+            for (Map<String, Object> record : section.getValue()) {
+                writer.add(section.getKey(), record);
+                total++;
+            }
+        }
+
+        File parent = output.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+        try (OutputStream out = new FileOutputStream(output)) {
+            writer.writeTo(out);
+        }
+        System.out.println("Seed catalog: " + total + " records, " + output.length()
+            + " bytes, watermark " + watermark);
+    }
+
+    private static Map<String, Object> toRecord(Section section, JsonObject document) {
+        Map<String, Object> record = new HashMap<>();
+        for (Field field : section.fields) {
+            JsonElement value = document.get(field.name);
+            if (value == null || value.isJsonNull()) continue;
+            Object converted = convert(field.type, value);
+            if (converted != null) {
+                record.put(field.name, converted);
+            }
+        }
+        return record;
+    }
+
+    private static Object convert(CatalogSchema.Type type, JsonElement value) {
+        switch (type) {
+            case STRING:
+                return value.isJsonPrimitive() ? value.getAsString() : null;
+            case BOOLEAN:
+                return value.isJsonPrimitive() && ((JsonPrimitive) value).isBoolean() ? value.getAsBoolean() : null;
+            case DOUBLE:
+                return isNumber(value) ? value.getAsDouble() : null;
+            case INT:
+                return isNumber(value) ? value.getAsLong() : null;
+            case LONG:
+            default:
+                return toMillis(value);
+        }
+    }
+
+    private static Long toMillis(JsonElement value) {
+        if (isNumber(value)) {
+            return value.getAsLong();
+        }
+        if (value.isJsonPrimitive()) {
+            return OffsetDateTime.parse(value.getAsString()).toInstant().toEpochMilli();
+        }
+        if (value.isJsonObject()) {
+            // Horodatage Firestore exporté tel quel
+            JsonObject timestamp = value.getAsJsonObject();
+            JsonElement seconds = timestamp.has("_seconds") ? timestamp.get("_seconds") : timestamp.get("seconds");
+            JsonElement nanos = timestamp.has("_nanoseconds") ? timestamp.get("_nanoseconds") : timestamp.get("nanoseconds");
+            if (seconds != null) {
+                return seconds.getAsLong() * 1000 + (nanos != null ? nanos.getAsLong() / 1_000_000 : 0);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isDeleted(JsonObject document) {
+        JsonElement deleted = document.get("isDeleted");
+        return deleted != null && deleted.isJsonPrimitive()
+            && ((JsonPrimitive) deleted).isBoolean() && deleted.getAsBoolean();
+    }
+
+    private static boolean isNumber(JsonElement value) {
+        return value.isJsonPrimitive() && ((JsonPrimitive) value).isNumber();
+    }
+}
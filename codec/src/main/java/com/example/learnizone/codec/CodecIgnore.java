@@ -0,0 +1,14 @@
+package com.example.learnizone.codec;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Champ absent du document (ni lu ni écrit par le codec)
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface CodecIgnore {
+}
@@ -0,0 +1,371 @@
+package com.example.learnizone.codec;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Génère un codec sans réflexion pour chaque classe annotée {@link FirestoreModel}.
+ * Le décodage lit directement la map de données du document (une recherche par champ,
+ * sans conversion intermédiaire) ; l'encodage remplit une map dimensionnée à l'avance.
+ * Les énumérations passent par leur fromString (EnumCodec, en temps constant) ou,
+ * à défaut, par une table construite une seule fois.
+ */
+public class CodecProcessor extends AbstractProcessor {
+    private static final String TIMESTAMP_CLASS = "com.google.firebase.Timestamp";
+
+    private enum Kind { STRING, BOOLEAN, INT, LONG, FLOAT, DOUBLE, DATE, ENUM, MAP, LIST }
+
+    private static final class Property {
+        String key;
+        String typeName;
+        Kind kind;
+        String getter;
+        String setter;
+        boolean enumHasFromString;
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return new HashSet<>(Arrays.asList(
+            FirestoreModel.class.getCanonicalName(),
+            DocumentId.class.getCanonicalName(),
+            CodecIgnore.class.getCanonicalName()));
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(FirestoreModel.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@FirestoreModel ne s'applique qu'aux classes");
+                continue;
+            }
+            generate((TypeElement) element);
+        }
+        checkFieldAnnotations(roundEnv, DocumentId.class);
+        checkFieldAnnotations(roundEnv, CodecIgnore.class);
+        return true;
+    }
+
+    /**
+     * @DocumentId et @CodecIgnore hors d'un @FirestoreModel n'auraient aucun effet
+     */
+    private void checkFieldAnnotations(RoundEnvironment roundEnv, Class<? extends Annotation> annotation) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+            Element owner = element.getEnclosingElement();
+            if (owner == null || owner.getAnnotation(FirestoreModel.class) == null) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "@" + annotation.getSimpleName() + " ignoré : la classe n'est pas un @FirestoreModel", element);
+            }
+        }
+    }
+
+    private void generate(TypeElement type) {
+        List<ExecutableElement> methods = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type));
+        List<Property> properties = new ArrayList<>();
+        String idSetter = null;
+
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (field.getModifiers().contains(Modifier.STATIC)
+                    || field.getModifiers().contains(Modifier.TRANSIENT)
+                    || field.getAnnotation(CodecIgnore.class) != null) {
+                continue;
+            }
+
+            String name = field.getSimpleName().toString();
+            String setter = findSetter(methods, name);
+            if (setter == null) {
+                error(field, "Aucun mutateur pour " + name);
+                return;
+            }
+
+            if (field.getAnnotation(DocumentId.class) != null) {
+                idSetter = setter;
+                continue;
+            }
+
+            Property property = new Property();
+            property.key = name;
+            property.setter = setter;
+            property.getter = findGetter(methods, name);
+            property.typeName = field.asType().toString();
+            property.kind = kindOf(field.asType());
+            if (property.getter == null || property.kind == null) {
+                error(field, property.getter == null
+                    ? "Aucun accesseur pour " + name
+                    : "Type non pris en charge : " + property.typeName);
+                return;
+            }
+            if (property.kind == Kind.ENUM) {
+                TypeElement enumType = (TypeElement) ((DeclaredType) field.asType()).asElement();
+                if (!hasMethod(enumType, "getValue", 0)) {
+                    error(field, "L'énumération " + enumType + " doit exposer getValue()");
+                    return;
+                }
+                property.enumHasFromString = hasMethod(enumType, "fromString", 1);
+            }
+            properties.add(property);
+        }
+
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = pkg.getQualifiedName().toString();
+        String modelName = type.getQualifiedName().toString();
+        String codecName = type.getSimpleName() + "Codec";
+        boolean timestamps = processingEnv.getElementUtils().getTypeElement(TIMESTAMP_CLASS) != null;
+
+        try (Writer out = processingEnv.getFiler()
+                .createSourceFile(packageName + "." + codecName, type)
+                .openWriter()) {
+            out.write(render(packageName, modelName, codecName, idSetter, properties, timestamps));
+        } catch (IOException e) {
+            error(type, "Écriture du codec impossible : " + e.getMessage());
+        }
+    }
+
+    private String render(String packageName, String modelName, String codecName, String idSetter,
+                          List<Property> properties, boolean timestamps) {
+        StringBuilder out = new StringBuilder(4096);
+        if (!packageName.isEmpty()) {
+            out.append("package ").append(packageName).append(";\n\n");
+        }
+        out.append("/**\n * Codec généré par CodecProcessor pour {@link ").append(modelName)
+            .append("} ; ne pas modifier.\n */\n");
+        out.append("public final class ").append(codecName).append(" {\n");
+        // Capacité suffisante pour éviter tout redimensionnement à l'encodage
+        out.append("    private static final int MAP_CAPACITY = ")
+            .append((int) (properties.size() / 0.75f) + 1).append(";\n");
+
+        boolean hasDates = false;
+        for (Property property : properties) {
+            if (property.kind == Kind.DATE) hasDates = true;
+            // Les énumérations dotées de fromString (EnumCodec) ont déjà leur table
+            if (property.kind != Kind.ENUM || property.enumHasFromString) continue;
+            String table = constantName(property.key);
+            out.append("    private static final java.util.Map<String, ").append(property.typeName).append("> ")
+                .append(table).append(";\n");
+            out.append("\n    static {\n");
+            out.append("        ").append(property.typeName).append("[] values = ")
+                .append(property.typeName).append(".values();\n");
+            out.append("        java.util.Map<String, ").append(property.typeName)
+                .append("> map = new java.util.HashMap<>(values.length * 2);\n");
+            out.append("        for (").append(property.typeName).append(" value : values) {\n");
+            out.append("            map.put(value.getValue(), value);\n");
+            out.append("        }\n");
+            out.append("        ").append(table).append(" = java.util.Collections.unmodifiableMap(map);\n");
+            out.append("    }\n");
+        }
+
+        out.append("\n    private ").append(codecName).append("() {}\n");
+
+        // Décodage
+        out.append("\n    @SuppressWarnings(\"unchecked\")\n");
+        out.append("    public static ").append(modelName)
+            .append(" decode(String id, java.util.Map<String, Object> data) {\n");
+        out.append("        ").append(modelName).append(" target = new ").append(modelName).append("();\n");
+        if (idSetter != null) {
+            out.append("        target.").append(idSetter).append("(id);\n");
+        }
+        out.append("        Object value;\n");
+        for (Property property : properties) {
+            out.append("\n        value = data.get(\"").append(property.key).append("\");\n");
+            out.append(decodeStatement(property));
+        }
+        out.append("        return target;\n    }\n");
+
+        // Encodage
+        out.append("\n    public static java.util.Map<String, Object> encode(").append(modelName).append(" target) {\n");
+        out.append("        java.util.Map<String, Object> map = new java.util.HashMap<>(MAP_CAPACITY);\n");
+        out.append("        encodeInto(target, map);\n");
+        out.append("        return map;\n    }\n");
+
+        out.append("\n    public static void encodeInto(").append(modelName)
+            .append(" target, java.util.Map<String, Object> map) {\n");
+        for (Property property : properties) {
+            if (property.kind == Kind.ENUM) {
+                String local = property.key + "Value";
+                out.append("        ").append(property.typeName).append(' ').append(local)
+                    .append(" = target.").append(property.getter).append("();\n");
+                out.append("        map.put(\"").append(property.key).append("\", ").append(local)
+                    .append(" != null ? ").append(local).append(".getValue() : null);\n");
+            } else {
+                out.append("        map.put(\"").append(property.key).append("\", target.")
+                    .append(property.getter).append("());\n");
+            }
+        }
+        out.append("    }\n");
+
+        if (hasDates) {
+            out.append("\n    private static java.util.Date toDate(Object value) {\n");
+            if (timestamps) {
+                out.append("        if (value instanceof ").append(TIMESTAMP_CLASS).append(") {\n");
+                out.append("            return ((").append(TIMESTAMP_CLASS).append(") value).toDate();\n");
+                out.append("        }\n");
+            }
+            out.append("        return value instanceof java.util.Date ? (java.util.Date) value : null;\n");
+            out.append("    }\n");
+        }
+
+        out.append("}\n");
+        return out.toString();
+    }
+
+    /**
+     * Les références (chaînes, dates, énumérations) valent null en l'absence de la clé ;
+     * les nombres, booléens et collections gardent la valeur du constructeur.
+     */
+    private static String decodeStatement(Property property) {
+        String set = "target." + property.setter;
+        switch (property.kind) {
+            case STRING:
+                return "        " + set + "(value instanceof String ? (String) value : null);\n";
+            case DATE:
+                return "        " + set + "(toDate(value));\n";
+            case BOOLEAN:
+                return "        if (value instanceof Boolean) " + set + "((Boolean) value);\n";
+            case INT:
+                return "        if (value instanceof Number) " + set + "(((Number) value).intValue());\n";
+            case LONG:
+                return "        if (value instanceof Number) " + set + "(((Number) value).longValue());\n";
+            case FLOAT:
+                return "        if (value instanceof Number) " + set + "(((Number) value).floatValue());\n";
+            case DOUBLE:
+                return "        if (value instanceof Number) " + set + "(((Number) value).doubleValue());\n";
+            case MAP:
+                return "        if (value instanceof java.util.Map) " + set + "((" + property.typeName + ") value);\n";
+            case LIST:
+                return "        if (value instanceof java.util.List) " + set + "((" + property.typeName + ") value);\n";
+            case ENUM:
+            default:
+                if (property.enumHasFromString) {
+                    return "        " + set + "(" + property.typeName
+                        + ".fromString(value instanceof String ? (String) value : null));\n";
+                }
+                return "        " + set + "(value instanceof String ? " + constantName(property.key)
+                    + ".get(value) : null);\n";
+        }
+    }
+
+    private Kind kindOf(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN: return Kind.BOOLEAN;
+            case INT: return Kind.INT;
+            case LONG: return Kind.LONG;
+            case FLOAT: return Kind.FLOAT;
+            case DOUBLE: return Kind.DOUBLE;
+            case DECLARED: break;
+            default: return null;
+        }
+
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        if (element.getKind() == ElementKind.ENUM) return Kind.ENUM;
+
+        String name = element.getQualifiedName().toString();
+        switch (name) {
+            case "java.lang.String": return Kind.STRING;
+            case "java.lang.Boolean": return Kind.BOOLEAN;
+            case "java.lang.Integer": return Kind.INT;
+            case "java.lang.Long": return Kind.LONG;
+            case "java.lang.Float": return Kind.FLOAT;
+            case "java.lang.Double": return Kind.DOUBLE;
+            case "java.util.Date": return Kind.DATE;
+            case "java.util.Map": return Kind.MAP;
+            case "java.util.List": return Kind.LIST;
+            default: return null;
+        }
+    }
+
+    /**
+     * setTitle pour title ; setRead pour isRead (convention des booléens)
+     */
+    private static String findSetter(List<ExecutableElement> methods, String field) {
+        for (String candidate : accessorNames(field, "set")) {
+            if (findMethod(methods, candidate, 1) != null) return candidate;
+        }
+        return null;
+    }
+
+    private static String findGetter(List<ExecutableElement> methods, String field) {
+        List<String> candidates = new ArrayList<>(accessorNames(field, "get"));
+        candidates.addAll(accessorNames(field, "is"));
+        if (isBooleanPrefixed(field)) {
+            candidates.add(0, field);
+        }
+        for (String candidate : candidates) {
+            if (findMethod(methods, candidate, 0) != null) return candidate;
+        }
+        return null;
+    }
+
+    private static List<String> accessorNames(String field, String prefix) {
+        List<String> names = new ArrayList<>(2);
+        names.add(prefix + capitalize(field));
+        if (isBooleanPrefixed(field)) {
+            names.add(prefix + field.substring(2));
+        }
+        return names;
+    }
+
+    private static boolean isBooleanPrefixed(String field) {
+        return field.length() > 2 && field.startsWith("is") && Character.isUpperCase(field.charAt(2));
+    }
+
+    private static ExecutableElement findMethod(List<ExecutableElement> methods, String name, int parameters) {
+        for (ExecutableElement method : methods) {
+            if (method.getSimpleName().contentEquals(name)
+                    && method.getParameters().size() == parameters
+                    && !method.getModifiers().contains(Modifier.PRIVATE)
+                    && (parameters == 1 || method.getReturnType().getKind() != TypeKind.VOID)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasMethod(TypeElement type, String name, int parameters) {
+        return findMethod(ElementFilter.methodsIn(type.getEnclosedElements()), name, parameters) != null;
+    }
+
+    private static String capitalize(String value) {
+        return Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+
+    private static String constantName(String field) {
+        StringBuilder name = new StringBuilder(field.length() + 8);
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (Character.isUpperCase(c) && i > 0) name.append('_');
+            name.append(Character.toUpperCase(c));
+        }
+        return name.append("_VALUES").toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.learnizone.codec;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Champ recevant l'identifiant du document ; il n'est pas écrit dans la map encodée
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface DocumentId {
+}
@@ -0,0 +1,70 @@
+package com.example.learnizone.codec;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Conversion chaîne -> énumération en temps constant.
+ * La table est construite une seule fois à l'initialisation de l'énumération ;
+ * les valeurs inconnues renvoient la valeur par défaut et sont comptées,
+ * ce qui permet de repérer un serveur plus récent que l'application.
+ */
+public final class EnumCodec<E extends Enum<E>> {
+    private static final CopyOnWriteArrayList<EnumCodec<?>> REGISTRY = new CopyOnWriteArrayList<>();
+
+    private final Class<E> type;
+    private final Map<String, E> byValue;
+    private final E fallback;
+    private final AtomicLong unknownCount = new AtomicLong();
+
+    private EnumCodec(Class<E> type, Map<String, E> byValue, E fallback) {
+        this.type = type;
+        this.byValue = byValue;
+        this.fallback = fallback;
+    }
+
+    /**
+     * @param valueOf  valeur stockée dans Firestore pour chaque constante
+     * @param fallback constante retournée pour une valeur absente ou inconnue
+     */
+    public static <E extends Enum<E>> EnumCodec<E> of(Class<E> type, Function<E, String> valueOf, E fallback) {
+        E[] constants = type.getEnumConstants();
+        Map<String, E> byValue = new HashMap<>(constants.length * 2);
+        for (E constant : constants) {
+            byValue.put(valueOf.apply(constant), constant);
+        }
+        EnumCodec<E> codec = new EnumCodec<>(type, Collections.unmodifiableMap(byValue), fallback);
+        REGISTRY.add(codec);
+        return codec;
+    }
+
+    public E decode(String value) {
+        if (value == null) return fallback;
+        E constant = byValue.get(value);
+        if (constant == null) {
+            unknownCount.incrementAndGet();
+            return fallback;
+        }
+        return constant;
+    }
+
+    public long getUnknownCount() {
+        return unknownCount.get();
+    }
+
+    /**
+     * Nombre de valeurs inconnues rencontrées, par énumération (diagnostic)
+     */
+    public static Map<String, Long> unknownCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (EnumCodec<?> codec : REGISTRY) {
+            counts.put(codec.type.getName(), codec.getUnknownCount());
+        }
+        return counts;
+    }
+}
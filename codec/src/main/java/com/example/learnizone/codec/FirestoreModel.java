@@ -0,0 +1,16 @@
+package com.example.learnizone.codec;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Modèle Firestore pour lequel un codec {@code <Modèle>Codec} est généré à la compilation.
+ * Chaque champ non ignoré correspond à la clé du même nom dans le document et
+ * doit disposer d'un accesseur et d'un mutateur.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface FirestoreModel {
+}
@@ -0,0 +1,71 @@
+package com.example.learnizone.codec;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Décodage des énumérations : valeurs connues, absentes et inconnues.
+ */
+public class EnumCodecTest {
+
+    private enum Level {
+        BEGINNER("beginner"),
+        ADVANCED("advanced");
+
+        private final String value;
+
+        Level(String value) {
+            this.value = value;
+        }
+
+        String getValue() {
+            return value;
+        }
+    }
+
+    private static EnumCodec<Level> codec() {
+        return EnumCodec.of(Level.class, Level::getValue, Level.BEGINNER);
+    }
+
+    @Test
+    public void knownValues_decodeToTheirConstant() {
+        EnumCodec<Level> codec = codec();
+        assertEquals(Level.BEGINNER, codec.decode("beginner"));
+        assertEquals(Level.ADVANCED, codec.decode("advanced"));
+        assertEquals(0, codec.getUnknownCount());
+    }
+
+    @Test
+    public void unknownValue_fallsBackAndIsCounted() {
+        EnumCodec<Level> codec = codec();
+        assertEquals(Level.BEGINNER, codec.decode("expert"));
+        assertEquals(Level.BEGINNER, codec.decode("ADVANCED"));
+        assertEquals(Level.BEGINNER, codec.decode(""));
+        assertEquals(3, codec.getUnknownCount());
+    }
+
+    @Test
+    public void nullValue_fallsBackWithoutBeingCounted() {
+        EnumCodec<Level> codec = codec();
+        assertEquals(Level.BEGINNER, codec.decode(null));
+        assertEquals(0, codec.getUnknownCount());
+    }
+
+    @Test
+    public void nullFallback_isAllowed() {
+        EnumCodec<Level> codec = EnumCodec.of(Level.class, Level::getValue, null);
+        assertNull(codec.decode("expert"));
+        assertEquals(1, codec.getUnknownCount());
+    }
+
+    @Test
+    public void unknownCounts_reportEveryCodecByEnumName() {
+        EnumCodec<Level> codec = codec();
+        codec.decode("expert");
+        codec.decode("expert");
+
+        assertTrue(EnumCodec.unknownCounts().containsKey(Level.class.getName()));
+        assertEquals(2, codec.getUnknownCount());
+    }
+}
@@ -20,4 +20,7 @@ dependencyResolutionManagement {
 }
 
 rootProject.name = "learnizone"
-include(":app")
\ No newline at end of file
+include(":app")
+include(":codec")
+include(":catalog-format")
+include(":catalog-tool")
\ No newline at end of file